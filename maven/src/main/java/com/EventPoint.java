@@ -2,14 +2,32 @@ package com;
 
 import com.numbers.AbstractNumber;
 
+import java.util.Arrays;
+
 public class EventPoint<T extends AbstractNumber<T>> {
     Point<T> point;
     int trapezoidIndex;
     boolean isStart;
+    // The trapezoids of the events of the same kind at the same point that
+    // are merged into this one, starting with trapezoidIndex.
+    int[] trapezoidIndices;
+    int trapezoidCount;
 
     public EventPoint(Point<T> point, int trapezoidIndex, boolean isStart) {
         this.point = point;
         this.trapezoidIndex = trapezoidIndex;
         this.isStart = isStart;
+        this.trapezoidIndices = new int[] {trapezoidIndex};
+        this.trapezoidCount = 1;
+    }
+
+    /**
+     * Merge the event of another trapezoid at the same point and of the same
+     * kind into this one.
+     */
+    public void merge(int otherTrapezoidIndex) {
+        if (trapezoidCount == trapezoidIndices.length)
+            trapezoidIndices = Arrays.copyOf(trapezoidIndices, 2 * trapezoidCount);
+        trapezoidIndices[trapezoidCount++] = otherTrapezoidIndex;
     }
 }
@@ -14,11 +14,11 @@ public class EventPointComparator<T extends AbstractNumber<T>> implements Compar
         if (ep1.point.equals(pivot) || ep2.point.equals(pivot)) {
             throw new RuntimeException("Cannot compare a point equal to the pivot.");
         }
-        if (ep1.point.y.subtract(pivot.y).compareToZero() >= 0 && ep2.point.y.subtract(pivot.y).compareToZero() < 0) {
+        if (ep1.point.y.compareTo(pivot.y) >= 0 && ep2.point.y.compareTo(pivot.y) < 0) {
             // Relative to pivot, p1 is at or above the horizontal, and p2 is below.
             return -1;
         }
-        if (ep2.point.y.subtract(pivot.y).compareToZero() >= 0 && ep1.point.y.subtract(pivot.y).compareToZero() < 0) {
+        if (ep2.point.y.compareTo(pivot.y) >= 0 && ep1.point.y.compareTo(pivot.y) < 0) {
             // Relative to pivot, p2 is at or above the horizontal, and p1 is below.
             return 1;
         }
@@ -41,9 +41,7 @@ public class EventPointComparator<T extends AbstractNumber<T>> implements Compar
             // The point closest to the pivot is "less".
             return pivot.distanceSq(ep1.point).compareTo(pivot.distanceSq(ep2.point));
         }
-        Vector<T> v1 = new Vector<>(pivot, ep1.point);
-        Vector<T> v2 = new Vector<>(pivot, ep2.point);
-        int side = v1.cross(v2).compareToZero();
+        int side = Orientation.sign(pivot, ep1.point, ep2.point);
         if (side == 0) {
             if (ep1.isStart && !ep2.isStart) {
                 return -1;
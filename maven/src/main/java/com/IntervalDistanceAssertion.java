@@ -0,0 +1,261 @@
+package com;
+
+import com.numbers.DoubleInterval;
+import com.numbers.Fraction;
+import com.numbers.IndeterminateComparisonException;
+import com.numbers.WholeAndRt3;
+
+/**
+ * Rigorous distance assertions that run at close to double speed.
+ *
+ * The assertions are the same as the assertBounded* methods of
+ * com.TrapezoidSequence with com.numbers.Fraction of com.numbers.WholeAndRt3,
+ * and give the same results. Every distance is first evaluated in
+ * com.numbers.DoubleInterval arithmetic on a parallel sequence of
+ * trapezoids. Only the trapezoid pairs whose intervals cannot decide the
+ * assertion, because they straddle the bound or because a comparison inside
+ * the distance computation was indeterminate, are evaluated again exactly.
+ */
+public class IntervalDistanceAssertion {
+    private static final Fraction<WholeAndRt3> EXACT_ZERO = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+    private static final int DISTANCE_CACHE_CAPACITY = 1 << 16;
+
+    private final TrapezoidSequence<DoubleInterval> intervalSeq;
+    private final TrapezoidSequence<Fraction<WholeAndRt3>> exactSeq;
+    private long evaluations = 0;
+    private long escalations = 0;
+
+    public IntervalDistanceAssertion(int nTrapezoids) {
+        intervalSeq = new TrapezoidSequence<>(
+                nTrapezoids, new Point<>(DoubleInterval.ZERO, DoubleInterval.ZERO));
+        exactSeq = new TrapezoidSequence<>(nTrapezoids, new Point<>(EXACT_ZERO, EXACT_ZERO));
+        // An interval distance is an enclosure of a translation invariant
+        // value, so it is valid for every pair with the same configuration.
+        intervalSeq.setDistanceCache(new PairDistanceCache<>(
+                DISTANCE_CACHE_CAPACITY, PairDistanceCache.EvictionPolicy.LRU));
+    }
+
+    public int indexOfLastNewRelativePositioning(int sequenceLength) {
+        return intervalSeq.indexOfLastNewRelativePositioning(sequenceLength);
+    }
+
+    /**
+     * @return the number of trapezoid pair distances evaluated.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return the number of trapezoid pair distances that had to be
+     *  evaluated exactly.
+     */
+    public long getEscalations() {
+        return escalations;
+    }
+
+    private void extendToLength(int nTrapezoids) {
+        intervalSeq.extendToLength(nTrapezoids);
+        exactSeq.extendToLength(nTrapezoids);
+    }
+
+    /**
+     * Compare scale times the largest or smallest distance squared between
+     * two trapezoids with a threshold.
+     *
+     * The comparison is done in interval arithmetic, and exactly only if
+     * the intervals cannot decide it.
+     */
+    private int compareScaledDistanceSq(
+            int index1, int index2, boolean largest,
+            DoubleInterval scale, DoubleInterval threshold,
+            Fraction<WholeAndRt3> exactScale, Fraction<WholeAndRt3> exactThreshold) {
+        evaluations++;
+        try {
+            DoubleInterval distanceSq = largest
+                    ? intervalSeq.getMaxDistanceSq(index1, index2)
+                    : intervalSeq.getMinDistanceSq(index1, index2);
+            return distanceSq.multiply(scale).compareTo(threshold);
+        } catch (IndeterminateComparisonException e) {
+            escalations++;
+            Fraction<WholeAndRt3> distanceSq = largest
+                    ? exactSeq.getMaxDistanceSq(index1, index2)
+                    : exactSeq.getMinDistanceSq(index1, index2);
+            return distanceSq.multiply(exactScale).compareTo(exactThreshold);
+        }
+    }
+
+    /**
+     * Assert that max distance divided by the index gap for all trapezoid pairs is below a given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedMaxDistance.
+     */
+    public boolean assertBoundedMaxDistance(
+            int gapMin, int gapMax, int startIndex, int endIndex, WholeAndRt3 baseUpperBound) {
+        extendToLength(endIndex + gapMax + 2);
+        DoubleInterval bound = DoubleInterval.valueOf(baseUpperBound);
+        Fraction<WholeAndRt3> exactBound = new Fraction<>(baseUpperBound, WholeAndRt3.ONE);
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
+            DoubleInterval rhsSqrt = bound.multiply(bound.whole(gap));
+            Fraction<WholeAndRt3> exactRhsSqrt = exactBound.multiply(exactBound.whole(gap));
+            DoubleInterval rhs = rhsSqrt.multiply(rhsSqrt);
+            Fraction<WholeAndRt3> exactRhs = exactRhsSqrt.multiply(exactRhsSqrt);
+            for (int index=startIndex; index<=endIndex; index++) {
+                for (int partner=index+gap; partner<=index+gap+1; partner++) {
+                    if (compareScaledDistanceSq(index, partner, true, DoubleInterval.ONE, rhs,
+                            exactBound.one(), exactRhs) >= 0)
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assert that the index gap plus one divided by the min distance for all trapezoid pairs is below a
+     * given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedMinDistance.
+     */
+    public boolean assertBoundedMinDistance(
+            int gapMin, int gapMax, int startIndex, int endIndex, WholeAndRt3 baseUpperBound) {
+        extendToLength(endIndex + gapMax + 2);
+        DoubleInterval bound = DoubleInterval.valueOf(baseUpperBound);
+        Fraction<WholeAndRt3> exactBound = new Fraction<>(baseUpperBound, WholeAndRt3.ONE);
+        DoubleInterval boundSq = bound.multiply(bound);
+        Fraction<WholeAndRt3> exactBoundSq = exactBound.multiply(exactBound);
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
+            DoubleInterval lhsSqrt = bound.whole(gap + 1);
+            Fraction<WholeAndRt3> exactLhsSqrt = exactBound.whole(gap + 1);
+            DoubleInterval lhs = lhsSqrt.multiply(lhsSqrt);
+            Fraction<WholeAndRt3> exactLhs = exactLhsSqrt.multiply(exactLhsSqrt);
+            for (int index=startIndex; index<=endIndex; index++) {
+                for (int partner=index+gap; partner<=index+gap+1; partner++) {
+                    if (compareScaledDistanceSq(index, partner, false, boundSq, lhs,
+                            exactBoundSq, exactLhs) <= 0)
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assert that distance ratios between trapezoid pairs are below a given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedRatio. The assertion is that
+     *      maxDistanceSq / gap^2 * (gap' + 1)^2 / minDistanceSq < baseUpperBound^2
+     * for the pairs with the largest of each of the two factors. The
+     * largest factors are enclosed in interval arithmetic first. Only if the
+     * enclosures cannot decide the assertion are the pairs whose interval
+     * factor could be the largest evaluated exactly.
+     */
+    public boolean assertBoundedRatio(
+            int gapMin, int gapMax, int startIndex, int endIndex, WholeAndRt3 baseUpperBound) {
+        extendToLength(endIndex + gapMax + 2);
+        DoubleInterval bound = DoubleInterval.valueOf(baseUpperBound);
+        Fraction<WholeAndRt3> exactBound = new Fraction<>(baseUpperBound, WholeAndRt3.ONE);
+        RatioEnclosure maxFactor = enclosingMaxRatio(true, gapMin, gapMax, startIndex, endIndex);
+        RatioEnclosure minFactor = enclosingMaxRatio(false, gapMin, gapMax, startIndex, endIndex);
+        if (maxFactor.complete && minFactor.complete) {
+            try {
+                return maxFactor.hull.multiply(minFactor.hull).compareTo(bound.multiply(bound)) < 0;
+            } catch (IndeterminateComparisonException e) {
+                // Fall through to the exact factors.
+            }
+        }
+        Fraction<WholeAndRt3> exactMaxFactor = exactMaxRatio(
+                true, gapMin, gapMax, startIndex, endIndex, maxFactor.lowerBound());
+        Fraction<WholeAndRt3> exactMinFactor = exactMaxRatio(
+                false, gapMin, gapMax, startIndex, endIndex, minFactor.lowerBound());
+        System.out.printf("maxHiDistanceRatio squared: %s\n", exactMaxFactor);
+        System.out.printf("maxLoDistanceRatio squared: %s\n", exactMinFactor);
+        return exactMaxFactor.multiply(exactMinFactor).compareTo(exactBound.multiply(exactBound)) < 0;
+    }
+
+    /**
+     * Get the ratio maxDistanceSq / gap^2 if largest, and otherwise the
+     * ratio (gap + 1)^2 / minDistanceSq, for a pair of trapezoids.
+     */
+    private DoubleInterval intervalRatio(boolean largest, int index, int partner, int gap) {
+        evaluations++;
+        if (largest) {
+            DoubleInterval gapSq = DoubleInterval.valueOf((long) gap * gap);
+            return intervalSeq.getMaxDistanceSq(index, partner).divide(gapSq);
+        }
+        DoubleInterval gapSq = DoubleInterval.valueOf((long) (gap + 1) * (gap + 1));
+        return gapSq.divide(intervalSeq.getMinDistanceSq(index, partner));
+    }
+
+    private Fraction<WholeAndRt3> exactRatio(boolean largest, int index, int partner, int gap) {
+        escalations++;
+        if (largest) {
+            Fraction<WholeAndRt3> gapSq = EXACT_ZERO.whole((long) gap * gap);
+            return exactSeq.getMaxDistanceSq(index, partner).divide(gapSq);
+        }
+        Fraction<WholeAndRt3> gapSq = EXACT_ZERO.whole((long) (gap + 1) * (gap + 1));
+        return gapSq.divide(exactSeq.getMinDistanceSq(index, partner));
+    }
+
+    /**
+     * Enclose the largest ratio over all trapezoid pairs in the range.
+     */
+    private RatioEnclosure enclosingMaxRatio(boolean largest, int gapMin, int gapMax, int startIndex, int endIndex) {
+        RatioEnclosure enclosure = new RatioEnclosure();
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
+            for (int index=startIndex; index<=endIndex; index++) {
+                for (int partner=index+gap; partner<=index+gap+1; partner++) {
+                    try {
+                        DoubleInterval ratio = intervalRatio(largest, index, partner, gap);
+                        enclosure.hull = enclosure.hull == null ? ratio : enclosure.hull.max(ratio);
+                    } catch (IndeterminateComparisonException e) {
+                        enclosure.complete = false;
+                    }
+                }
+            }
+        }
+        return enclosure;
+    }
+
+    /**
+     * Get the exact largest ratio over all trapezoid pairs in the range.
+     *
+     * The largest ratio is at least lowerBound, so pairs whose ratio
+     * interval lies below lowerBound are skipped without exact evaluation.
+     */
+    private Fraction<WholeAndRt3> exactMaxRatio(
+            boolean largest, int gapMin, int gapMax, int startIndex, int endIndex, double lowerBound) {
+        Fraction<WholeAndRt3> maxRatio = null;
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            for (int index=startIndex; index<=endIndex; index++) {
+                for (int partner=index+gap; partner<=index+gap+1; partner++) {
+                    try {
+                        if (intervalRatio(largest, index, partner, gap).getHi() < lowerBound)
+                            continue;
+                    } catch (IndeterminateComparisonException e) {
+                        // The pair must be evaluated exactly.
+                    }
+                    Fraction<WholeAndRt3> ratio = exactRatio(largest, index, partner, gap);
+                    maxRatio = maxRatio == null ? ratio : maxRatio.max(ratio);
+                }
+            }
+        }
+        return maxRatio;
+    }
+
+    /**
+     * Inner class for an interval containing the largest ratio, which is
+     * complete iff every ratio could be evaluated in interval arithmetic.
+     */
+    private static class RatioEnclosure {
+        DoubleInterval hull = null;
+        boolean complete = true;
+
+        double lowerBound() {
+            return hull == null ? Double.NEGATIVE_INFINITY : hull.getLo();
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com;
+
+import com.numbers.AbstractNumber;
+import com.numbers.WholeAndRt3;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The radial sweep of com.TrapezoidSequence.radialSweepCountCollinear on
+ * the lattice coordinates of a com.TrapezoidStore.
+ *
+ * A lattice point (x, y) stands for (x, y * sqrt(3)), and the map from the
+ * plane to the lattice coordinates is linear, so it keeps collinearity,
+ * the order of points along a line, and the sign of every orientation.
+ * Every predicate of the sweep is one of these, so the sweep runs on int
+ * coordinates and exact long arithmetic, without making any numbers. The
+ * witness points are mapped back to Z[sqrt(3)] for reporting.
+ *
+ * The pivots, events, and their order are the same as in the sweep of
+ * com.TrapezoidSequence, so the two give the same result.
+ */
+public final class LatticeCollinearityEngine {
+    private static final int VERTICES = 4;
+    /*
+     * The square of the scale of the y coordinates. Dot products and
+     * distances are only compared between points on one line through the
+     * pivot, where any positive scale gives the same order, but the true
+     * one is used.
+     */
+    private static final long RT3_SQ = 3;
+    /** The winding of each trapezoid type, 1 if counter-clockwise. */
+    private static final int[] WINDING = new int[TrapezoidStore.X_OFFSETS.length];
+
+    static {
+        for (int type=0; type<WINDING.length; type++) {
+            int[] xs = TrapezoidStore.X_OFFSETS[type];
+            int[] ys = TrapezoidStore.Y_OFFSETS[type];
+            for (int i=0; i<VERTICES && WINDING[type] == 0; i++) {
+                int j = (i + 1) % VERTICES, k = (i + 2) % VERTICES;
+                WINDING[type] = Long.signum(LatticeHull.cross(
+                        xs[j] - xs[i], ys[j] - ys[i], xs[k] - xs[i], ys[k] - ys[i]));
+            }
+        }
+    }
+
+    private final TrapezoidStore store;
+
+    public LatticeCollinearityEngine(TrapezoidStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Get the largest number of trapezoids intersected by a single line
+     * where no two trapezoids are more than maxIndexDiff indices apart.
+     *
+     * See com.TrapezoidSequence.radialSweepCountCollinear.
+     * @return the count and a witness, with points in Z[sqrt(3)] relative
+     *  to the start point of the sequence.
+     */
+    public TrapezoidIntersectionPair<WholeAndRt3> radialSweepCountCollinear(
+            int minIndex, int maxIndex, int maxIndexDiff) {
+        return radialSweepCountCollinear(minIndex, maxIndex, maxIndexDiff,
+                new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+    }
+
+    /**
+     * As radialSweepCountCollinear, with the points of the witness in the
+     * number system of a start point of the sequence.
+     */
+    public <T extends AbstractNumber<T>> TrapezoidIntersectionPair<T> radialSweepCountCollinear(
+            int minIndex, int maxIndex, int maxIndexDiff, Point<T> startPoint) {
+        if (minIndex < 0 || maxIndex >= store.size() || minIndex > maxIndex)
+            throw new IndexOutOfBoundsException("com.Trapezoid index out of bounds.");
+        return new Sweep(minIndex, maxIndex, maxIndexDiff).run(startPoint);
+    }
+
+    /**
+     * Inner class for the state of one sweep over an interval of indices.
+     */
+    private final class Sweep {
+        final int minIndex;
+        final int maxIndex;
+        final int maxIndexDiff;
+        // The distinct vertices, in the order of first appearance.
+        int nPoints = 0;
+        int[] pointX;
+        int[] pointY;
+        // vertexIds[4 * (i - minIndex) + v] is the point of vertex v of trapezoid i.
+        final int[] vertexIds;
+        // The trapezoids with point p are touching[touchingStarts[p]..touchingStarts[p+1]).
+        int[] touchingStarts;
+        int[] touching;
+
+        // The candidate trapezoids and events of the current pivot.
+        int pivotX;
+        int pivotY;
+        int[] eventPoint = new int[16];
+        boolean[] eventIsStart = new boolean[16];
+        // The trapezoids of event e are eventTrapezoids[e][0..eventCounts[e]).
+        int[][] eventTrapezoids = new int[16][];
+        int[] eventCounts = new int[16];
+        int nEvents = 0;
+        int[] order = new int[16];
+        int[] scratch = new int[16];
+        // The event of each point and kind for the pivot that last set it.
+        final int[] startEventOf;
+        final int[] endEventOf;
+        final int[] startEventPivot;
+        final int[] endEventPivot;
+        final int[] sorted = new int[VERTICES];
+
+        // A segment tree over [treeLo, treeLo + treeSize) with range add
+        // and a maximum over everything. treeMax[node] includes treeAdd[node].
+        int treeLo;
+        int treeSize;
+        int[] treeMax = new int[4];
+        int[] treeAdd = new int[4];
+
+        Sweep(int minIndex, int maxIndex, int maxIndexDiff) {
+            this.minIndex = minIndex;
+            this.maxIndex = maxIndex;
+            this.maxIndexDiff = maxIndexDiff;
+            int n = maxIndex - minIndex + 1;
+            vertexIds = new int[VERTICES * n];
+            pointX = new int[VERTICES * n];
+            pointY = new int[VERTICES * n];
+            HashMap<Long, Integer> ids = new HashMap<>();
+            int[] touchingCounts = new int[VERTICES * n + 1];
+            for (int i=minIndex; i<=maxIndex; i++) {
+                for (int v=0; v<VERTICES; v++) {
+                    int x = store.vertexX(i, v), y = store.vertexY(i, v);
+                    Integer id = ids.get(LatticeHull.pack(x, y));
+                    if (id == null) {
+                        id = nPoints++;
+                        ids.put(LatticeHull.pack(x, y), id);
+                        pointX[id] = x;
+                        pointY[id] = y;
+                    }
+                    vertexIds[VERTICES * (i - minIndex) + v] = id;
+                    touchingCounts[id + 1]++;
+                }
+            }
+            touchingStarts = Arrays.copyOf(touchingCounts, nPoints + 1);
+            for (int p=0; p<nPoints; p++)
+                touchingStarts[p + 1] += touchingStarts[p];
+            touching = new int[touchingStarts[nPoints]];
+            int[] next = Arrays.copyOf(touchingStarts, nPoints);
+            for (int i=minIndex; i<=maxIndex; i++) {
+                for (int v=0; v<VERTICES; v++) {
+                    int id = vertexIds[VERTICES * (i - minIndex) + v];
+                    // A trapezoid with a repeated vertex touches it only once.
+                    if (next[id] == touchingStarts[id] || touching[next[id] - 1] != i)
+                        touching[next[id]++] = i;
+                }
+            }
+            // Close the gaps left by repeated vertices.
+            int size = 0;
+            for (int p=0; p<nPoints; p++) {
+                int start = touchingStarts[p];
+                touchingStarts[p] = size;
+                for (int k=start; k<next[p]; k++)
+                    touching[size++] = touching[k];
+            }
+            touchingStarts[nPoints] = size;
+            startEventOf = new int[nPoints];
+            endEventOf = new int[nPoints];
+            startEventPivot = new int[nPoints];
+            endEventPivot = new int[nPoints];
+            Arrays.fill(startEventPivot, -1);
+            Arrays.fill(endEventPivot, -1);
+        }
+
+        <T extends AbstractNumber<T>> TrapezoidIntersectionPair<T> run(Point<T> startPoint) {
+            int bestCount = -1, bestPivotTrapezoid = 0, bestEventTrapezoid = 0, bestPivot = 0, bestEventPoint = 0;
+            int lastReported = -1;
+            for (int pivot=0; pivot<nPoints; pivot++) {
+                int pivotTrapezoidIndex = touching[touchingStarts[pivot]];
+                if (pivotTrapezoidIndex % 200 == 0 && pivotTrapezoidIndex != lastReported) {
+                    System.out.printf("Progress: considering vertices in trapezoid %d as pivots\n", pivotTrapezoidIndex);
+                    lastReported = pivotTrapezoidIndex;
+                }
+                pivotX = pointX[pivot];
+                pivotY = pointY[pivot];
+                int firstCandidate = Math.max(pivotTrapezoidIndex - maxIndexDiff, minIndex);
+                int lastCandidate = Math.min(touching[touchingStarts[pivot + 1] - 1] + maxIndexDiff, maxIndex);
+                resetTree(firstCandidate, lastCandidate + maxIndexDiff);
+                nEvents = 0;
+                int nextCandidate = minIndex;
+                for (int k=touchingStarts[pivot]; k<touchingStarts[pivot + 1]; k++) {
+                    int currIndexMin = Math.max(Math.max(touching[k] - maxIndexDiff, minIndex), nextCandidate);
+                    int currIndexMax = Math.min(touching[k] + maxIndexDiff, maxIndex);
+                    nextCandidate = Math.max(nextCandidate, currIndexMax + 1);
+                    for (int c=currIndexMin; c<=currIndexMax; c++) {
+                        addCandidate(pivot, c);
+                    }
+                }
+                // Sort all enter and exit vertices relative to the pivot.
+                for (int e=0; e<nEvents; e++)
+                    order[e] = e;
+                mergeSort(0, nEvents);
+                int pivotCount = treeMax[1];
+                int pivotEventTrapezoid = eventTrapezoids[order[0]][0];
+                int pivotEventPoint = eventPoint[order[0]];
+                for (int k=0; k<nEvents; k++) {
+                    int e = order[k];
+                    for (int j=0; j<eventCounts[e]; j++) {
+                        int trapezoidIndex = eventTrapezoids[e][j];
+                        if (eventIsStart[e]) {
+                            add(trapezoidIndex, 1);
+                            if (treeMax[1] > pivotCount) {
+                                pivotCount = treeMax[1];
+                                pivotEventTrapezoid = trapezoidIndex;
+                                pivotEventPoint = eventPoint[e];
+                            }
+                        } else {
+                            add(trapezoidIndex, -1);
+                        }
+                    }
+                }
+                if (pivotCount > bestCount) {
+                    bestCount = pivotCount;
+                    bestPivotTrapezoid = pivotTrapezoidIndex;
+                    bestEventTrapezoid = pivotEventTrapezoid;
+                    bestPivot = pivot;
+                    bestEventPoint = pivotEventPoint;
+                }
+            }
+            return new TrapezoidIntersectionPair<>(bestCount, bestPivotTrapezoid, bestEventTrapezoid,
+                    toPoint(bestPivot, startPoint), toPoint(bestEventPoint, startPoint));
+        }
+
+        /**
+         * Map a point back to the number system of the start point.
+         */
+        <T extends AbstractNumber<T>> Point<T> toPoint(int point, Point<T> startPoint) {
+            T x = startPoint.x.whole(pointX[point]);
+            T y = startPoint.y.rt3().multiply(startPoint.y.whole(pointY[point]));
+            return new Point<>(startPoint.x.add(x), startPoint.y.add(y));
+        }
+
+        /**
+         * Add a trapezoid to the sweep of the pivot: count it if every line
+         * through the pivot or the initial sweep line intersects it, and add
+         * its enter and exit events.
+         */
+        void addCandidate(int pivot, int index) {
+            int type = store.type(index).index();
+            int base = VERTICES * (index - minIndex);
+            if (contains(base, WINDING[type])) {
+                // Every line through the pivot intersects this trapezoid, so
+                // there are no enter and exit vertices.
+                add(index, 1);
+                return;
+            }
+            for (int v=0; v<VERTICES; v++)
+                sorted[v] = vertexIds[base + v];
+            sortVertices(true);
+            if (intersectsRay(base)
+                    && (pointY[sorted[0]] != pivotY || pointY[sorted[VERTICES - 1]] <= pivotY)) {
+                // The trapezoid intersects the initial sweep line, so sort
+                // relative to a sweep line pointing in the opposite direction.
+                sortVertices(false);
+                add(index, 1);
+            }
+            addEvent(pivot, sorted[0], index, true);
+            addEvent(pivot, sorted[VERTICES - 1], index, false);
+        }
+
+        /**
+         * Merge an event into the event of the same kind at the same point,
+         * or add it.
+         */
+        void addEvent(int pivot, int point, int index, boolean isStart) {
+            int[] eventOf = isStart ? startEventOf : endEventOf;
+            int[] eventPivot = isStart ? startEventPivot : endEventPivot;
+            if (eventPivot[point] == pivot) {
+                int e = eventOf[point];
+                if (eventCounts[e] == eventTrapezoids[e].length)
+                    eventTrapezoids[e] = Arrays.copyOf(eventTrapezoids[e], 2 * eventCounts[e]);
+                eventTrapezoids[e][eventCounts[e]++] = index;
+                return;
+            }
+            if (nEvents == eventPoint.length) {
+                int capacity = 2 * nEvents;
+                eventPoint = Arrays.copyOf(eventPoint, capacity);
+                eventIsStart = Arrays.copyOf(eventIsStart, capacity);
+                eventTrapezoids = Arrays.copyOf(eventTrapezoids, capacity);
+                eventCounts = Arrays.copyOf(eventCounts, capacity);
+                order = new int[capacity];
+                scratch = new int[capacity];
+            }
+            eventPivot[point] = pivot;
+            eventOf[point] = nEvents;
+            eventPoint[nEvents] = point;
+            eventIsStart[nEvents] = isStart;
+            if (eventTrapezoids[nEvents] == null)
+                eventTrapezoids[nEvents] = new int[2];
+            eventTrapezoids[nEvents][0] = index;
+            eventCounts[nEvents] = 1;
+            nEvents++;
+        }
+
+        /**
+         * Determine if the pivot is inside or on the boundary of a trapezoid.
+         */
+        boolean contains(int base, int winding) {
+            for (int v=0; v<VERTICES; v++) {
+                int a = vertexIds[base + v], b = vertexIds[base + (v + 1) % VERTICES];
+                if (orientation(a, b) == -winding)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Get the orientation of the pivot relative to the line from point a
+         * to point b.
+         */
+        int orientation(int a, int b) {
+            return Long.signum(LatticeHull.cross(
+                    (long) pointX[b] - pointX[a], (long) pointY[b] - pointY[a],
+                    (long) pivotX - pointX[a], (long) pivotY - pointY[a]));
+        }
+
+        /**
+         * Determine if the ray from the pivot in the positive x direction
+         * intersects a trapezoid, as com.Trapezoid.intersectsSemiInfiniteLine.
+         */
+        boolean intersectsRay(int base) {
+            for (int v=0; v<VERTICES; v++) {
+                if (sideIntersectsRay(vertexIds[base + v], vertexIds[base + (v + 1) % VERTICES]))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * As com.LineSegment.intersectsSemiInfiniteLine, for the ray from
+         * the pivot in the positive x direction.
+         */
+        boolean sideIntersectsRay(int p1, int p2) {
+            long x1 = (long) pointX[p1] - pivotX, y1 = (long) pointY[p1] - pivotY;
+            long x2 = (long) pointX[p2] - pivotX, y2 = (long) pointY[p2] - pivotY;
+            if (y1 != 0 && y2 != 0 && Long.signum(y1) == Long.signum(y2))
+                return false;
+            int crossV12 = Long.signum(LatticeHull.cross(x1, y1, x2, y2));
+            if (crossV12 == 0) {
+                // p1, p2, and the pivot are on the same line, so the ray
+                // meets the side iff the pivot is between its end points or
+                // p1 is ahead of the pivot.
+                long ex = x2 - x1, ey = y2 - y1;
+                if (dot(-x1, -y1, ex, ey) >= 0 && dot(-x2, -y2, -ex, -ey) >= 0)
+                    return true;
+                return x1 >= 0;
+            }
+            long vy = crossV12 < 0 ? y2 : y1;
+            long vx = crossV12 < 0 ? x2 : x1;
+            if (vy < 0)
+                return true;
+            return vy == 0 && vx > 0;
+        }
+
+        /**
+         * Sort the four points in sorted by angle from the pivot, starting
+         * from the positive or the negative x direction.
+         */
+        void sortVertices(boolean startRight) {
+            for (int i=1; i<VERTICES; i++) {
+                int point = sorted[i];
+                int j = i - 1;
+                while (j >= 0 && comparePoints(sorted[j], point, startRight) > 0) {
+                    sorted[j + 1] = sorted[j];
+                    j--;
+                }
+                sorted[j + 1] = point;
+            }
+        }
+
+        /**
+         * Compare points as com.PointComparator.
+         */
+        int comparePoints(int p1, int p2, boolean startRight) {
+            long x1 = (long) pointX[p1] - pivotX, y1 = (long) pointY[p1] - pivotY;
+            long x2 = (long) pointX[p2] - pivotX, y2 = (long) pointY[p2] - pivotY;
+            if ((x1 == 0 && y1 == 0) || (x2 == 0 && y2 == 0))
+                throw new RuntimeException("Cannot compare a point equal to the pivot.");
+            if (startRight) {
+                if (y1 >= 0 && y2 < 0)
+                    return -1;
+                if (y2 >= 0 && y1 < 0)
+                    return 1;
+                if (y1 == 0 && y2 == 0) {
+                    if (x1 > 0 && x2 < 0)
+                        return -1;
+                    if (x1 < 0 && x2 > 0)
+                        return 1;
+                    return Long.compare(dot(x1, y1, x1, y1), dot(x2, y2, x2, y2));
+                }
+            } else {
+                if (y1 <= 0 && y2 > 0)
+                    return -1;
+                if (y2 <= 0 && y1 > 0)
+                    return 1;
+                if (y1 == 0 && y2 == 0) {
+                    if (x1 < 0 && x2 > 0)
+                        return -1;
+                    if (x1 > 0 && x2 < 0)
+                        return 1;
+                    return Long.compare(dot(x1, y1, x1, y1), dot(x2, y2, x2, y2));
+                }
+            }
+            int side = Long.signum(LatticeHull.cross(x1, y1, x2, y2));
+            if (side == 0)
+                return Long.compare(dot(x1, y1, x1, y1), dot(x2, y2, x2, y2));
+            return -side;
+        }
+
+        /**
+         * Compare events as com.EventPointComparator.
+         */
+        int compareEvents(int e1, int e2) {
+            int p1 = eventPoint[e1], p2 = eventPoint[e2];
+            long x1 = (long) pointX[p1] - pivotX, y1 = (long) pointY[p1] - pivotY;
+            long x2 = (long) pointX[p2] - pivotX, y2 = (long) pointY[p2] - pivotY;
+            if ((x1 == 0 && y1 == 0) || (x2 == 0 && y2 == 0))
+                throw new RuntimeException("Cannot compare a point equal to the pivot.");
+            if (y1 >= 0 && y2 < 0)
+                return -1;
+            if (y2 >= 0 && y1 < 0)
+                return 1;
+            int side = 0;
+            if (y1 == 0 && y2 == 0) {
+                if (x1 > 0 && x2 < 0)
+                    return -1;
+                if (x1 < 0 && x2 > 0)
+                    return 1;
+            } else {
+                side = Long.signum(LatticeHull.cross(x1, y1, x2, y2));
+            }
+            if (side != 0)
+                return -side;
+            if (eventIsStart[e1] && !eventIsStart[e2])
+                return -1;
+            if (!eventIsStart[e1] && eventIsStart[e2])
+                return 1;
+            return Long.compare(dot(x1, y1, x1, y1), dot(x2, y2, x2, y2));
+        }
+
+        /**
+         * Stably sort order[lo..hi) by compareEvents, as List.sort does.
+         */
+        void mergeSort(int lo, int hi) {
+            if (hi - lo < 2)
+                return;
+            int mid = (lo + hi) >>> 1;
+            mergeSort(lo, mid);
+            mergeSort(mid, hi);
+            if (compareEvents(order[mid - 1], order[mid]) <= 0)
+                return;
+            System.arraycopy(order, lo, scratch, lo, hi - lo);
+            int i = lo, j = mid;
+            for (int k=lo; k<hi; k++) {
+                if (j >= hi || (i < mid && compareEvents(scratch[i], scratch[j]) <= 0))
+                    order[k] = scratch[i++];
+                else
+                    order[k] = scratch[j++];
+            }
+        }
+
+        void resetTree(int lo, int hi) {
+            treeLo = lo;
+            treeSize = hi - lo + 1;
+            int nodes = 4 * treeSize;
+            if (treeMax.length < nodes) {
+                treeMax = new int[nodes];
+                treeAdd = new int[nodes];
+            } else {
+                Arrays.fill(treeMax, 0, nodes, 0);
+                Arrays.fill(treeAdd, 0, nodes, 0);
+            }
+        }
+
+        /**
+         * Add delta to the windows that contain a trapezoid, which are the
+         * windows starting at its index to maxIndexDiff after it.
+         */
+        void add(int index, int delta) {
+            update(1, 0, treeSize - 1, index - treeLo, index - treeLo + maxIndexDiff, delta);
+        }
+
+        void update(int node, int lo, int hi, int updateLo, int updateHi, int delta) {
+            if (updateHi < lo || hi < updateLo)
+                return;
+            if (updateLo <= lo && hi <= updateHi) {
+                treeMax[node] += delta;
+                treeAdd[node] += delta;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            update(2 * node, lo, mid, updateLo, updateHi, delta);
+            update(2 * node + 1, mid + 1, hi, updateLo, updateHi, delta);
+            treeMax[node] = Math.max(treeMax[2 * node], treeMax[2 * node + 1]) + treeAdd[node];
+        }
+    }
+
+    private static long dot(long x1, long y1, long x2, long y2) {
+        return Math.addExact(Math.multiplyExact(x1, x2), Math.multiplyExact(RT3_SQ, Math.multiplyExact(y1, y2)));
+    }
+}
@@ -0,0 +1,221 @@
+package com;
+
+import com.numbers.CommonMath;
+import com.numbers.HybridWholeAndRt3;
+
+import java.math.BigInteger;
+
+/**
+ * The distance assertions of com.TrapezoidSequence on the lattice
+ * coordinates of a com.TrapezoidStore.
+ *
+ * A lattice point (x, y) stands for (x, y * sqrt(3)), so the squared
+ * distance between two vertices is the whole number x^2 + 3 * y^2, and the
+ * smallest squared distance between two trapezoids is a quotient of whole
+ * numbers, both given by com.MinkowskiDistanceTable in longs. The extreme
+ * distances of each gap are found with exact 128-bit comparisons of
+ * cross-multiplied quotients, without making any numbers. Only the
+ * comparisons with the bound, once per assertion, are made in
+ * com.numbers.HybridWholeAndRt3, which cannot overflow.
+ *
+ * The pairs at gap + 1 for one gap are the pairs at the next gap, so the
+ * extreme distances are found once for each gap in [gapMin, gapMax + 1].
+ */
+public final class LatticeDistanceEngine {
+    private static final long RT3_SQ = 3;
+
+    private final TrapezoidStore store;
+
+    public LatticeDistanceEngine(TrapezoidStore store) {
+        this.store = store;
+    }
+
+    public LatticeDistanceEngine(int nTrapezoids) {
+        this(new TrapezoidStore(nTrapezoids));
+    }
+
+    /**
+     * Get the largest squared distance between the trapezoids at index and
+     * index + gap for each gap in [gapMin, gapMax], over the indices in
+     * [startIndex, endIndex].
+     *
+     * @return the distances indexed by gap - gapMin.
+     */
+    public long[] maxDistanceSqByGap(int gapMin, int gapMax, int startIndex, int endIndex) {
+        store.extendToLength(endIndex + gapMax + 1);
+        long[] maxDistanceSq = new long[gapMax - gapMin + 1];
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            long max = 0;
+            for (int index=startIndex; index<=endIndex; index++) {
+                max = Math.max(max, MinkowskiDistanceTable.maxDistanceSq(store, index, index + gap, RT3_SQ));
+            }
+            maxDistanceSq[gap - gapMin] = max;
+        }
+        return maxDistanceSq;
+    }
+
+    /**
+     * Get the smallest squared distance between the trapezoids at index and
+     * index + gap for each gap in [gapMin, gapMax], over the indices in
+     * [startIndex, endIndex], as quotients of whole numbers.
+     *
+     * @return the numerators and the denominators, indexed by gap - gapMin.
+     */
+    public long[][] minDistanceSqByGap(int gapMin, int gapMax, int startIndex, int endIndex) {
+        store.extendToLength(endIndex + gapMax + 1);
+        long[] numerators = new long[gapMax - gapMin + 1];
+        long[] denominators = new long[gapMax - gapMin + 1];
+        long[] quotient = new long[2];
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            long minNumerator = -1, minDenominator = 1;
+            for (int index=startIndex; index<=endIndex; index++) {
+                MinkowskiDistanceTable.minDistanceSq(store, index, index + gap, RT3_SQ, quotient);
+                if (minNumerator < 0
+                        || CommonMath.compareProducts(quotient[0], minDenominator, minNumerator, quotient[1]) < 0) {
+                    minNumerator = quotient[0];
+                    minDenominator = quotient[1];
+                }
+            }
+            numerators[gap - gapMin] = minNumerator;
+            denominators[gap - gapMin] = minDenominator;
+        }
+        return new long[][] {numerators, denominators};
+    }
+
+    private static BigInteger big(long value) {
+        return BigInteger.valueOf(value);
+    }
+
+    private static HybridWholeAndRt3 whole(long value) {
+        return new HybridWholeAndRt3(value, 0);
+    }
+
+    /**
+     * Inner class for the largest ratio maxDistanceSq / gap^2 over the gaps.
+     */
+    private static class MaxRatio {
+        long distanceSq;
+        int indexGap;
+
+        public String toString() {
+            return String.format("sqrt(%d) / %d", distanceSq, indexGap);
+        }
+    }
+
+    /**
+     * Inner class for the largest ratio (gap + 1)^2 / minDistanceSq over the
+     * gaps.
+     */
+    private static class MinRatio {
+        long numerator;
+        long denominator;
+        int indexGap;
+
+        public String toString() {
+            if (denominator == 1)
+                return String.format("%d / sqrt(%d)", indexGap, numerator);
+            return String.format("%d / sqrt(%d / %d)", indexGap, numerator, denominator);
+        }
+    }
+
+    /**
+     * Get the gap with the largest ratio of the largest distance squared
+     * at the gap or the gap plus 1 to the gap squared, as
+     * com.TrapezoidSequence.maxHiDistanceSqIndexRatio.
+     */
+    private MaxRatio maxHiDistanceSqIndexRatio(int gapMin, int gapMax, int startIndex, int endIndex) {
+        long[] byGap = maxDistanceSqByGap(gapMin, gapMax + 1, startIndex, endIndex);
+        MaxRatio best = null;
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
+            long distanceSq = Math.max(byGap[gap - gapMin], byGap[gap + 1 - gapMin]);
+            // distanceSq / gap^2 > best.distanceSq / best.indexGap^2, cross-multiplied.
+            if (best == null || big(distanceSq).multiply(big((long) best.indexGap * best.indexGap)).compareTo(
+                    big(best.distanceSq).multiply(big((long) gap * gap))) > 0) {
+                best = new MaxRatio();
+                best.distanceSq = distanceSq;
+                best.indexGap = gap;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the gap with the largest ratio of the gap plus 1 squared to the
+     * smallest distance squared at the gap or the gap plus 1, as
+     * com.TrapezoidSequence.maxLoDistanceSqIndexRatio.
+     */
+    private MinRatio maxLoDistanceSqIndexRatio(int gapMin, int gapMax, int startIndex, int endIndex) {
+        long[][] byGap = minDistanceSqByGap(gapMin, gapMax + 1, startIndex, endIndex);
+        long[] numerators = byGap[0], denominators = byGap[1];
+        MinRatio best = null;
+        for (int gap=gapMin; gap<=gapMax; gap++) {
+            System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
+            int k = gap - gapMin;
+            if (CommonMath.compareProducts(numerators[k + 1], denominators[k], numerators[k], denominators[k + 1]) < 0)
+                k++;
+            long numerator = numerators[k], denominator = denominators[k];
+            int indexGap = gap + 1;
+            // indexGap^2 / distanceSq > best.indexGap^2 / best.distanceSq, cross-multiplied.
+            if (best == null || big((long) indexGap * indexGap).multiply(big(denominator)).multiply(big(best.numerator))
+                    .compareTo(big((long) best.indexGap * best.indexGap).multiply(big(best.denominator))
+                            .multiply(big(numerator))) > 0) {
+                best = new MinRatio();
+                best.numerator = numerator;
+                best.denominator = denominator;
+                best.indexGap = indexGap;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Assert that max distance divided by the index gap for all trapezoid pairs is below a given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedMaxDistance.
+     */
+    public boolean assertBoundedMaxDistance(
+            int gapMin, int gapMax, int startIndex, int endIndex, HybridWholeAndRt3 baseUpperBound) {
+        MaxRatio maxHiDistanceSqRatio = maxHiDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
+        System.out.printf("maxHiDistanceRatio: %s\n", maxHiDistanceSqRatio);
+        HybridWholeAndRt3 rhsSqrt = baseUpperBound.multiply(whole(maxHiDistanceSqRatio.indexGap));
+        return whole(maxHiDistanceSqRatio.distanceSq).compareTo(rhsSqrt.multiply(rhsSqrt)) < 0;
+    }
+
+    /**
+     * Assert that the index gap plus one divided by the min distance for all trapezoid pairs is below a
+     * given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedMinDistance.
+     */
+    public boolean assertBoundedMinDistance(
+            int gapMin, int gapMax, int startIndex, int endIndex, HybridWholeAndRt3 baseUpperBound) {
+        MinRatio maxLoDistanceSqRatio = maxLoDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
+        System.out.printf("maxLoDistanceRatio: %s\n", maxLoDistanceSqRatio);
+        // indexGap^2 < distanceSq * baseUpperBound^2, cross-multiplied.
+        HybridWholeAndRt3 lhsSqrt = whole(maxLoDistanceSqRatio.indexGap);
+        HybridWholeAndRt3 lhs = lhsSqrt.multiply(lhsSqrt).multiply(whole(maxLoDistanceSqRatio.denominator));
+        HybridWholeAndRt3 rhs = whole(maxLoDistanceSqRatio.numerator).multiply(baseUpperBound.multiply(baseUpperBound));
+        return lhs.compareTo(rhs) < 0;
+    }
+
+    /**
+     * Assert that distance ratios between trapezoid pairs are below a given upper bound.
+     *
+     * See com.TrapezoidSequence.assertBoundedRatio.
+     */
+    public boolean assertBoundedRatio(
+            int gapMin, int gapMax, int startIndex, int endIndex, HybridWholeAndRt3 baseUpperBound) {
+        MinRatio maxLoDistanceSqRatio = maxLoDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
+        MaxRatio maxHiDistanceSqRatio = maxHiDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
+        System.out.printf("maxLoDistanceRatio: %s\n", maxLoDistanceSqRatio);
+        System.out.printf("maxHiDistanceRatio: %s\n", maxHiDistanceSqRatio);
+        // hiDistanceSq / loDistanceSq < (baseUpperBound * hiGap / loGap)^2, cross-multiplied.
+        HybridWholeAndRt3 loGap = whole(maxLoDistanceSqRatio.indexGap);
+        HybridWholeAndRt3 rhsSqrt = baseUpperBound.multiply(whole(maxHiDistanceSqRatio.indexGap));
+        HybridWholeAndRt3 lhs = whole(maxHiDistanceSqRatio.distanceSq).multiply(loGap.multiply(loGap))
+                .multiply(whole(maxLoDistanceSqRatio.denominator));
+        HybridWholeAndRt3 rhs = rhsSqrt.multiply(rhsSqrt).multiply(whole(maxLoDistanceSqRatio.numerator));
+        return lhs.compareTo(rhs) < 0;
+    }
+}
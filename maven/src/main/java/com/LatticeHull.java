@@ -0,0 +1,86 @@
+package com;
+
+import java.util.Arrays;
+
+/**
+ * Convex hulls of points in the lattice coordinates of com.TrapezoidStore.
+ *
+ * A lattice point (x, y) stands for (x, y * sqrt(3)), and scaling y by a
+ * positive number changes neither convexity nor the sign of an
+ * orientation, so hulls and line sides are found exactly in longs.
+ */
+final class LatticeHull {
+    final int[] xs;
+    final int[] ys;
+
+    private LatticeHull(int[] xs, int[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Pack a lattice point into a long so that sorting packed points sorts
+     * them by x and then by y.
+     */
+    static long pack(long x, long y) {
+        return (x << 32) + y;
+    }
+
+    /**
+     * Get the convex hull of the first count packed points, in
+     * counter-clockwise order without collinear vertices.
+     *
+     * This uses Andrew's monotone chain algorithm and sorts the points.
+     */
+    static LatticeHull of(long[] points, int count) {
+        Arrays.sort(points, 0, count);
+        int[] hullX = new int[2 * count];
+        int[] hullY = new int[2 * count];
+        int size = 0;
+        for (int pass=0; pass<2; pass++) {
+            int chainStart = size;
+            for (int k=0; k<count; k++) {
+                long point = points[pass == 0 ? k : count - 1 - k];
+                int x = (int) ((point + (1L << 31)) >> 32);
+                int y = (int) point;
+                while (size >= chainStart + 2 && cross(
+                        hullX[size - 1] - hullX[size - 2], hullY[size - 1] - hullY[size - 2],
+                        x - hullX[size - 2], y - hullY[size - 2]) <= 0) {
+                    size--;
+                }
+                hullX[size] = x;
+                hullY[size] = y;
+                size++;
+            }
+            // The last point of each chain is the first point of the other.
+            size--;
+        }
+        // A single distinct point is its own hull.
+        size = Math.max(size, 1);
+        return new LatticeHull(Arrays.copyOf(hullX, size), Arrays.copyOf(hullY, size));
+    }
+
+    static long cross(long x1, long y1, long x2, long y2) {
+        return Math.subtractExact(Math.multiplyExact(x1, y2), Math.multiplyExact(y1, x2));
+    }
+
+    int size() {
+        return xs.length;
+    }
+
+    /**
+     * Determine if the infinite line through (x1, y1) and (x2, y2) meets
+     * this hull, including touching it.
+     */
+    boolean meetsLine(long x1, long y1, long x2, long y2) {
+        long dx = x2 - x1, dy = y2 - y1;
+        long first = Long.signum(cross(dx, dy, xs[0] - x1, ys[0] - y1));
+        if (first == 0)
+            return true;
+        for (int i=1; i<xs.length; i++) {
+            if (Long.signum(cross(dx, dy, xs[i] - x1, ys[i] - y1)) != first)
+                return true;
+        }
+        return false;
+    }
+}
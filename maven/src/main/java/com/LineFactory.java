@@ -1,6 +1,7 @@
 package com;
 
 import com.numbers.Fraction;
+import com.numbers.LongRational;
 import com.numbers.WholeNumber;
 
 public class LineFactory {
@@ -15,4 +16,10 @@ public class LineFactory {
         return new LineSegment<>(
                 pf.makeFractionPoint(x1, y1), pf.makeFractionPoint(x2, y2));
     }
+
+    public LineSegment<LongRational> makeLongRationalLine(
+            long x1, long y1, long x2, long y2) {
+        return new LineSegment<>(
+                pf.makeLongRationalPoint(x1, y1), pf.makeLongRationalPoint(x2, y2));
+    }
 }
@@ -1,15 +1,29 @@
 package com;
 
 import com.numbers.AbstractNumber;
+import com.numbers.IndeterminateComparisonException;
 
 public class LineSegment<T extends AbstractNumber<T>> {
     Point<T> p1, p2;
+    private SegmentGeometry<T> geometry;
 
     public LineSegment(Point<T> p1, Point<T> p2) {
         this.p1 = p1;
         this.p2 = p2;
     }
 
+    /**
+     * Get the values derived from the end points, computing them on first use.
+     */
+    SegmentGeometry<T> geometry() {
+        SegmentGeometry<T> result = geometry;
+        if (result == null) {
+            result = new SegmentGeometry<>(p1, p2);
+            geometry = result;
+        }
+        return result;
+    }
+
     /**
      * Get the squared distance from this line segment to a point.
      *
@@ -17,27 +31,54 @@ public class LineSegment<T extends AbstractNumber<T>> {
      * is equal to the distance between the point and the infinite line through
      * the line segment's end points the formula found here is used:
      *      https://en.wikipedia.org/wiki/Distance_from_a_point_to_a_line
+     *
+     * If the number system cannot decide whether p lies between the end
+     * points, then p is close to one of the perpendiculars through the end
+     * points, where the two formulas meet. The distance to the line segment
+     * always lies between the distance to the infinite line and the
+     * distance to the nearer end point, so both are enclosed.
      * @param p: the point to get the distance to.
      * @return the squared distance from this line segment to the point.
      */
     public T distanceSq(Point<T> p) {
-        if (hasBetween(p)) {
-            T dx = p2.x.subtract(p1.x);
-            T dy = p2.y.subtract(p1.y);
-            T term1 = dy.multiply(p.x);
-            T term2 = dx.multiply(p.y).additiveInverse();
-            T term3 = (p2.x.multiply(p1.y)).subtract(p1.x.multiply(p2.y));
-            T sum = term1.add(term2).add(term3);
-            T numerator = sum.multiply(sum);
-            T denominator = (dx.multiply(dx)).add(dy.multiply(dy));
-            return numerator.divide(denominator);
+        return squaredDistance(p).value();
+    }
+
+    /**
+     * Get the squared distance from this line segment to a point, as in
+     * distanceSq, without dividing by the squared length of the segment.
+     */
+    public SquaredDistance<T> squaredDistance(Point<T> p) {
+        boolean between;
+        try {
+            between = hasBetween(p);
+        } catch (IndeterminateComparisonException e) {
+            return SquaredDistance.of(lineDistanceSq(p).value().hull(endPointDistanceSq(p)));
         }
+        if (between)
+            return lineDistanceSq(p);
+        return SquaredDistance.of(endPointDistanceSq(p));
+    }
+
+    /**
+     * Get the squared distance from the infinite line through this line
+     * segment to a point.
+     */
+    private SquaredDistance<T> lineDistanceSq(Point<T> p) {
+        SegmentGeometry<T> g = geometry();
+        T sum = g.normal.x.multiply(p.x).add(g.normal.y.multiply(p.y)).add(g.lineConstant);
+        T numerator = sum.multiply(sum);
+        return SquaredDistance.of(numerator, g.lengthSq);
+    }
+
+    /**
+     * Get the squared distance from the nearer end point of this line
+     * segment to a point.
+     */
+    private T endPointDistanceSq(Point<T> p) {
         T distSq1 = p.distanceSq(p1);
         T distSq2 = p.distanceSq(p2);
-        if (distSq1.compareTo(distSq2) < 0) {
-            return distSq1;
-        }
-        return distSq2;
+        return distSq1.min(distSq2);
     }
 
     /**
@@ -48,30 +89,21 @@ public class LineSegment<T extends AbstractNumber<T>> {
      *  line segment.
      */
     public boolean hasBetween(Point<T> p) {
-        Vector<T> p1ToP2 = new Vector<>(p2.x.subtract(p1.x), p2.y.subtract(p1.y));
-        Vector<T> p1PerpendicularVector = p1ToP2.perpendicular();
-        T p2SideOfP1 = p1PerpendicularVector.cross(p1ToP2);
-        Vector<T> p1ToP = new Vector<>(p.x.subtract(p1.x), p.y.subtract(p1.y));
-        T pSideOfP1 = p1PerpendicularVector.cross(p1ToP);
-        if (p2SideOfP1.compareToZero()
-                != pSideOfP1.compareToZero())
-            return pSideOfP1.compareToZero() == 0;
-        Vector<T> p2ToP1 = p1ToP2.additiveInverse();
-        Vector<T> p2PerpendicularVector = p2ToP1.perpendicular();
-        T p1SideOfP2 = p2PerpendicularVector.cross(p2ToP1);
-        Vector<T> p2ToP = new Vector<>(p.x.subtract(p2.x), p.y.subtract(p2.y));
-        T pSideOfP2 = p2PerpendicularVector.cross(p2ToP);
-        if (p1SideOfP2.compareToZero() != pSideOfP2.compareToZero())
-            return pSideOfP2.compareToZero() == 0;
+        SegmentGeometry<T> g = geometry();
+        Vector<T> p1ToP = new Vector<>(p1, p);
+        int pSideOfP1 = g.normal.cross(p1ToP).compareToZero();
+        if (g.p2SideOfP1 != pSideOfP1)
+            return pSideOfP1 == 0;
+        Vector<T> p2ToP = new Vector<>(p2, p);
+        int pSideOfP2 = g.reverseNormal.cross(p2ToP).compareToZero();
+        if (g.p1SideOfP2 != pSideOfP2)
+            return pSideOfP2 == 0;
         return true;
     }
 
     public boolean intersectsInfiniteLine(Point<T> linePoint1, Point<T> linePoint2) {
-        Vector<T> lineVector = new Vector<>(linePoint1, linePoint2);
-        Vector<T> v1 = new Vector<>(linePoint1, p1);
-        Vector<T> v2 = new Vector<>(linePoint1, p2);
-        int v1Side = lineVector.cross(v1).compareToZero();
-        int v2Side = lineVector.cross(v2).compareToZero();
+        int v1Side = Orientation.sign(linePoint1, linePoint2, p1);
+        int v2Side = Orientation.sign(linePoint1, linePoint2, p2);
         if (v1Side == 0 || v2Side == 0 || v1Side != v2Side)
             return true;
         return false;
@@ -84,8 +116,8 @@ public class LineSegment<T extends AbstractNumber<T>> {
         Vector<T> lineVector = new Vector<>(linePoint1, linePoint2);
         Vector<T> v1 = new Vector<>(linePoint1, p1);
         Vector<T> v2 = new Vector<>(linePoint1, p2);
-        T crossV12 = v1.cross(v2);
-        if (crossV12.compareToZero() == 0) {
+        int crossV12 = Orientation.sign(linePoint1, p1, p2);
+        if (crossV12 == 0) {
             // p1, p2, and linePoint1 are on the same line.
             if (hasBetween(linePoint1)) {
                 // Handle the non-coincident case and the case where the line
@@ -93,13 +125,13 @@ public class LineSegment<T extends AbstractNumber<T>> {
                 return true;
             }
             return lineVector.dot(v1).compareToZero() >= 0;
-        } else if (crossV12.compareToZero() < 0) {
+        } else if (crossV12 < 0) {
             v1 = v2;
         }
-        T crossv1lineVector = v1.cross(lineVector);
-        if (crossv1lineVector.compareToZero() > 0) {
+        int crossv1lineVector = v1.crossSign(lineVector);
+        if (crossv1lineVector > 0) {
             return true;
-        } else if (crossv1lineVector.compareToZero() == 0) {
+        } else if (crossv1lineVector == 0) {
             return lineVector.dot(v1).compareToZero() > 0;
         }
         return false;
@@ -0,0 +1,177 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+/**
+ * Precomputed Minkowski differences for the distance between two trapezoids
+ * of the sequence.
+ *
+ * If trapezoid 1 is the shape A translated by its anchor a and trapezoid 2
+ * is the shape B translated by its anchor b, then the differences of their
+ * points are the convex polygon
+ *      P = A - B
+ * translated by a - b. So the smallest distance between the trapezoids is
+ * the distance from the point q = b - a to P, and the largest distance is
+ * the largest distance from q to a vertex of P. There are only six
+ * trapezoid shapes, so P is computed once for each of the 36 ordered pairs
+ * of types, and a query is a single point to convex polygon query.
+ *
+ * Everything is computed on the lattice coordinates of com.TrapezoidStore,
+ * where a point (x, y) stands for (x, y * r) with r = rt3() of the number
+ * system. Scaling y by r does not change convexity or orientation, so the
+ * polygons do not depend on r, and squared distances are
+ *      x^2 + r^2 * y^2,
+ * which is a whole number for r^2 = 3, or r^2 = 1 in the number systems
+ * that replace sqrt(3) by 1. The smallest distance squared is a quotient of
+ * whole numbers, so only the final result is made in the number system.
+ */
+public final class MinkowskiDistanceTable {
+    private static final int TYPES = 6;
+    private static final int[][][] HULL_X = new int[TYPES][TYPES][];
+    private static final int[][][] HULL_Y = new int[TYPES][TYPES][];
+
+    static {
+        for (int type1=0; type1<TYPES; type1++) {
+            for (int type2=0; type2<TYPES; type2++) {
+                buildHull(type1, type2);
+            }
+        }
+    }
+
+    private MinkowskiDistanceTable() {
+    }
+
+    /**
+     * Set the hull of the differences of the vertices of the two types.
+     */
+    private static void buildHull(int type1, int type2) {
+        int[] xs1 = TrapezoidStore.X_OFFSETS[type1], ys1 = TrapezoidStore.Y_OFFSETS[type1];
+        int[] xs2 = TrapezoidStore.X_OFFSETS[type2], ys2 = TrapezoidStore.Y_OFFSETS[type2];
+        long[] points = new long[xs1.length * xs2.length];
+        for (int i=0; i<xs1.length; i++) {
+            for (int j=0; j<xs2.length; j++) {
+                points[i * xs2.length + j] = LatticeHull.pack(xs1[i] - xs2[j], ys1[i] - ys2[j]);
+            }
+        }
+        LatticeHull hull = LatticeHull.of(points, points.length);
+        HULL_X[type1][type2] = hull.xs;
+        HULL_Y[type1][type2] = hull.ys;
+    }
+
+    private static long cross(long x1, long y1, long x2, long y2) {
+        return LatticeHull.cross(x1, y1, x2, y2);
+    }
+
+    private static long dot(long x1, long y1, long x2, long y2, long rt3Sq) {
+        return Math.addExact(Math.multiplyExact(x1, x2), Math.multiplyExact(rt3Sq, Math.multiplyExact(y1, y2)));
+    }
+
+    /**
+     * Get the smallest distance squared between two trapezoids of a store.
+     *
+     * This is zero if the trapezoids intersect.
+     * @param rt3Sq: the square of rt3() in the number system, 1 or 3.
+     * @param zero: any number in the number system of the result.
+     * @throws ArithmeticException if the trapezoids are too far apart for
+     *  the distance to be computed in longs.
+     */
+    public static <T extends AbstractNumber<T>> T minDistanceSq(
+            TrapezoidStore store, int index1, int index2, long rt3Sq, T zero) {
+        return minSquaredDistance(store, index1, index2, rt3Sq, zero).value();
+    }
+
+    /**
+     * Get the smallest distance squared between two trapezoids of a store,
+     * as in minDistanceSq, without dividing.
+     */
+    public static <T extends AbstractNumber<T>> SquaredDistance<T> minSquaredDistance(
+            TrapezoidStore store, int index1, int index2, long rt3Sq, T zero) {
+        long[] quotient = new long[2];
+        minDistanceSq(store, index1, index2, rt3Sq, quotient);
+        if (quotient[1] == 1)
+            return SquaredDistance.of(zero.whole(quotient[0]));
+        return SquaredDistance.of(zero.whole(quotient[0]), zero.whole(quotient[1]));
+    }
+
+    /**
+     * Get the smallest distance squared between two trapezoids of a store
+     * as the quotient quotient[0] / quotient[1] of whole numbers, where the
+     * denominator is positive.
+     */
+    static void minDistanceSq(TrapezoidStore store, int index1, int index2, long rt3Sq, long[] quotient) {
+        int[] hullX = HULL_X[store.type(index1).index()][store.type(index2).index()];
+        int[] hullY = HULL_Y[store.type(index1).index()][store.type(index2).index()];
+        long qx = (long) store.vertexX(index2, 0) - store.vertexX(index1, 0);
+        long qy = (long) store.vertexY(index2, 0) - store.vertexY(index1, 0);
+        int n = hullX.length;
+        boolean outside = false;
+        for (int i=0; i<n; i++) {
+            int next = (i + 1) % n;
+            long ex = hullX[next] - hullX[i], ey = hullY[next] - hullY[i];
+            long wx = qx - hullX[i], wy = qy - hullY[i];
+            long side = cross(ex, ey, wx, wy);
+            if (side >= 0)
+                continue;
+            outside = true;
+            // q is strictly outside of edge i, so the nearest point is on
+            // this edge if q projects onto it.
+            long projection = dot(wx, wy, ex, ey, rt3Sq);
+            long lengthSq = dot(ex, ey, ex, ey, rt3Sq);
+            if (projection >= 0 && projection <= lengthSq) {
+                quotient[0] = Math.multiplyExact(rt3Sq, Math.multiplyExact(side, side));
+                quotient[1] = lengthSq;
+                return;
+            }
+        }
+        if (!outside) {
+            quotient[0] = 0;
+            quotient[1] = 1;
+            return;
+        }
+        // Otherwise the nearest point is a vertex whose cone of outward
+        // normals contains q.
+        for (int i=0; i<n; i++) {
+            int next = (i + 1) % n;
+            int prev = (i + n - 1) % n;
+            long wx = qx - hullX[i], wy = qy - hullY[i];
+            if (dot(wx, wy, hullX[next] - hullX[i], hullY[next] - hullY[i], rt3Sq) <= 0
+                    && dot(wx, wy, hullX[i] - hullX[prev], hullY[i] - hullY[prev], rt3Sq) >= 0) {
+                quotient[0] = dot(wx, wy, wx, wy, rt3Sq);
+                quotient[1] = 1;
+                return;
+            }
+        }
+        throw new IllegalStateException(String.format(
+                "No nearest feature found for trapezoids %d and %d.", index1, index2));
+    }
+
+    /**
+     * Get the largest distance squared between two trapezoids of a store.
+     *
+     * @param rt3Sq: the square of rt3() in the number system, 1 or 3.
+     * @param zero: any number in the number system of the result.
+     * @throws ArithmeticException if the trapezoids are too far apart for
+     *  the distance to be computed in longs.
+     */
+    public static <T extends AbstractNumber<T>> T maxDistanceSq(
+            TrapezoidStore store, int index1, int index2, long rt3Sq, T zero) {
+        return zero.whole(maxDistanceSq(store, index1, index2, rt3Sq));
+    }
+
+    /**
+     * Get the largest distance squared between two trapezoids of a store as
+     * a whole number.
+     */
+    static long maxDistanceSq(TrapezoidStore store, int index1, int index2, long rt3Sq) {
+        int[] hullX = HULL_X[store.type(index1).index()][store.type(index2).index()];
+        int[] hullY = HULL_Y[store.type(index1).index()][store.type(index2).index()];
+        long qx = (long) store.vertexX(index2, 0) - store.vertexX(index1, 0);
+        long qy = (long) store.vertexY(index2, 0) - store.vertexY(index1, 0);
+        long maxDistSq = 0;
+        for (int i=0; i<hullX.length; i++) {
+            long wx = qx - hullX[i], wy = qy - hullY[i];
+            maxDistSq = Math.max(maxDistSq, dot(wx, wy, wx, wy, rt3Sq));
+        }
+        return maxDistSq;
+    }
+}
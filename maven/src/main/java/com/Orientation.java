@@ -0,0 +1,69 @@
+package com;
+
+import com.numbers.AbstractNumber;
+import com.numbers.DoubleRep;
+import com.numbers.FilteredWholeAndRt3;
+import com.numbers.RobustPredicates;
+import com.numbers.WholeAndRt3;
+import com.numbers.WholeAndRt3Kernel;
+
+/**
+ * Orientation tests shared by the geometry classes.
+ *
+ * Number systems with a primitive kernel are dispatched to it so that the
+ * sign of a cross product can be found without creating intermediate
+ * com.Vector or com.numbers.AbstractNumber objects. Filtered number
+ * systems and robust com.numbers.DoubleRep values evaluate the sign in
+ * floating point first and only escalate to exact arithmetic on near-ties.
+ * Other number systems fall back to generic com.Vector arithmetic.
+ */
+final class Orientation {
+    private Orientation() {
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors a->b and a->c.
+     *
+     * @return 1 if c is to the left of the directed line through a and b,
+     *  -1 if it is to the right and 0 if the three points are collinear.
+     */
+    static <T extends AbstractNumber<T>> int sign(Point<T> a, Point<T> b, Point<T> c) {
+        if (a.x instanceof WholeAndRt3 ax) {
+            return WholeAndRt3Kernel.orientation(
+                    ax, (WholeAndRt3) a.y,
+                    (WholeAndRt3) b.x, (WholeAndRt3) b.y,
+                    (WholeAndRt3) c.x, (WholeAndRt3) c.y);
+        }
+        if (a.x instanceof FilteredWholeAndRt3 ax) {
+            return FilteredWholeAndRt3.orientation(
+                    ax, (FilteredWholeAndRt3) a.y,
+                    (FilteredWholeAndRt3) b.x, (FilteredWholeAndRt3) b.y,
+                    (FilteredWholeAndRt3) c.x, (FilteredWholeAndRt3) c.y);
+        }
+        if (a.x instanceof DoubleRep ax && ax.isRobust()) {
+            return RobustPredicates.orient2d(
+                    ax, (DoubleRep) a.y, (DoubleRep) b.x, (DoubleRep) b.y,
+                    (DoubleRep) c.x, (DoubleRep) c.y);
+        }
+        return new Vector<>(a, b).cross(new Vector<>(a, c)).compareToZero();
+    }
+
+    /**
+     * Get the sign of the cross product of v1 and v2.
+     */
+    static <T extends AbstractNumber<T>> int crossSign(Vector<T> v1, Vector<T> v2) {
+        if (v1.x instanceof WholeAndRt3 x1) {
+            return WholeAndRt3Kernel.crossSign(
+                    x1, (WholeAndRt3) v1.y, (WholeAndRt3) v2.x, (WholeAndRt3) v2.y);
+        }
+        if (v1.x instanceof FilteredWholeAndRt3 x1) {
+            return FilteredWholeAndRt3.crossSign(
+                    x1, (FilteredWholeAndRt3) v1.y, (FilteredWholeAndRt3) v2.x, (FilteredWholeAndRt3) v2.y);
+        }
+        if (v1.x instanceof DoubleRep x1 && x1.isRobust()) {
+            return RobustPredicates.crossSign(
+                    x1, (DoubleRep) v1.y, (DoubleRep) v2.x, (DoubleRep) v2.y);
+        }
+        return v1.cross(v2).compareToZero();
+    }
+}
@@ -0,0 +1,143 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of squared distances between pairs of sequence
+ * trapezoids, keyed by their relative configuration.
+ *
+ * The smallest and largest distances between two trapezoids depend only on
+ * the two trapezoid types and the displacement between their anchors, and
+ * the sequence is so repetitive that the same configurations recur across
+ * every gap of a distance assertion. The displacement is in the lattice
+ * coordinates of com.TrapezoidStore.
+ *
+ * Distances are translation invariant, so a cached value is the value that
+ * exact arithmetic gives for every pair with the configuration, and a
+ * cached com.numbers.DoubleInterval still encloses it. Distances are kept
+ * as com.SquaredDistance so that the undivided smallest distances of a
+ * distance assertion can be cached too.
+ */
+public class PairDistanceCache<T extends AbstractNumber<T>> {
+    /**
+     * The entry that is evicted when the cache is full.
+     */
+    public enum EvictionPolicy {
+        /** Evict the least recently used configuration. */
+        LRU,
+        /** Evict the least recently added configuration. */
+        FIFO
+    }
+
+    private static final int DISPLACEMENT_BITS = 26;
+    private static final long DISPLACEMENT_LIMIT = 1L << (DISPLACEMENT_BITS - 1);
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final LinkedHashMap<Long, SquaredDistance<T>> distances;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public PairDistanceCache(int capacity, EvictionPolicy policy) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The cache capacity must be positive.");
+        this.capacity = capacity;
+        this.policy = policy;
+        distances = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SquaredDistance<T>> eldest) {
+                if (size() <= PairDistanceCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Pack a configuration into a key, or return -1 if the displacement is
+     * too large to pack.
+     */
+    private static long key(boolean largest, int type1, int type2, long dx, long dy) {
+        if (dx <= -DISPLACEMENT_LIMIT || dx >= DISPLACEMENT_LIMIT
+                || dy <= -DISPLACEMENT_LIMIT || dy >= DISPLACEMENT_LIMIT)
+            return -1;
+        long configuration = ((largest ? 1 : 0) * 6L + type1) * 6 + type2;
+        long mask = (1L << DISPLACEMENT_BITS) - 1;
+        return (configuration << (2 * DISPLACEMENT_BITS)) | ((dx & mask) << DISPLACEMENT_BITS) | (dy & mask);
+    }
+
+    /**
+     * Get the smallest or largest distance squared between two trapezoids of
+     * a store, computing it with distance on a miss.
+     */
+    public T get(TrapezoidStore store, int index1, int index2, boolean largest, Supplier<T> distance) {
+        return getSquared(store, index1, index2, largest, () -> SquaredDistance.of(distance.get())).value();
+    }
+
+    /**
+     * Get the smallest or largest distance squared between two trapezoids of
+     * a store as in get, without dividing.
+     */
+    public SquaredDistance<T> getSquared(TrapezoidStore store, int index1, int index2, boolean largest,
+                                         Supplier<SquaredDistance<T>> distance) {
+        long key = key(largest, store.type(index1).index(), store.type(index2).index(),
+                (long) store.vertexX(index2, 0) - store.vertexX(index1, 0),
+                (long) store.vertexY(index2, 0) - store.vertexY(index1, 0));
+        if (key < 0) {
+            misses++;
+            return distance.get();
+        }
+        SquaredDistance<T> distanceSq = distances.get(key);
+        if (distanceSq != null) {
+            hits++;
+            return distanceSq;
+        }
+        misses++;
+        distanceSq = distance.get();
+        distances.put(key, distanceSq);
+        return distanceSq;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of configurations in the cache.
+     */
+    public int size() {
+        return distances.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void clear() {
+        distances.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s cache of %d/%d configurations: %d hits, %d misses, %d evictions",
+                policy, size(), capacity, hits, misses, evictions);
+    }
+}
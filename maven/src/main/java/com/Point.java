@@ -1,6 +1,7 @@
 package com;
 
 import com.numbers.AbstractNumber;
+import com.numbers.CommonMath;
 
 public class Point<T extends AbstractNumber<T>> {
     T x;
@@ -27,4 +28,16 @@ public class Point<T extends AbstractNumber<T>> {
         }
         return false;
     }
+
+    /**
+     * Get a 64-bit hash of this point that is consistent with equals.
+     */
+    public long fingerprint() {
+        return CommonMath.fingerprint(x.fingerprint(), y.fingerprint());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
 }
@@ -67,9 +67,7 @@ public class PointComparator<T extends AbstractNumber<T>> implements Comparator<
         }
         // Both points are on the same side of the horizontal, or on the horizontal
         // through the pivot (but not both points on the horizontal).
-        Vector<T> v1 = new Vector<>(pivot, p1);
-        Vector<T> v2 = new Vector<>(pivot, p2);
-        int side = v1.cross(v2).compareToZero();
+        int side = Orientation.sign(pivot, p1, p2);
         if (side == 0) {
             return pivot.distanceSq(p1).compareTo(pivot.distanceSq(p2));
         }
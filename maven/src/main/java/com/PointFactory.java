@@ -3,6 +3,7 @@ package com;
 import com.numbers.DoubleRep;
 import com.numbers.Fraction;
 import com.numbers.FractionFactory;
+import com.numbers.LongRational;
 import com.numbers.WholeAndRt3;
 import com.numbers.WholeNumber;
 
@@ -15,6 +16,9 @@ public class PointFactory {
     public Point<Fraction<WholeNumber>> makeFractionPoint(long x, long y) {
         return new Point<>(ff.makeFraction(x, 1), ff.makeFraction(y, 1));
     }
+    public Point<LongRational> makeLongRationalPoint(long x, long y) {
+        return new Point<>(new LongRational(x), new LongRational(y));
+    }
 
     public Point<Fraction<WholeAndRt3>> makeWholeAndRt3Point(
             long xOnes, long xRt3, long yOnes, long yRt3) {
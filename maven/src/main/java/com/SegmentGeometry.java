@@ -0,0 +1,42 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+/**
+ * Immutable values derived from the end points of a com.LineSegment.
+ *
+ * These depend only on the end points, so com.LineSegment computes them
+ * once, on first use, instead of on every distance or betweenness test.
+ * All fields are final, so an instance is safely shared once it is made.
+ */
+final class SegmentGeometry<T extends AbstractNumber<T>> {
+    /** The vector p1->p2. */
+    final Vector<T> direction;
+    /** The perpendicular of the direction through p1, (dy, -dx). */
+    final Vector<T> normal;
+    /** The perpendicular of the direction p2->p1 through p2. */
+    final Vector<T> reverseNormal;
+    /** The sign of the side of the perpendicular through p1 that p2 is on. */
+    final int p2SideOfP1;
+    /** The sign of the side of the perpendicular through p2 that p1 is on. */
+    final int p1SideOfP2;
+    /**
+     * The constant term of the line equation
+     *      normal . p + lineConstant = 0
+     * of the infinite line through the end points.
+     */
+    final T lineConstant;
+    /** The squared length of the line segment. */
+    final T lengthSq;
+
+    SegmentGeometry(Point<T> p1, Point<T> p2) {
+        direction = new Vector<>(p1, p2);
+        normal = direction.perpendicular();
+        p2SideOfP1 = normal.cross(direction).compareToZero();
+        Vector<T> reverseDirection = direction.additiveInverse();
+        reverseNormal = reverseDirection.perpendicular();
+        p1SideOfP2 = reverseNormal.cross(reverseDirection).compareToZero();
+        lineConstant = (p2.x.multiply(p1.y)).subtract(p1.x.multiply(p2.y));
+        lengthSq = (direction.x.multiply(direction.x)).add(direction.y.multiply(direction.y));
+    }
+}
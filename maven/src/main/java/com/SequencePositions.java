@@ -0,0 +1,146 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+import java.util.ArrayList;
+
+/**
+ * Random access to the symbols and anchor positions of the trapezoid
+ * sequence without building the trapezoids before them.
+ *
+ * The symbol sequence is the fixed point of the 7-uniform morphism
+ * com.SymbolSequence.morphism starting at symbol 0, so its first 7^k
+ * symbols are the image of symbol 0 under k applications of the morphism.
+ * Reading the base-7 digits of an index from the most significant one
+ * walks down from that block to the symbol at the index: the digit at
+ * level k picks the child of the current symbol's image. The anchor of a
+ * trapezoid is the sum of the displacements of the trapezoids before it,
+ * and the trapezoids before it at each level are the whole images of the
+ * children before the picked one. So with the displacement of the image of
+ * every symbol under every power of the morphism, summed over the children
+ * before each digit, an index takes one table lookup per base-7 digit.
+ *
+ * Positions are in the lattice coordinates of com.TrapezoidStore, relative
+ * to the start point of the sequence. A com.TrapezoidStore made with an
+ * offset takes its symbols from here, so a worker can start at any index.
+ */
+public final class SequencePositions {
+    private static final int BASE = 7;
+    private static final int NUM_SYMBOLS = SymbolSequence.morphism.length;
+    /** 7^LEVELS is the largest power of 7 below Long.MAX_VALUE. */
+    private static final int LEVELS = 22;
+    private static final long[] POWERS = new long[LEVELS + 1];
+    /*
+     * PREFIX_X[k][s][d] and PREFIX_Y[k][s][d] are the displacement of the
+     * images under the k-th power of the morphism of the first d symbols of
+     * the image of symbol s.
+     */
+    private static final long[][][] PREFIX_X = new long[LEVELS][NUM_SYMBOLS][BASE + 1];
+    private static final long[][][] PREFIX_Y = new long[LEVELS][NUM_SYMBOLS][BASE + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int k=1; k<=LEVELS; k++) {
+            POWERS[k] = POWERS[k - 1] * BASE;
+        }
+        // The displacement of the image of each symbol under the k-th power.
+        long[] imageX = new long[NUM_SYMBOLS];
+        long[] imageY = new long[NUM_SYMBOLS];
+        for (int s=0; s<NUM_SYMBOLS; s++) {
+            int type = TrapezoidSequence.trapezoidTypeMap[s].index();
+            imageX[s] = TrapezoidStore.X_OFFSETS[type][3];
+            imageY[s] = TrapezoidStore.Y_OFFSETS[type][3];
+        }
+        for (int k=0; k<LEVELS; k++) {
+            long[] nextX = new long[NUM_SYMBOLS];
+            long[] nextY = new long[NUM_SYMBOLS];
+            for (int s=0; s<NUM_SYMBOLS; s++) {
+                for (int d=0; d<BASE; d++) {
+                    int child = SymbolSequence.morphism[s][d];
+                    PREFIX_X[k][s][d + 1] = PREFIX_X[k][s][d] + imageX[child];
+                    PREFIX_Y[k][s][d + 1] = PREFIX_Y[k][s][d] + imageY[child];
+                }
+                nextX[s] = PREFIX_X[k][s][BASE];
+                nextY[s] = PREFIX_Y[k][s][BASE];
+            }
+            imageX = nextX;
+            imageY = nextY;
+        }
+    }
+
+    private SequencePositions() {
+    }
+
+    private static void checkIndex(long index) {
+        if (index < 0 || index >= POWERS[LEVELS])
+            throw new IndexOutOfBoundsException("com.Trapezoid index out of bounds.");
+    }
+
+    /**
+     * Get the number of base-7 digits needed for an index.
+     */
+    private static int digits(long index) {
+        int levels = 0;
+        while (levels < LEVELS && POWERS[levels] <= index)
+            levels++;
+        return levels;
+    }
+
+    /**
+     * Get the symbol at an index of the symbol sequence.
+     */
+    public static int symbol(long index) {
+        checkIndex(index);
+        int symbol = 0;
+        for (int k=digits(index) - 1; k>=0; k--) {
+            symbol = SymbolSequence.morphism[symbol][(int) (index / POWERS[k] % BASE)];
+        }
+        return symbol;
+    }
+
+    public static TrapezoidType type(long index) {
+        return TrapezoidSequence.trapezoidTypeMap[symbol(index)];
+    }
+
+    /**
+     * Get the anchor (vertex 0) of the trapezoid at an index.
+     *
+     * @return the x coordinate and the y coordinate in multiples of
+     *  sqrt(3), relative to the start point of the sequence.
+     */
+    public static long[] anchor(long index) {
+        checkIndex(index);
+        int symbol = 0;
+        long x = 0, y = 0;
+        for (int k=digits(index) - 1; k>=0; k--) {
+            int digit = (int) (index / POWERS[k] % BASE);
+            x += PREFIX_X[k][symbol][digit];
+            y += PREFIX_Y[k][symbol][digit];
+            symbol = SymbolSequence.morphism[symbol][digit];
+        }
+        return new long[] {x, y};
+    }
+
+    /**
+     * Make the trapezoids with indices in [offset, offset + count) in the
+     * number system of the start point of the sequence, without making the
+     * trapezoids before them.
+     */
+    public static <T extends AbstractNumber<T>> ArrayList<Trapezoid<T>> window(
+            long offset, int count, Point<T> startPoint) {
+        checkIndex(offset);
+        checkIndex(offset + Math.max(count - 1, 0));
+        TrapezoidFactory<T> tf = new TrapezoidFactory<>();
+        long[] anchor = anchor(offset);
+        T x = startPoint.x.whole(anchor[0]);
+        T y = startPoint.y.rt3().multiply(startPoint.y.whole(anchor[1]));
+        Point<T> prevPoint = new Point<>(startPoint.x.add(x), startPoint.y.add(y));
+        ArrayList<Trapezoid<T>> trapezoids = new ArrayList<>(count);
+        for (long index=offset; index<offset + count; index++) {
+            Trapezoid<T> trapezoid = tf.makeSequenceTrapezoid(type(index), prevPoint);
+            trapezoids.add(trapezoid);
+            prevPoint = trapezoid.vertices.get(3);
+        }
+        return trapezoids;
+    }
+}
@@ -0,0 +1,256 @@
+package com;
+
+import com.numbers.LongRational;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A uniform grid over the anchors of the trapezoids of a com.TrapezoidStore
+ * for finding the trapezoids that come close to each other at any index gap.
+ *
+ * The grid cells are squares of the lattice coordinates of
+ * com.TrapezoidStore, so a cell is cellSize wide and cellSize * rt3 high,
+ * where rt3 squared is the rt3Sq of the number system, 1 or 3. The
+ * trapezoids of each cell are kept in index order in one array, so that
+ * the trapezoids at a small index gap can be skipped by binary search.
+ * Every vertex of a trapezoid is within distance 6 of its anchor, so only
+ * the cells within the query distance plus 12 of the anchor can hold
+ * trapezoids within the query distance. When there are fewer occupied
+ * cells than cells in that range, the occupied cells are scanned instead.
+ * The candidates are then checked exactly with com.MinkowskiDistanceTable.
+ */
+public class SpatialHashIndex {
+    /** The largest distance from an anchor to a vertex of its trapezoid. */
+    private static final int ANCHOR_RADIUS = 6;
+
+    private final TrapezoidStore store;
+    private final int size;
+    private final int cellSize;
+    private final int rt3Sq;
+    private final HashMap<Long, Integer> cellIds = new HashMap<>();
+    // The grid coordinates of cell c are (cellXs[c], cellYs[c]).
+    private final int[] cellXs;
+    private final int[] cellYs;
+    // The trapezoids of cell c are cellMembers[cellStarts[c]..cellStarts[c+1]).
+    private final int[] cellStarts;
+    private final int[] cellMembers;
+
+    /**
+     * Index the trapezoids of the store that exist when the index is built.
+     *
+     * @param rt3Sq: the square of rt3() in the number system, 1 or 3.
+     */
+    public SpatialHashIndex(TrapezoidStore store, int cellSize, int rt3Sq) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException("The cell size must be positive.");
+        if (rt3Sq != 1 && rt3Sq != 3)
+            throw new IllegalArgumentException("The square of rt3 must be 1 or 3.");
+        this.store = store;
+        this.size = store.size();
+        this.cellSize = cellSize;
+        this.rt3Sq = rt3Sq;
+        int[] trapezoidCells = new int[size];
+        int[] counts = new int[Math.max(size, 1) + 1];
+        int[] xs = new int[size];
+        int[] ys = new int[size];
+        for (int i=0; i<size; i++) {
+            int cellX = cellOf(store.vertexX(i, 0)), cellY = cellOf(store.vertexY(i, 0));
+            long key = cellKey(cellX, cellY);
+            Integer cellId = cellIds.get(key);
+            if (cellId == null) {
+                cellId = cellIds.size();
+                cellIds.put(key, cellId);
+                xs[cellId] = cellX;
+                ys[cellId] = cellY;
+            }
+            trapezoidCells[i] = cellId;
+            counts[cellId + 1]++;
+        }
+        cellXs = Arrays.copyOf(xs, cellIds.size());
+        cellYs = Arrays.copyOf(ys, cellIds.size());
+        cellStarts = Arrays.copyOf(counts, cellIds.size() + 1);
+        for (int c=0; c<cellIds.size(); c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        cellMembers = new int[size];
+        int[] next = Arrays.copyOf(cellStarts, cellIds.size());
+        for (int i=0; i<size; i++) {
+            cellMembers[next[trapezoidCells[i]]++] = i;
+        }
+    }
+
+    private int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cellIds.size();
+    }
+
+    /**
+     * Get the smallest distance squared between two indexed trapezoids.
+     */
+    public LongRational minDistanceSq(int index1, int index2) {
+        return MinkowskiDistanceTable.minDistanceSq(store, index1, index2, rt3Sq, LongRational.ZERO);
+    }
+
+    /**
+     * Get all trapezoids within a distance of a trapezoid whose index
+     * differs from its index by at least minGap.
+     *
+     * @param index: the index of the trapezoid.
+     * @param maxDistance: the largest distance between the trapezoids.
+     * @param minGap: the smallest index gap, at least 1.
+     * @return the indices of the trapezoids, in no particular order.
+     */
+    public List<Integer> within(int index, long maxDistance, int minGap) {
+        List<Integer> result = new ArrayList<>();
+        forEachWithin(index, maxDistance, minGap, (partner, distanceSq) -> result.add(partner));
+        return result;
+    }
+
+    private interface PairConsumer {
+        void accept(int partner, LongRational distanceSq);
+    }
+
+    private void forEachWithin(int index, long maxDistance, int minGap, PairConsumer consumer) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("com.Trapezoid index out of bounds.");
+        if (minGap < 1)
+            throw new IllegalArgumentException("The index gap must be at least 1.");
+        LongRational maxDistanceSq = new LongRational(Math.multiplyExact(maxDistance, maxDistance));
+        // The y offsets are multiplied by rt3, which is at least 1, so
+        // the x reach also bounds the y reach.
+        long reach = maxDistance + 2 * ANCHOR_RADIUS;
+        int cellX = cellOf(store.vertexX(index, 0));
+        int cellY = cellOf(store.vertexY(index, 0));
+        int cellReach = (int) Math.min(Integer.MAX_VALUE / 4, (reach + cellSize - 1) / cellSize);
+        long side = 2L * cellReach + 1;
+        if (side * side > cellIds.size()) {
+            for (int cellId=0; cellId<cellIds.size(); cellId++) {
+                if (Math.abs((long) cellXs[cellId] - cellX) <= cellReach
+                        && Math.abs((long) cellYs[cellId] - cellY) <= cellReach)
+                    forEachInCell(cellId, index, maxDistanceSq, minGap, consumer);
+            }
+            return;
+        }
+        for (long cx=(long) cellX - cellReach; cx<=(long) cellX + cellReach; cx++) {
+            for (long cy=(long) cellY - cellReach; cy<=(long) cellY + cellReach; cy++) {
+                Integer cellId = cellIds.get(cellKey((int) cx, (int) cy));
+                if (cellId != null)
+                    forEachInCell(cellId, index, maxDistanceSq, minGap, consumer);
+            }
+        }
+    }
+
+    private void forEachInCell(
+            int cellId, int index, LongRational maxDistanceSq, int minGap, PairConsumer consumer) {
+        int start = cellStarts[cellId], end = cellStarts[cellId + 1];
+        // Skip the members with index gaps below minGap.
+        int skipFrom = lowerBound(start, end, (long) index - minGap + 1);
+        int skipTo = lowerBound(start, end, (long) index + minGap);
+        for (int k=start; k<end; k++) {
+            if (k == skipFrom)
+                k = skipTo;
+            if (k >= end)
+                break;
+            int partner = cellMembers[k];
+            LongRational distanceSq = minDistanceSq(index, partner);
+            if (distanceSq.compareTo(maxDistanceSq) <= 0)
+                consumer.accept(partner, distanceSq);
+        }
+    }
+
+    /**
+     * Get the first position in cellMembers[start..end) whose index is at
+     * least value.
+     */
+    private int lowerBound(int start, int end, long value) {
+        int lo = start, hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cellMembers[mid] < value)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Get the closest approach of the walk at each scale of index gaps.
+     *
+     * The index gaps are split into the buckets [minGap, 2 * minGap),
+     * [2 * minGap, 4 * minGap), and so on. For each bucket, this finds the
+     * pair of trapezoids with the smallest distance among the pairs within
+     * maxDistance of each other. It takes time linear in the number of
+     * trapezoids and in the number of such pairs.
+     *
+     * @return the closest approach of each bucket by bucket, or null for
+     *  the buckets with no pairs within maxDistance.
+     */
+    public List<CloseApproach> closestApproachesByGap(long maxDistance, int minGap) {
+        List<CloseApproach> closest = new ArrayList<>();
+        for (int i=0; i<size; i++) {
+            final int index = i;
+            forEachWithin(index, maxDistance, minGap, (partner, distanceSq) -> {
+                if (partner < index)
+                    return;
+                int bucket = 31 - Integer.numberOfLeadingZeros((partner - index) / minGap);
+                while (closest.size() <= bucket)
+                    closest.add(null);
+                CloseApproach current = closest.get(bucket);
+                if (current == null || distanceSq.compareTo(current.distanceSq) < 0)
+                    closest.set(bucket, new CloseApproach(index, partner, distanceSq));
+            });
+        }
+        return closest;
+    }
+
+    /**
+     * Inner class for a pair of trapezoids and the smallest distance squared
+     * between them.
+     */
+    public static class CloseApproach {
+        public final int index1;
+        public final int index2;
+        public final LongRational distanceSq;
+
+        public CloseApproach(int index1, int index2, LongRational distanceSq) {
+            this.index1 = index1;
+            this.index2 = index2;
+            this.distanceSq = distanceSq;
+        }
+
+        public int gap() {
+            return index2 - index1;
+        }
+
+        /**
+         * @return the ratio (gap + 1)^2 / distanceSq of the assertion
+         *  com.TrapezoidSequence.assertBoundedMinDistance, or null if the
+         *  trapezoids touch.
+         */
+        public LongRational ratioSq() {
+            if (distanceSq.compareToZero() == 0)
+                return null;
+            long gapPlusOne = gap() + 1;
+            return new LongRational(gapPlusOne * gapPlusOne).divide(distanceSq);
+        }
+
+        public String toString() {
+            return String.format("%d and %d at gap %d: distanceSq %s", index1, index2, gap(), distanceSq);
+        }
+    }
+}
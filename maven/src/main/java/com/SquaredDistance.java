@@ -0,0 +1,108 @@
+package com;
+
+import com.numbers.AbstractNumber;
+import com.numbers.IndeterminateComparisonException;
+
+/**
+ * A squared distance kept as an unnormalized quotient of two numbers.
+ *
+ * The squared distance from a point to a line is a square divided by the
+ * squared length of a segment, and distances are only ever compared, so
+ * the quotient is never computed. Quotients are compared by
+ * cross-multiplying, so no gcd or division is needed and number systems
+ * without exact division, such as com.numbers.WholeAndRt3, can be used.
+ * The denominator is always positive.
+ */
+public final class SquaredDistance<T extends AbstractNumber<T>> implements Comparable<SquaredDistance<T>> {
+    final T numerator;
+    final T denominator;
+    // True iff the denominator is one, so that value() is the numerator.
+    private final boolean integral;
+
+    private SquaredDistance(T numerator, T denominator, boolean integral) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.integral = integral;
+    }
+
+    /**
+     * @param denominator: a positive number.
+     */
+    public static <T extends AbstractNumber<T>> SquaredDistance<T> of(T numerator, T denominator) {
+        return new SquaredDistance<>(numerator, denominator, false);
+    }
+
+    public static <T extends AbstractNumber<T>> SquaredDistance<T> of(T value) {
+        return new SquaredDistance<>(value, value.one(), true);
+    }
+
+    public T getNumerator() {
+        return numerator;
+    }
+
+    public T getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * Get the squared distance as a number, dividing if needed.
+     */
+    public T value() {
+        return integral ? numerator : numerator.divide(denominator);
+    }
+
+    public int compareToZero() {
+        return numerator.compareToZero();
+    }
+
+    public int compareTo(SquaredDistance<T> other) {
+        if (integral && other.integral)
+            return numerator.compareTo(other.numerator);
+        return numerator.multiply(other.denominator).compareTo(other.numerator.multiply(denominator));
+    }
+
+    /**
+     * Compare this squared distance multiplied by scale with another
+     * multiplied by otherScale.
+     */
+    public int compareScaled(T scale, SquaredDistance<T> other, T otherScale) {
+        T lhs = numerator.multiply(scale);
+        T rhs = other.numerator.multiply(otherScale);
+        if (!other.integral)
+            lhs = lhs.multiply(other.denominator);
+        if (!integral)
+            rhs = rhs.multiply(denominator);
+        return lhs.compareTo(rhs);
+    }
+
+    /**
+     * Compare this squared distance with a number.
+     */
+    public int compareToValue(T value) {
+        if (integral)
+            return numerator.compareTo(value);
+        return numerator.compareTo(value.multiply(denominator));
+    }
+
+    /**
+     * Get the smaller of this squared distance and another.
+     *
+     * Number systems that cannot always decide comparisons divide instead,
+     * and take an enclosure of the smaller value as in AbstractNumber.min.
+     */
+    public SquaredDistance<T> min(SquaredDistance<T> other) {
+        if (integral && other.integral)
+            return of(numerator.min(other.numerator));
+        try {
+            return compareTo(other) <= 0 ? this : other;
+        } catch (IndeterminateComparisonException e) {
+            return of(value().min(other.value()));
+        }
+    }
+
+    public String toString() {
+        if (integral)
+            return numerator.toString();
+        return String.format("%s / %s", numerator.toString(), denominator.toString());
+    }
+}
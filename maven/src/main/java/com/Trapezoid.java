@@ -13,6 +13,7 @@ import java.util.List;
 public class Trapezoid<T extends AbstractNumber<T>> {
     List<Point<T>> vertices;
     List<LineSegment<T>> sides;
+    private TrapezoidGeometry<T> geometry;
     public Trapezoid(Point<T> p0, Point<T> p1, Point<T> p2, Point<T> p3) {
         vertices = new ArrayList<>(4);
         vertices.add(p0);
@@ -26,6 +27,18 @@ public class Trapezoid<T extends AbstractNumber<T>> {
         sides.add(new LineSegment<>(p3, p0));
     }
 
+    /**
+     * Get the values derived from the vertices, computing them on first use.
+     */
+    TrapezoidGeometry<T> geometry() {
+        TrapezoidGeometry<T> result = geometry;
+        if (result == null) {
+            result = new TrapezoidGeometry<>(vertices);
+            geometry = result;
+        }
+        return result;
+    }
+
      /**
       * Return the shortest distance squared from the boundary of the com.Trapezoid
       * to the provided point.
@@ -37,9 +50,7 @@ public class Trapezoid<T extends AbstractNumber<T>> {
         T minDistSq = null;
         for (LineSegment<T> side: sides) {
             T currDistSq = side.distanceSq(p);
-            if (minDistSq == null || currDistSq.compareTo(minDistSq) < 0) {
-                minDistSq = currDistSq;
-            }
+            minDistSq = minDistSq == null ? currDistSq : minDistSq.min(currDistSq);
         }
         return minDistSq;
     }
@@ -57,9 +68,7 @@ public class Trapezoid<T extends AbstractNumber<T>> {
         for (Point<T> p1: vertices) {
             for (Point<T> p2: t2.vertices) {
                 T currDistSq = p1.distanceSq(p2);
-                if (maxDistSq == null || currDistSq.compareTo(maxDistSq) > 0) {
-                    maxDistSq = currDistSq;
-                }
+                maxDistSq = maxDistSq == null ? currDistSq : maxDistSq.max(currDistSq);
             }
         }
         return maxDistSq;
@@ -73,21 +82,25 @@ public class Trapezoid<T extends AbstractNumber<T>> {
      *  regions defined by the two trapezoids.
      */
     public T minDistanceSq(Trapezoid<T> t2) {
-        T minDistSq = null;
+        return minSquaredDistance(t2).value();
+    }
+
+    /**
+     * Get the smallest distance squared between this trapezoid and another,
+     * as in minDistanceSq, dividing at most once.
+     */
+    public SquaredDistance<T> minSquaredDistance(Trapezoid<T> t2) {
+        SquaredDistance<T> minDistSq = null;
         for (Point<T> p: vertices) {
             for (LineSegment<T> l: t2.sides) {
-                T currDistSq = l.distanceSq(p);
-                if (minDistSq == null || currDistSq.compareTo(minDistSq) < 0) {
-                    minDistSq = currDistSq;
-                }
+                SquaredDistance<T> currDistSq = l.squaredDistance(p);
+                minDistSq = minDistSq == null ? currDistSq : minDistSq.min(currDistSq);
             }
         }
         for (Point<T> p: t2.vertices) {
             for (LineSegment<T> l: sides) {
-                T currDistSq = l.distanceSq(p);
-                if (minDistSq == null || currDistSq.compareTo(minDistSq) < 0) {
-                    minDistSq = currDistSq;
-                }
+                SquaredDistance<T> currDistSq = l.squaredDistance(p);
+                minDistSq = minDistSq == null ? currDistSq : minDistSq.min(currDistSq);
             }
         }
         return minDistSq;
@@ -96,6 +109,9 @@ public class Trapezoid<T extends AbstractNumber<T>> {
     /**
      * Determine if an infinite line intersects this trapezoid.
      *
+     * The line intersects the trapezoid iff some vertex is on the line or
+     * two vertices are on opposite sides of it, so each vertex is
+     * classified once rather than once for each of its two sides.
      * @param linePoint1: a point on an infinite line.
      * @param linePoint2: a distinct point defining an infinite line.
      * @return true iff the infinite line through linePoint1 and linePoint2
@@ -106,8 +122,11 @@ public class Trapezoid<T extends AbstractNumber<T>> {
             throw new IllegalArgumentException(
                     "Equal points do not define a unique line.");
         }
-        for (LineSegment<T> side: sides) {
-            if (side.intersectsInfiniteLine(linePoint1, linePoint2))
+        int firstSide = Orientation.sign(linePoint1, linePoint2, vertices.get(0));
+        if (firstSide == 0)
+            return true;
+        for (int i=1; i<vertices.size(); i++) {
+            if (Orientation.sign(linePoint1, linePoint2, vertices.get(i)) != firstSide)
                 return true;
         }
         return false;
@@ -125,6 +144,10 @@ public class Trapezoid<T extends AbstractNumber<T>> {
             throw new IllegalArgumentException(
                     "Equal points do not define a unique line.");
         }
+        if (geometry().boxExcludesRay(linePoint1, linePoint2)
+                || !intersectsInfiniteLine(linePoint1, linePoint2)) {
+            return false;
+        }
         for (LineSegment<T> side: sides) {
             if (side.intersectsSemiInfiniteLine(linePoint1, linePoint2)) {
                 return true;
@@ -133,18 +156,20 @@ public class Trapezoid<T extends AbstractNumber<T>> {
         return false;
     }
 
+    /**
+     * Determine if a point is inside or on the boundary of this trapezoid.
+     *
+     * Points outside of the bounding box are rejected without orientation
+     * tests. Otherwise p is outside iff it is strictly on the outer side of
+     * some side, which the winding identifies without a reference side.
+     */
     public boolean contains(Point<T> p) {
-        int sign = 0;
+        TrapezoidGeometry<T> g = geometry();
+        if (g.boxExcludes(p))
+            return false;
         for (LineSegment<T> side: sides) {
-            Vector<T> sideVector = new Vector<>(side.p1, side.p2);
-            Vector<T> pVector = new Vector<>(side.p1, p);
-            if (sign == 0) {
-                sign = sideVector.cross(pVector).compareToZero();
-            } else {
-                int currSign = sideVector.cross(pVector).compareToZero();
-                if (currSign != 0 && currSign != sign) {
-                    return false;
-                }
+            if (Orientation.sign(side.p1, side.p2, p) == -g.winding) {
+                return false;
             }
         }
         return true;
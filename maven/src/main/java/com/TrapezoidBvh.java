@@ -0,0 +1,177 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bounding volume hierarchy over the trapezoids of a com.TrapezoidStore
+ * for finding the trapezoids that an infinite line intersects.
+ *
+ * The symbol sequence is the fixed point of a 7-uniform morphism, so the
+ * trapezoids with indices in [b * 7^k, (b + 1) * 7^k) form a super-tile
+ * that is the image of the symbol at index b under k applications of the
+ * morphism. The nodes at level k of the hierarchy are these blocks, and
+ * each node keeps the exact convex hull of its vertices in lattice
+ * coordinates, as a com.LatticeHull. A line that misses the hull of a
+ * block misses all of its trapezoids, so a query only descends into the
+ * blocks that the line meets. The super-tiles are spread out, so a line
+ * meets few of them at each level.
+ */
+public class TrapezoidBvh {
+    private static final int BASE = 7;
+    private static final int VERTICES = 4;
+
+    private final TrapezoidStore store;
+    private final int size;
+    // hulls[k - 1][b] is the hull of the block b at level k >= 1.
+    private final List<LatticeHull[]> hulls = new ArrayList<>();
+
+    /**
+     * Build the hierarchy over the trapezoids of the store that exist when
+     * it is built.
+     */
+    public TrapezoidBvh(TrapezoidStore store) {
+        this.store = store;
+        this.size = store.size();
+        long[] points = new long[BASE * Math.max(BASE, VERTICES)];
+        int nodes = size;
+        while (nodes > 1) {
+            int nChildren = nodes;
+            nodes = (nChildren + BASE - 1) / BASE;
+            LatticeHull[] level = new LatticeHull[nodes];
+            LatticeHull[] childLevel = hulls.isEmpty() ? null : hulls.get(hulls.size() - 1);
+            for (int b=0; b<nodes; b++) {
+                int count = 0;
+                for (int c=b * BASE; c<Math.min((b + 1) * BASE, nChildren); c++) {
+                    if (childLevel == null) {
+                        for (int v=0; v<VERTICES; v++) {
+                            points = ensureCapacity(points, count + 1);
+                            points[count++] = LatticeHull.pack(store.vertexX(c, v), store.vertexY(c, v));
+                        }
+                    } else {
+                        LatticeHull child = childLevel[c];
+                        points = ensureCapacity(points, count + child.size());
+                        for (int i=0; i<child.size(); i++) {
+                            points[count++] = LatticeHull.pack(child.xs[i], child.ys[i]);
+                        }
+                    }
+                }
+                level[b] = LatticeHull.of(points, count);
+            }
+            hulls.add(level);
+        }
+    }
+
+    private static long[] ensureCapacity(long[] points, int capacity) {
+        return capacity <= points.length ? points : Arrays.copyOf(points, Math.max(capacity, 2 * points.length));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of levels above the trapezoids.
+     */
+    public int getLevels() {
+        return hulls.size();
+    }
+
+    /**
+     * Determine if the infinite line through two lattice points intersects
+     * a trapezoid, including touching it.
+     */
+    public boolean intersectsLine(int index, long x1, long y1, long x2, long y2) {
+        long dx = x2 - x1, dy = y2 - y1;
+        long first = Long.signum(LatticeHull.cross(dx, dy, store.vertexX(index, 0) - x1, store.vertexY(index, 0) - y1));
+        if (first == 0)
+            return true;
+        for (int v=1; v<VERTICES; v++) {
+            long side = Long.signum(LatticeHull.cross(dx, dy, store.vertexX(index, v) - x1, store.vertexY(index, v) - y1));
+            if (side != first)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the indices in [minIndex, maxIndex] of the trapezoids that the
+     * infinite line through the distinct lattice points (x1, y1) and
+     * (x2, y2) intersects, in increasing order.
+     *
+     * The y coordinates are in multiples of sqrt(3), as in
+     * com.TrapezoidStore.vertexY.
+     */
+    public int[] intersectingLine(int minIndex, int maxIndex, long x1, long y1, long x2, long y2) {
+        if (x1 == x2 && y1 == y2)
+            throw new IllegalArgumentException("Equal points do not define a unique line.");
+        IndexList result = new IndexList();
+        int lo = Math.max(minIndex, 0), hi = Math.min(maxIndex, size - 1);
+        if (lo > hi)
+            return result.toArray();
+        // Start at the finest level where the range overlaps at most two
+        // blocks rather than at the root.
+        int level = 0;
+        while (level < hulls.size() && hi / pow(level) - lo / pow(level) > 1)
+            level++;
+        long blockSize = pow(level);
+        for (long node=lo / blockSize; node<=hi / blockSize; node++) {
+            collect(level, (int) node, lo, hi, x1, y1, x2, y2, result);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Add the intersected trapezoids of a node in [lo, hi] in increasing
+     * order.
+     */
+    private void collect(int level, int node, int lo, int hi,
+                         long x1, long y1, long x2, long y2, IndexList result) {
+        if (level == 0) {
+            if (node >= lo && node <= hi && intersectsLine(node, x1, y1, x2, y2))
+                result.add(node);
+            return;
+        }
+        long blockSize = pow(level);
+        long start = node * blockSize;
+        long end = Math.min(start + blockSize, size) - 1;
+        if (end < lo || start > hi)
+            return;
+        if (!hulls.get(level - 1)[node].meetsLine(x1, y1, x2, y2))
+            return;
+        int childCount = level == 1 ? size : hulls.get(level - 2).length;
+        for (int c=node * BASE; c<Math.min((node + 1) * BASE, childCount); c++) {
+            collect(level - 1, c, lo, hi, x1, y1, x2, y2, result);
+        }
+    }
+
+    private static final long[] POWERS = new long[23];
+    static {
+        POWERS[0] = 1;
+        for (int i=1; i<POWERS.length; i++)
+            POWERS[i] = POWERS[i - 1] * BASE;
+    }
+
+    private static long pow(int level) {
+        return POWERS[level];
+    }
+
+    /**
+     * Inner class for a growable list of indices without boxing.
+     */
+    private static class IndexList {
+        int[] indices = new int[16];
+        int size = 0;
+
+        void add(int index) {
+            if (size == indices.length)
+                indices = Arrays.copyOf(indices, 2 * size);
+            indices[size++] = index;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(indices, size);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com;
 
 import com.numbers.AbstractNumber;
 import com.numbers.Fraction;
+import com.numbers.LongRational;
 import com.numbers.WholeNumber;
 
 public class TrapezoidFactory<T extends AbstractNumber<T>> {
@@ -22,6 +23,19 @@ public class TrapezoidFactory<T extends AbstractNumber<T>> {
         return new Trapezoid<>(p1, p2, p3, p4);
     }
 
+    /**
+     * Create a trapezoid with coordinates using com.numbers.LongRational.
+     *
+     * This is the flat equivalent of makeFractionTrapezoid.
+     */
+    public Trapezoid<LongRational> makeLongRationalTrapezoid(
+            long x1, long y1, long x2, long y2,
+            long x3, long y3, long x4, long y4) {
+        return new Trapezoid<>(
+                pf.makeLongRationalPoint(x1, y1), pf.makeLongRationalPoint(x2, y2),
+                pf.makeLongRationalPoint(x3, y3), pf.makeLongRationalPoint(x4, y4));
+    }
+
     /**
      * Make a com.Trapezoid of the specified type starting at startPoint.
      *
@@ -0,0 +1,83 @@
+package com;
+
+import com.numbers.AbstractNumber;
+import com.numbers.IndeterminateComparisonException;
+
+import java.util.List;
+
+/**
+ * Immutable values derived from the vertices of a com.Trapezoid.
+ *
+ * The axis-aligned bounding box lets point and ray tests reject a
+ * trapezoid with a few comparisons before any orientation test, and the
+ * winding lets com.Trapezoid.contains stop at the first side that the
+ * point is outside of. The edge vectors and line constants of the sides
+ * are kept by their com.LineSegment objects.
+ */
+final class TrapezoidGeometry<T extends AbstractNumber<T>> {
+    final T minX;
+    final T maxX;
+    final T minY;
+    final T maxY;
+    /**
+     * 1 if the vertices are in counter-clockwise order and -1 if they are
+     * in clockwise order.
+     */
+    final int winding;
+
+    TrapezoidGeometry(List<Point<T>> vertices) {
+        Point<T> first = vertices.get(0);
+        T minX = first.x, maxX = first.x, minY = first.y, maxY = first.y;
+        for (int i=1; i<vertices.size(); i++) {
+            Point<T> vertex = vertices.get(i);
+            minX = minX.min(vertex.x);
+            maxX = maxX.max(vertex.x);
+            minY = minY.min(vertex.y);
+            maxY = maxY.max(vertex.y);
+        }
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        // A trapezoid is convex, so any three vertices that are not collinear
+        // give the winding.
+        int sign = 0;
+        for (int i=0; i<vertices.size() && sign == 0; i++) {
+            sign = Orientation.sign(
+                    vertices.get(i),
+                    vertices.get((i + 1) % vertices.size()),
+                    vertices.get((i + 2) % vertices.size()));
+        }
+        winding = sign;
+    }
+
+    /**
+     * @return true if p is certainly outside of the bounding box, and false
+     *  if it is inside, on the boundary, or the number system cannot decide.
+     */
+    boolean boxExcludes(Point<T> p) {
+        try {
+            return p.x.compareTo(minX) < 0 || p.x.compareTo(maxX) > 0
+                    || p.y.compareTo(minY) < 0 || p.y.compareTo(maxY) > 0;
+        } catch (IndeterminateComparisonException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the semi-infinite line starting at linePoint1 and
+     *  going through linePoint2 certainly misses the bounding box.
+     */
+    boolean boxExcludesRay(Point<T> linePoint1, Point<T> linePoint2) {
+        try {
+            int dxSign = linePoint2.x.compareTo(linePoint1.x);
+            int dySign = linePoint2.y.compareTo(linePoint1.y);
+            return (dxSign >= 0 && linePoint1.x.compareTo(maxX) > 0)
+                    || (dxSign <= 0 && linePoint1.x.compareTo(minX) < 0)
+                    || (dySign >= 0 && linePoint1.y.compareTo(maxY) > 0)
+                    || (dySign <= 0 && linePoint1.y.compareTo(minY) < 0);
+        } catch (IndeterminateComparisonException e) {
+            return false;
+        }
+    }
+}
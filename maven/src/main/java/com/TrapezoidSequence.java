@@ -1,53 +1,107 @@
 package com;
 
 import com.numbers.AbstractNumber;
+import com.numbers.IndeterminateComparisonException;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 public class TrapezoidSequence<T extends AbstractNumber<T>> {
-    private final TrapezoidFactory<T> tf = new TrapezoidFactory<>();
-
     public static final TrapezoidType[] trapezoidTypeMap = {
             TrapezoidType.ZERO, TrapezoidType.TWO, TrapezoidType.FIVE, TrapezoidType.ONE, TrapezoidType.THREE, TrapezoidType.FOUR,
             TrapezoidType.ONE, TrapezoidType.THREE, TrapezoidType.FOUR, TrapezoidType.ZERO, TrapezoidType.TWO, TrapezoidType.FIVE
     };
 
     SymbolSequence symbolSequence;
-    ArrayList<TrapezoidType> trapezoidTypeSequence;
-    ArrayList<Trapezoid<T>> trapezoids;
+    // The trapezoids of the store in the number system of the start point.
+    List<Trapezoid<T>> trapezoids;
     Point<T> startPoint;
+    /*
+     * The trapezoids of the sequence, in lattice coordinates. The store
+     * always has a trapezoid for every symbol of the symbol sequence, which
+     * can grow as a side effect of its subword queries. Also the square of
+     * rt3() in the number system, or 0 if the lattice cannot be used for
+     * com.MinkowskiDistanceTable and com.TrapezoidBvh because rt3() squared
+     * is not exactly the whole number 1 or 3.
+     */
+    TrapezoidStore store;
+    private final int rt3Sq;
+    /*
+     * Distances are cached by default only where there is no lattice, so
+     * that a miss computes the distance from the vertices. With a lattice,
+     * com.MinkowskiDistanceTable answers in constant time and a lookup
+     * would cost more than the computation.
+     */
+    private static final int DISTANCE_CACHE_CAPACITY = 1 << 16;
+    private PairDistanceCache<T> distanceCache = null;
+    private TrapezoidBvh bvh = null;
 
     public TrapezoidSequence(int nTrapezoids, Point<T> startPoint) {
-        trapezoids = new ArrayList<>(nTrapezoids);
         this.startPoint = startPoint;
         symbolSequence = new SymbolSequence(nTrapezoids);
-        buildTrapezoidTypeSequenceFromSymbolSequence();
-        buildTrapezoidSequenceFromTrapezoidTypeSequence();
+        store = new TrapezoidStore(nTrapezoids);
+        trapezoids = new StoreTrapezoids<>(store, startPoint);
+        rt3Sq = latticeRt3Sq(startPoint.x);
+        if (rt3Sq == 0)
+            distanceCache = new PairDistanceCache<>(DISTANCE_CACHE_CAPACITY, PairDistanceCache.EvictionPolicy.LRU);
     }
 
-    /**
-     * Construct the trapezoid type sequence from the symbol sequence.
-     */
-    private void buildTrapezoidTypeSequenceFromSymbolSequence() {
-        trapezoidTypeSequence = new ArrayList<>(symbolSequence.sequence.size());
-        for (int symbol: symbolSequence.sequence) {
-            trapezoidTypeSequence.add(trapezoidTypeMap[symbol]);
+    private static <T extends AbstractNumber<T>> int latticeRt3Sq(T number) {
+        T square = number.rt3().multiply(number.rt3());
+        try {
+            for (int candidate: new int[] {1, 3}) {
+                if (square.compareTo(number.whole(candidate)) == 0)
+                    return candidate;
+            }
+        } catch (IndeterminateComparisonException e) {
+            // Fall through to the generic distance computations.
         }
+        return 0;
     }
 
     /**
-     * Construct trapezoids from the trapezoid type sequence.
+     * The trapezoids of a store in the number system of a start point.
+     *
+     * A trapezoid is made from its lattice coordinates when it is
+     * accessed. The trapezoids made are kept in a direct-mapped cache of
+     * CACHE_SIZE slots, so the cached geometry of trapezoids that are
+     * compared repeatedly is reused, while memory stays bounded and only
+     * the store records the whole sequence.
      */
-    private void buildTrapezoidSequenceFromTrapezoidTypeSequence() {
-        Point<T> prevPoint = startPoint;
-        trapezoids = new ArrayList<>();
-        for (TrapezoidType trapezoidType: trapezoidTypeSequence) {
-            trapezoids.add(tf.makeSequenceTrapezoid(trapezoidType, prevPoint));
-            prevPoint = trapezoids.get(trapezoids.size() - 1).vertices.get(3);
+    private static final class StoreTrapezoids<T extends AbstractNumber<T>>
+            extends AbstractList<Trapezoid<T>> implements RandomAccess {
+        private static final int CACHE_SIZE = 1 << 12;
+        private final TrapezoidStore store;
+        private final Point<T> startPoint;
+        // made[index % CACHE_SIZE] is the trapezoid at index iff madeIndices[index % CACHE_SIZE] == index.
+        private final ArrayList<Trapezoid<T>> made = new ArrayList<>(Collections.nCopies(CACHE_SIZE, null));
+        private final int[] madeIndices = new int[CACHE_SIZE];
+
+        StoreTrapezoids(TrapezoidStore store, Point<T> startPoint) {
+            this.store = store;
+            this.startPoint = startPoint;
+        }
+
+        public Trapezoid<T> get(int index) {
+            Objects.checkIndex(index, store.size());
+            int slot = index & (CACHE_SIZE - 1);
+            Trapezoid<T> trapezoid = made.get(slot);
+            if (trapezoid == null || madeIndices[slot] != index) {
+                trapezoid = store.trapezoid(index, startPoint);
+                made.set(slot, trapezoid);
+                madeIndices[slot] = index;
+            }
+            return trapezoid;
+        }
+
+        public int size() {
+            return store.size();
         }
     }
 
@@ -64,9 +118,9 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      */
     private String positioningCanonicalString(int startIndex, int sequenceLength) {
         StringBuilder sb = new StringBuilder();
-        TrapezoidType normalizer = trapezoidTypeSequence.get(startIndex).inverse();
+        TrapezoidType normalizer = store.type(startIndex).inverse();
         for (int i=0; i<sequenceLength; i++) {
-            sb.append(trapezoidTypeSequence.get(startIndex + i).multiply(normalizer).toString());
+            sb.append(store.type(startIndex + i).multiply(normalizer).toString());
         }
         return sb.toString();
     }
@@ -79,10 +133,7 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      */
     public int indexOfLastNewRelativePositioning(int sequenceLength) {
         int upperBoundIndex = symbolSequence.indexOfLastNewSubword(sequenceLength) + sequenceLength;
-        if (upperBoundIndex + sequenceLength > trapezoidTypeSequence.size()) {
-            symbolSequence.extendSequenceToLength(upperBoundIndex + sequenceLength);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-        }
+        extendToLength(upperBoundIndex + sequenceLength);
         HashSet<String> canonicalPositionings = new HashSet<>();
         int lastNewIndex = 0;
         for (int i=0; i<upperBoundIndex; i++) {
@@ -108,10 +159,7 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      */
     public Interval[] getCollinearSearchIntervals(int sequenceLength) {
         int upperBoundIndex = symbolSequence.indexOfLastNewSubword(sequenceLength) + sequenceLength;
-        if (upperBoundIndex + sequenceLength > trapezoidTypeSequence.size()) {
-            symbolSequence.extendSequenceToLength(upperBoundIndex + sequenceLength);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-        }
+        extendToLength(upperBoundIndex + sequenceLength);
         HashSet<String> canonicalPositionings = new HashSet<>();
         ArrayList<Interval> collinearSearchIntervals = new ArrayList<>();
         Interval activeInterval = new Interval(0, sequenceLength);
@@ -137,50 +185,137 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
         return result;
     }
 
+    /**
+     * Extend the sequence so that it has at least nTrapezoids trapezoids,
+     * and a trapezoid for every symbol of the symbol sequence.
+     */
+    public void extendToLength(int nTrapezoids) {
+        symbolSequence.extendSequenceToLength(nTrapezoids);
+        store.extendToLength(symbolSequence.sequence.size());
+    }
+
+    /**
+     * Get the trapezoid at the given index.
+     */
+    public Trapezoid<T> getTrapezoid(int index) {
+        return trapezoids.get(index);
+    }
+
+    /**
+     * @return the number of trapezoids constructed so far.
+     */
+    public int size() {
+        return trapezoids.size();
+    }
+
+    /**
+     * Cache the pair distances by relative configuration, or stop caching
+     * them if distanceCache is null.
+     */
+    public void setDistanceCache(PairDistanceCache<T> distanceCache) {
+        this.distanceCache = distanceCache;
+    }
+
+    public PairDistanceCache<T> getDistanceCache() {
+        return distanceCache;
+    }
+
     /**
      * Get the smallest distance squared between points in a pair of trapezoids.
+     *
+     * The distance is looked up in com.MinkowskiDistanceTable where the
+     * number system allows it, and is otherwise computed from the vertices.
      */
     public T getMinDistanceSq(int trapIndex1, int trapIndex2) {
         if (trapIndex1 >= trapezoids.size() || trapIndex2 >= trapezoids.size()) {
             throw new IndexOutOfBoundsException(
                     "com.Trapezoid index out of bounds.");
         }
-        return trapezoids.get(trapIndex1).minDistanceSq(trapezoids.get(trapIndex2));
+        return getMinSquaredDistance(trapIndex1, trapIndex2).value();
+    }
+
+    /**
+     * Get the smallest distance squared between points in a pair of trapezoids,
+     * as in getMinDistanceSq, without dividing.
+     */
+    private SquaredDistance<T> getMinSquaredDistance(int trapIndex1, int trapIndex2) {
+        if (distanceCache != null) {
+            return distanceCache.getSquared(store, trapIndex1, trapIndex2, false,
+                    () -> computeMinSquaredDistance(trapIndex1, trapIndex2));
+        }
+        return computeMinSquaredDistance(trapIndex1, trapIndex2);
+    }
+
+    private SquaredDistance<T> computeMinSquaredDistance(int trapIndex1, int trapIndex2) {
+        if (rt3Sq != 0) {
+            try {
+                return MinkowskiDistanceTable.minSquaredDistance(store, trapIndex1, trapIndex2, rt3Sq, startPoint.x);
+            } catch (ArithmeticException e) {
+                // The trapezoids are too far apart for the table.
+            }
+        }
+        return trapezoids.get(trapIndex1).minSquaredDistance(trapezoids.get(trapIndex2));
     }
 
     /**
      * Get the largest distance squared between points in a pair of trapezoids.
+     *
+     * See getMinDistanceSq.
      */
     public T getMaxDistanceSq(int trapIndex1, int trapIndex2) {
         if (trapIndex1 >= trapezoids.size() || trapIndex2 >= trapezoids.size()) {
             throw new IndexOutOfBoundsException(
                     "com.Trapezoid index out of bounds.");
         }
+        if (distanceCache != null) {
+            return distanceCache.get(store, trapIndex1, trapIndex2, true,
+                    () -> computeMaxDistanceSq(trapIndex1, trapIndex2));
+        }
+        return computeMaxDistanceSq(trapIndex1, trapIndex2);
+    }
+
+    private T computeMaxDistanceSq(int trapIndex1, int trapIndex2) {
+        if (rt3Sq != 0) {
+            try {
+                return MinkowskiDistanceTable.maxDistanceSq(store, trapIndex1, trapIndex2, rt3Sq, startPoint.x);
+            } catch (ArithmeticException e) {
+                // The trapezoids are too far apart for the table.
+            }
+        }
         return trapezoids.get(trapIndex1).maxDistanceSq(trapezoids.get(trapIndex2));
     }
 
+    /**
+     * Build a com.SpatialHashIndex over the trapezoids constructed so far.
+     * The number system must have an exact lattice, with rt3() squared
+     * equal to 1 or 3.
+     */
+    public SpatialHashIndex buildSpatialIndex(int cellSize) {
+        if (rt3Sq == 0)
+            throw new ArithmeticException("The number system has no exact lattice for a spatial index.");
+        return new SpatialHashIndex(store, cellSize, rt3Sq);
+    }
+
     /**
      * Get the smallest and largest x and y coordinates of constructed trapezoids.
      */
     public List<T> getBounds() {
-        T xMin = null, xMax = null, yMin = null, yMax = null;
-        for (Trapezoid<T> trap: trapezoids) {
-            for (Point<T> pt: trap.vertices) {
-                if (xMin == null || pt.x.compareTo(xMin) < 0) {
-                    xMin = pt.x;
-                }
-                if (xMax == null || pt.x.compareTo(xMax) > 0) {
-                    xMax = pt.x;
-                }
-                if (yMin == null || pt.y.compareTo(yMin) < 0) {
-                    yMin = pt.y;
-                }
-                if (yMax == null || pt.y.compareTo(yMax) > 0) {
-                    yMax = pt.y;
-                }
+        if (store.size() == 0)
+            return Arrays.asList(null, null, null, null);
+        // The coordinates grow with the lattice coordinates, so the bounds
+        // are found on the lattice.
+        int xMin = Integer.MAX_VALUE, xMax = Integer.MIN_VALUE, yMin = Integer.MAX_VALUE, yMax = Integer.MIN_VALUE;
+        for (int i=0; i<store.size(); i++) {
+            for (int v=0; v<4; v++) {
+                xMin = Math.min(xMin, store.vertexX(i, v));
+                xMax = Math.max(xMax, store.vertexX(i, v));
+                yMin = Math.min(yMin, store.vertexY(i, v));
+                yMax = Math.max(yMax, store.vertexY(i, v));
             }
         }
-        return Arrays.asList(xMin, yMin, xMax, yMax);
+        Point<T> min = TrapezoidStore.point(xMin, yMin, startPoint);
+        Point<T> max = TrapezoidStore.point(xMax, yMax, startPoint);
+        return Arrays.asList(min.x, min.y, max.x, max.y);
     }
 
     /**
@@ -189,6 +324,15 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *
      * Where n=maxIndex-minIndex and k=maxIndexDiff, this algorithm is O(nk^2)
      *
+     * Where the vertices are on the lattice of com.TrapezoidStore, the
+     * trapezoids in the window that each candidate line intersects are found
+     * with a com.TrapezoidBvh, which skips the blocks of the window that the
+     * line misses. Otherwise the side of each candidate line that each
+     * distinct vertex is on is kept in a com.VertexSignTable, so a vertex
+     * shared by adjacent trapezoids is classified once per line, and the
+     * intersected trapezoids at most maxIndexDiff apart are counted in a
+     * ring buffer.
+     *
      * @param minIndex: the smallest index to consider.
      * @param maxIndex: the largest index to consider.
      * @param maxIndexDiff: the largest difference in indices for a set of
@@ -198,31 +342,43 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      */
     public int countCollinear(int minIndex, int maxIndex, int maxIndexDiff) {
         int maxCollinear = 0;
+        TrapezoidBvh lineIndex = rt3Sq != 0 ? getBvh() : null;
+        VertexSignTable<T> signTable = lineIndex == null ? VertexSignTable.of(store, startPoint, minIndex, maxIndex) : null;
+        // A ring buffer of the intersected indices at most maxIndexDiff apart.
+        int[] window = new int[maxIndexDiff + 1];
         for (int loIndex=minIndex; loIndex < maxIndex; loIndex++) {
             int hiUpperBound = Math.min(loIndex + maxIndexDiff, maxIndex);
-            Trapezoid<T> trap1 = trapezoids.get(loIndex);
             for (int hiIndex=loIndex + 1; hiIndex <= hiUpperBound; hiIndex++) {
-                Trapezoid<T> trap2 = trapezoids.get(hiIndex);
-                for (Point<T> p1: trap1.vertices) {
-                    for (Point<T> p2: trap2.vertices) {
-                        if (p1.equals(p2))
+                for (int v1=0; v1 < 4; v1++) {
+                    for (int v2=0; v2 < 4; v2++) {
+                        if (store.vertexX(loIndex, v1) == store.vertexX(hiIndex, v2)
+                                && store.vertexY(loIndex, v1) == store.vertexY(hiIndex, v2))
                             continue;
                         int minIter = Math.max(0, hiIndex - maxIndexDiff);
                         minIter = Math.max(minIndex, minIter);
-                        int maxIter = Math.min(trapezoids.size() - 1, loIndex + maxIndexDiff);
+                        int maxIter = Math.min(store.size() - 1, loIndex + maxIndexDiff);
                         maxIter = Math.min(maxIndex, maxIter);
-                        LinkedList<Integer> intersectIndices = new LinkedList<>();
+                        if (lineIndex != null) {
+                            int[] intersected = lineIndex.intersectingLine(minIter, maxIter,
+                                    store.vertexX(loIndex, v1), store.vertexY(loIndex, v1),
+                                    store.vertexX(hiIndex, v2), store.vertexY(hiIndex, v2));
+                            maxCollinear = Math.max(maxCollinear, maxInWindow(intersected, maxIndexDiff));
+                            continue;
+                        }
+                        signTable.setLine(signTable.id(loIndex, v1), signTable.id(hiIndex, v2));
+                        int first = 0, count = 0;
                         for (int iterIndex=minIter; iterIndex <= maxIter; iterIndex++) {
-                            Trapezoid<T> testTrap = trapezoids.get(iterIndex);
-                            if (testTrap.intersectsInfiniteLine(p1, p2)) {
-                                intersectIndices.offer(iterIndex);
-                            }
-                            while (intersectIndices.size() > 0 &&
-                                    intersectIndices.getLast() - intersectIndices.getFirst() > maxIndexDiff) {
-                                intersectIndices.poll();
+                            if (!signTable.intersectsLine(iterIndex))
+                                continue;
+                            while (count > 0 && iterIndex - window[first] > maxIndexDiff) {
+                                first = first == maxIndexDiff ? 0 : first + 1;
+                                count--;
                             }
-                            if (intersectIndices.size() > maxCollinear) {
-                                maxCollinear = intersectIndices.size();
+                            int last = first + count;
+                            window[last > maxIndexDiff ? last - maxIndexDiff - 1 : last] = iterIndex;
+                            count++;
+                            if (count > maxCollinear) {
+                                maxCollinear = count;
                             }
                         }
                     }
@@ -232,6 +388,30 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
         return maxCollinear;
     }
 
+    /**
+     * Get the com.TrapezoidBvh over the trapezoids constructed so far.
+     */
+    public TrapezoidBvh getBvh() {
+        if (bvh == null || bvh.size() != store.size())
+            bvh = new TrapezoidBvh(store);
+        return bvh;
+    }
+
+    /**
+     * Get the largest number of sorted indices that are at most
+     * maxIndexDiff apart.
+     */
+    private static int maxInWindow(int[] sortedIndices, int maxIndexDiff) {
+        int best = 0;
+        int first = 0;
+        for (int last=0; last<sortedIndices.length; last++) {
+            while (sortedIndices[last] - sortedIndices[first] > maxIndexDiff)
+                first++;
+            best = Math.max(best, last - first + 1);
+        }
+        return best;
+    }
+
     /**
      * Get the largest number of trapezoids intersected by a single line
      * where no two trapezoids are more than maxIndexDiff indices apart.
@@ -247,44 +427,56 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *      subject to the bounds on the indices.
      */
     public TrapezoidIntersectionPair<T> radialSweepCountCollinear(int minIndex, int maxIndex, int maxIndexDiff) {
+        extendToLength(maxIndex + 1);
+        // The trapezoids of the range are made for the sweep only.
         ArrayList<Trapezoid<T>> trapezoidRange = new ArrayList<>(maxIndex - minIndex + 1);
-        if (maxIndex + 1 > trapezoidTypeSequence.size()) {
-            symbolSequence.extendSequenceToLength(2 * maxIndex);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-        }
-        Point<T> prevPoint = startPoint;
-        for (int i=minIndex; i<=maxIndex; i++) {
-            Trapezoid<T> nextTrapezoid = tf.makeSequenceTrapezoid(trapezoidTypeSequence.get(i), prevPoint);
-            trapezoidRange.add(nextTrapezoid);
-            prevPoint = nextTrapezoid.vertices.get(3);
-        }
-        // Iterate over all pivot vertices in trapezoids between minIndex and maxIndex.
+        for (int index=minIndex; index<=maxIndex; index++)
+            trapezoidRange.add(store.trapezoid(index, startPoint));
+        return radialSweepCountCollinear(trapezoidRange, minIndex, maxIndex, maxIndexDiff);
+    }
+
+    private TrapezoidIntersectionPair<T> radialSweepCountCollinear(
+            ArrayList<Trapezoid<T>> trapezoidRange, int minIndex, int maxIndex, int maxIndexDiff) {
+        // Pivot on each distinct vertex once. A line through a vertex intersects every
+        // trapezoid that has it, so the candidates are the trapezoids within maxIndexDiff
+        // of any of them.
+        VertexPool<T> pool = new VertexPool<>(store, startPoint, minIndex, maxIndex);
+        // The position in eventPoints of the merged start and end events at each vertex
+        // for the pivot that last set them.
+        int[] startEventOf = new int[pool.size()];
+        int[] endEventOf = new int[pool.size()];
+        int[] startEventPivot = new int[pool.size()];
+        int[] endEventPivot = new int[pool.size()];
+        Arrays.fill(startEventPivot, -1);
+        Arrays.fill(endEventPivot, -1);
+        int lastReported = -1;
         TrapezoidIntersectionPair<T> bestTrapezoidIntersectionPair = null;
-        for (int pivotTrapezoidIndex=minIndex; pivotTrapezoidIndex<=maxIndex; pivotTrapezoidIndex++) {
-            if (pivotTrapezoidIndex % 200 == 0) {
+        for (int pivotId=0; pivotId<pool.size(); pivotId++) {
+            int pivotTrapezoidIndex = pool.touchingTrapezoid(pivotId, 0);
+            if (pivotTrapezoidIndex % 200 == 0 && pivotTrapezoidIndex != lastReported) {
                 System.out.printf("Progress: considering vertices in trapezoid %d as pivots\n", pivotTrapezoidIndex);
+                lastReported = pivotTrapezoidIndex;
             }
-            boolean firstVertex = true;
-            for (Point<T> pivotVertex: trapezoidRange.get(pivotTrapezoidIndex - minIndex).vertices) {
-                if (firstVertex && pivotTrapezoidIndex != minIndex) {
-                    firstVertex = false;
-                    continue;
-                }
-                int pivotCurrentCollinear = 0;
-                // Initialize a segment tree.
-                // Each index of the segment tree corresponds to an interval of size maxIndexDiff. Incrementing
-                // the count at an index corresponds to increasing the number of active trapezoids in a particular
-                // interval of trapezoid indices.
-                SegmentTreeNode activeTrapezoidsRoot = new SegmentTreeNode(minIndex, maxIndex + maxIndexDiff);
-
-                Point<T> pivotPositiveDirectionPoint = new Point<>(pivotVertex.x.add(pivotVertex.x.one()), pivotVertex.y);
-                ArrayList<EventPoint<T>> eventPoints = new ArrayList<>();
-                PointComparator<T> positivePointComparator = new PointComparator<>(pivotVertex, true);
-                PointComparator<T> negativePointComparator = new PointComparator<>(pivotVertex, false);
-                EventPointComparator<T> eventPointComparator = new EventPointComparator<>(pivotVertex);
-                // For each other trapezoid sort the 4 vertices relative to the pivot and identify enter and exit vertices.
-                int currIndexMin = Math.max(pivotTrapezoidIndex - maxIndexDiff, minIndex);
-                int currIndexMax = Math.min(pivotTrapezoidIndex + maxIndexDiff, maxIndex);
+            Point<T> pivotVertex = pool.point(pivotId);
+            int pivotCurrentCollinear = 0;
+            // Initialize a segment tree.
+            // Each index of the segment tree corresponds to an interval of size maxIndexDiff. Incrementing
+            // the count at an index corresponds to increasing the number of active trapezoids in a particular
+            // interval of trapezoid indices.
+            SegmentTreeNode activeTrapezoidsRoot = new SegmentTreeNode(minIndex, maxIndex + maxIndexDiff);
+
+            Point<T> pivotPositiveDirectionPoint = new Point<>(pivotVertex.x.add(pivotVertex.x.one()), pivotVertex.y);
+            ArrayList<EventPoint<T>> eventPoints = new ArrayList<>();
+            PointComparator<T> positivePointComparator = new PointComparator<>(pivotVertex, true);
+            PointComparator<T> negativePointComparator = new PointComparator<>(pivotVertex, false);
+            EventPointComparator<T> eventPointComparator = new EventPointComparator<>(pivotVertex);
+            // For each other trapezoid sort the 4 vertices relative to the pivot and identify enter and exit vertices.
+            int nextCandidate = minIndex;
+            for (int k=0; k<pool.touchingCount(pivotId); k++) {
+                int touchingIndex = pool.touchingTrapezoid(pivotId, k);
+                int currIndexMin = Math.max(Math.max(touchingIndex - maxIndexDiff, minIndex), nextCandidate);
+                int currIndexMax = Math.min(touchingIndex + maxIndexDiff, maxIndex);
+                nextCandidate = Math.max(nextCandidate, currIndexMax + 1);
                 for (int currTrapezoidIndex=currIndexMin; currTrapezoidIndex<=currIndexMax; currTrapezoidIndex++) {
                     Trapezoid<T> currentTrapezoid = trapezoidRange.get(currTrapezoidIndex - minIndex);
                     if (currentTrapezoid.contains(pivotVertex)) {
@@ -310,59 +502,87 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
                         activeTrapezoidsRoot.update(currTrapezoidIndex, currTrapezoidIndex + maxIndexDiff, 1);
                         pivotCurrentCollinear = Math.max(pivotCurrentCollinear, activeTrapezoidsRoot.max(0, maxIndex + maxIndexDiff));
                     }
-                    Point<T> startPoint = trapPoints.get(0);
-                    Point<T> endPoint = trapPoints.get(trapPoints.size() - 1);
-                    eventPoints.add(new EventPoint<>(startPoint, currTrapezoidIndex, true));
-                    eventPoints.add(new EventPoint<>(endPoint, currTrapezoidIndex, false));
+                    // Merge the events at a vertex that already has an event of the same kind.
+                    int startId = poolId(pool, currentTrapezoid, currTrapezoidIndex, trapPoints.get(0));
+                    int endId = poolId(pool, currentTrapezoid, currTrapezoidIndex, trapPoints.get(trapPoints.size() - 1));
+                    if (startEventPivot[startId] == pivotId) {
+                        eventPoints.get(startEventOf[startId]).merge(currTrapezoidIndex);
+                    } else {
+                        startEventPivot[startId] = pivotId;
+                        startEventOf[startId] = eventPoints.size();
+                        eventPoints.add(new EventPoint<>(pool.point(startId), currTrapezoidIndex, true));
+                    }
+                    if (endEventPivot[endId] == pivotId) {
+                        eventPoints.get(endEventOf[endId]).merge(currTrapezoidIndex);
+                    } else {
+                        endEventPivot[endId] = pivotId;
+                        endEventOf[endId] = eventPoints.size();
+                        eventPoints.add(new EventPoint<>(pool.point(endId), currTrapezoidIndex, false));
+                    }
                 }
-                // Sort all enter and exit vertices relative to the pivot.
-                eventPoints.sort(eventPointComparator);
-                TrapezoidIntersectionPair<T> pivotBestIntersectionPair = new TrapezoidIntersectionPair<>(
-                        pivotCurrentCollinear,
-                        pivotTrapezoidIndex,
-                        eventPoints.get(0).trapezoidIndex,
-                        pivotVertex,
-                        eventPoints.get(0).point
-                );
-                // Iterate over enter and exit vertices and insert trapezoid index into the Segment tree
-                for (EventPoint<T> eventPoint: eventPoints) {
+            }
+            // Sort all enter and exit vertices relative to the pivot.
+            eventPoints.sort(eventPointComparator);
+            TrapezoidIntersectionPair<T> pivotBestIntersectionPair = new TrapezoidIntersectionPair<>(
+                    pivotCurrentCollinear,
+                    pivotTrapezoidIndex,
+                    eventPoints.get(0).trapezoidIndex,
+                    pivotVertex,
+                    eventPoints.get(0).point
+            );
+            // Iterate over enter and exit vertices and insert trapezoid indices into the Segment tree
+            for (EventPoint<T> eventPoint: eventPoints) {
+                for (int j=0; j<eventPoint.trapezoidCount; j++) {
+                    int trapezoidIndex = eventPoint.trapezoidIndices[j];
                     if (eventPoint.isStart) {
                         // Insert the corresponding trapezoid into the Segment tree.
-                        activeTrapezoidsRoot.update(eventPoint.trapezoidIndex, eventPoint.trapezoidIndex + maxIndexDiff, 1);
+                        activeTrapezoidsRoot.update(trapezoidIndex, trapezoidIndex + maxIndexDiff, 1);
                         pivotCurrentCollinear = Math.max(pivotCurrentCollinear, activeTrapezoidsRoot.max(0, maxIndex + maxIndexDiff));
                         if (pivotCurrentCollinear > pivotBestIntersectionPair.numTrapezoidsIntersected) {
                             pivotBestIntersectionPair = new TrapezoidIntersectionPair<>(
                                     pivotCurrentCollinear,
                                     pivotTrapezoidIndex,
-                                    eventPoint.trapezoidIndex,
+                                    trapezoidIndex,
                                     pivotVertex,
                                     eventPoint.point
                             );
                         }
                     } else {
                         // Remove the corresponding trapezoid from the Segment tree.
-                        activeTrapezoidsRoot.update(eventPoint.trapezoidIndex, eventPoint.trapezoidIndex + maxIndexDiff, -1);
+                        activeTrapezoidsRoot.update(trapezoidIndex, trapezoidIndex + maxIndexDiff, -1);
                     }
                 }
-                if (bestTrapezoidIntersectionPair == null || pivotBestIntersectionPair.numTrapezoidsIntersected > bestTrapezoidIntersectionPair.numTrapezoidsIntersected) {
-                    bestTrapezoidIntersectionPair = pivotBestIntersectionPair;
-                }
+            }
+            if (bestTrapezoidIntersectionPair == null || pivotBestIntersectionPair.numTrapezoidsIntersected > bestTrapezoidIntersectionPair.numTrapezoidsIntersected) {
+                bestTrapezoidIntersectionPair = pivotBestIntersectionPair;
             }
         }
         return bestTrapezoidIntersectionPair;
     }
 
+    /**
+     * Get the pool id of a vertex of a trapezoid.
+     */
+    private static <T extends AbstractNumber<T>> int poolId(
+            VertexPool<T> pool, Trapezoid<T> trapezoid, int trapezoidIndex, Point<T> vertex) {
+        for (int v=0; v<trapezoid.vertices.size(); v++) {
+            if (trapezoid.vertices.get(v) == vertex)
+                return pool.id(trapezoidIndex, v);
+        }
+        throw new RuntimeException("The point is not a vertex of the trapezoid.");
+    }
+
     /**
      * Get the smallest value for the square of a distance between trapezoids separated by
      * `gap` or `gap`+1 indices where the smaller index is in the interval [minIndex, maxIndex].
      *
      * O(maxIndex - minIndex)
      */
-    private T loDistanceSq(int minIndex, int maxIndex, int gap) {
-        T minMinDistanceSq = null;
+    private SquaredDistance<T> loDistanceSq(int minIndex, int maxIndex, int gap) {
+        SquaredDistance<T> minMinDistanceSq = null;
         for (int index=minIndex; index<=maxIndex; index++) {
-            T minDistanceSq1 = getMinDistanceSq(index, index + gap);
-            T minDistanceSq2 = getMinDistanceSq(index, index + gap + 1);
+            SquaredDistance<T> minDistanceSq1 = getMinSquaredDistance(index, index + gap);
+            SquaredDistance<T> minDistanceSq2 = getMinSquaredDistance(index, index + gap + 1);
             if (minMinDistanceSq == null || minDistanceSq1.compareTo(minMinDistanceSq) < 0) {
                 minMinDistanceSq = minDistanceSq1;
             }
@@ -408,20 +628,16 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *  than baseUpperBound.
      */
     public boolean assertBoundedRatio(int gapMin, int gapMax, int startIndex, int endIndex, T baseUpperBound) {
-        if (trapezoids.size() <= endIndex + gapMax + 1) {
-            symbolSequence.extendSequenceToLength(endIndex + gapMax + 2);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-            buildTrapezoidSequenceFromTrapezoidTypeSequence();
-        }
+        extendToLength(endIndex + gapMax + 2);
         DistanceSqIndexRatio maxLoDistanceSqRatio = maxLoDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
         DistanceSqIndexRatio maxHiDistanceSqRatio = maxHiDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
         System.out.printf("maxLoDistanceRatio: %s\n", maxLoDistanceSqRatio);
         System.out.printf("maxHiDistanceRatio: %s\n", maxHiDistanceSqRatio);
-        T lhs = maxHiDistanceSqRatio.distanceSq.divide(maxLoDistanceSqRatio.distanceSq);
-        T rhsSqrt = baseUpperBound.multiply(baseUpperBound.whole(maxHiDistanceSqRatio.indexGap)).divide(
-                baseUpperBound.whole(maxLoDistanceSqRatio.indexGap));
-        T rhs = rhsSqrt.multiply(rhsSqrt);
-        return lhs.compareTo(rhs) < 0;
+        // hiDistanceSq / loDistanceSq < (baseUpperBound * hiGap / loGap)^2, cross-multiplied.
+        T loGap = baseUpperBound.whole(maxLoDistanceSqRatio.indexGap);
+        T rhsSqrt = baseUpperBound.multiply(baseUpperBound.whole(maxHiDistanceSqRatio.indexGap));
+        return maxHiDistanceSqRatio.distanceSq.compareScaled(
+                loGap.multiply(loGap), maxLoDistanceSqRatio.distanceSq, rhsSqrt.multiply(rhsSqrt)) < 0;
     }
 
     /**
@@ -436,16 +652,12 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *  trapezoid by the index gap.
      */
     private DistanceSqIndexRatio maxHiDistanceSqIndexRatio(int gapMin, int gapMax, int startIndex, int endIndex) {
-        if (trapezoids.size() <= endIndex + gapMax + 1) {
-            symbolSequence.extendSequenceToLength(endIndex + gapMax + 2);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-            buildTrapezoidSequenceFromTrapezoidTypeSequence();
-        }
+        extendToLength(endIndex + gapMax + 2);
         DistanceSqIndexRatio maxHiDistanceSqIndexRatio = null;
         for (int gap=gapMin; gap<=gapMax; gap++) {
             System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
             T hiDistanceSq = hiDistanceSq(startIndex, endIndex, gap);
-            DistanceSqIndexRatio curr = new DistanceSqIndexRatio(hiDistanceSq, gap, false);
+            DistanceSqIndexRatio curr = new DistanceSqIndexRatio(SquaredDistance.of(hiDistanceSq), gap, false);
             if (maxHiDistanceSqIndexRatio == null || maxHiDistanceSqIndexRatio.compareTo(curr) < 0) {
                 maxHiDistanceSqIndexRatio = curr;
             }
@@ -457,15 +669,11 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      * O((gapMax-gapMin) * (endIndex - startIndex))
      */
     private DistanceSqIndexRatio maxLoDistanceSqIndexRatio(int gapMin, int gapMax, int startIndex, int endIndex) {
-        if (trapezoids.size() <= endIndex + gapMax + 1) {
-            symbolSequence.extendSequenceToLength(endIndex + gapMax + 2);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-            buildTrapezoidSequenceFromTrapezoidTypeSequence();
-        }
+        extendToLength(endIndex + gapMax + 2);
         DistanceSqIndexRatio maxLoDistanceSqIndexRatio = null;
         for (int gap=gapMin; gap<=gapMax; gap++) {
             System.out.printf("Progress: considering gap %d in range [%d,%d]\n", gap, gapMin, gapMax);
-            T loDistanceSq = loDistanceSq(startIndex, endIndex, gap);
+            SquaredDistance<T> loDistanceSq = loDistanceSq(startIndex, endIndex, gap);
             DistanceSqIndexRatio curr = new DistanceSqIndexRatio(loDistanceSq, gap+1, true);
             if (maxLoDistanceSqIndexRatio == null || maxLoDistanceSqIndexRatio.compareTo(curr) < 0) {
                 maxLoDistanceSqIndexRatio = curr;
@@ -487,16 +695,12 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *  trapezoid by the index gap is at most baseUpperBound.
      */
     public boolean assertBoundedMaxDistance(int gapMin, int gapMax, int startIndex, int endIndex, T baseUpperBound) {
-        if (trapezoids.size() <= endIndex + gapMax + 1) {
-            symbolSequence.extendSequenceToLength(endIndex + gapMax + 2);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-            buildTrapezoidSequenceFromTrapezoidTypeSequence();
-        }
+        extendToLength(endIndex + gapMax + 2);
         DistanceSqIndexRatio maxHiDistanceSqRatio = maxHiDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
         System.out.printf("maxHiDistanceRatio: %s\n", maxHiDistanceSqRatio.toString());
         T rhsSqrt = baseUpperBound.multiply(baseUpperBound.whole(maxHiDistanceSqRatio.indexGap));
         T rhs = rhsSqrt.multiply(rhsSqrt);
-        return maxHiDistanceSqRatio.distanceSq.compareTo(rhs) < 0;
+        return maxHiDistanceSqRatio.distanceSq.compareToValue(rhs) < 0;
     }
 
     /**
@@ -514,27 +718,24 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
      *  distance between points in a pair of trapezoids is at most baseUpperBound.
      */
     public boolean assertBoundedMinDistance(int gapMin, int gapMax, int startIndex, int endIndex, T baseUpperBound) {
-        if (trapezoids.size() <= endIndex + gapMax + 1) {
-            symbolSequence.extendSequenceToLength(endIndex + gapMax + 2);
-            buildTrapezoidTypeSequenceFromSymbolSequence();
-            buildTrapezoidSequenceFromTrapezoidTypeSequence();
-        }
+        extendToLength(endIndex + gapMax + 2);
         DistanceSqIndexRatio maxLoDistanceSqRatio = maxLoDistanceSqIndexRatio(gapMin, gapMax, startIndex, endIndex);
         System.out.printf("maxLoDistanceRatio: %s\n", maxLoDistanceSqRatio.toString());
+        // (indexGap)^2 < loDistanceSq * baseUpperBound^2, cross-multiplied.
         T lhsSqrt = baseUpperBound.whole(maxLoDistanceSqRatio.indexGap);
         T lhs = lhsSqrt.multiply(lhsSqrt);
-        T rhs = maxLoDistanceSqRatio.distanceSq.multiply(baseUpperBound.multiply(baseUpperBound));
-        return lhs.compareTo(rhs) < 0;
+        return maxLoDistanceSqRatio.distanceSq.compareScaled(
+                baseUpperBound.multiply(baseUpperBound), SquaredDistance.of(lhs), lhs.one()) > 0;
     }
 
     /**
      * Inner class for storing squared distances and index gaps.
      */
     class DistanceSqIndexRatio implements Comparable<DistanceSqIndexRatio> {
-        T distanceSq;
+        SquaredDistance<T> distanceSq;
         int indexGap;
         boolean inverse;
-        public DistanceSqIndexRatio(T distanceSq, int indexGap, boolean inverse) {
+        public DistanceSqIndexRatio(SquaredDistance<T> distanceSq, int indexGap, boolean inverse) {
             this.distanceSq = distanceSq;
             this.indexGap = indexGap;
             this.inverse = inverse;
@@ -543,21 +744,13 @@ public class TrapezoidSequence<T extends AbstractNumber<T>> {
             if (inverse ^ r2.inverse) {
                 throw new RuntimeException("Should not compare an inverse ratio to a non-inverse ratio.");
             }
-            if (inverse) {
-                T lhs = r2.distanceSq.divide(distanceSq);
-                T tIndexGap1 = distanceSq.whole(indexGap);
-                T tIndexGap2 = r2.distanceSq.whole(r2.indexGap);
-                T rhsSqrt = tIndexGap2.divide(tIndexGap1);
-                T rhs = rhsSqrt.multiply(rhsSqrt);
-                return lhs.compareTo(rhs);
-            } else {
-                T lhs = distanceSq.divide(r2.distanceSq);
-                T tIndexGap1 = distanceSq.whole(indexGap);
-                T tIndexGap2 = r2.distanceSq.whole(r2.indexGap);
-                T rhsSqrt = tIndexGap1.divide(tIndexGap2);
-                T rhs = rhsSqrt.multiply(rhsSqrt);
-                return lhs.compareTo(rhs);
-            }
+            // Both ratios compare as distanceSq1 * indexGap2^2 against distanceSq2 * indexGap1^2,
+            // and the inverse ratios in the opposite order.
+            T tIndexGap1 = distanceSq.numerator.whole(indexGap);
+            T tIndexGap2 = distanceSq.numerator.whole(r2.indexGap);
+            int comparison = distanceSq.compareScaled(
+                    tIndexGap2.multiply(tIndexGap2), r2.distanceSq, tIndexGap1.multiply(tIndexGap1));
+            return inverse ? -comparison : comparison;
         }
 
         public String toString() {
@@ -0,0 +1,187 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+import java.util.Arrays;
+
+/**
+ * A compact structure-of-arrays store for the trapezoids of the sequence.
+ *
+ * Relative to the start point of the sequence, every vertex of every
+ * trapezoid is of the form
+ *      (a, b * sqrt(3))
+ * for integers a and b. The store keeps only the symbol and the anchor
+ * vertex (vertex 0) of each trapezoid in primitive arrays, which is 9 bytes
+ * per trapezoid, and derives the other vertices from per-type offset
+ * tables that match com.TrapezoidFactory. Points and trapezoids in a
+ * particular number system are only made on request, by the flyweight
+ * accessors.
+ *
+ * The symbols are generated directly from com.SymbolSequence.morphism: the
+ * sequence is the fixed point of a 7-uniform morphism, so the symbol at
+ * index i is morphism[symbol(i / 7)][i % 7]. Extending the store only
+ * appends.
+ *
+ * A store can also hold a window of the sequence that starts at an offset,
+ * so that a worker can handle one shard of a long sequence without
+ * building the trapezoids before it. Its symbols come from
+ * com.SequencePositions.
+ */
+public class TrapezoidStore {
+    private static final int BASE = 7;
+    private static final int VERTICES = 4;
+
+    /*
+     * The offsets of vertices 0 to 3 from the anchor for each trapezoid
+     * type. The y offsets are in multiples of sqrt(3).
+     */
+    static final int[][] X_OFFSETS = {
+            {0, 1, 5, 6},
+            {0, 1, 5, 6},
+            {0, -2, -4, -3},
+            {0, 1, -1, -3},
+            {0, -2, -4, -3},
+            {0, 1, -1, -3},
+    };
+    static final int[][] Y_OFFSETS = {
+            {0, 1, 1, 0},
+            {0, -1, -1, 0},
+            {0, 0, 2, 3},
+            {0, 1, 3, 3},
+            {0, 0, -2, -3},
+            {0, -1, -3, -3},
+    };
+
+    private byte[] symbols;
+    private int[] anchorX;
+    private int[] anchorY;
+    private int size = 0;
+    private final long offset;
+
+    public TrapezoidStore(int nTrapezoids) {
+        this(0, nTrapezoids);
+    }
+
+    /**
+     * Make a store of the trapezoids with sequence indices in
+     * [offset, offset + nTrapezoids).
+     *
+     * Index i of the store is index offset + i of the sequence. Coordinates
+     * are relative to the anchor of the trapezoid at offset, which is
+     * com.SequencePositions.anchor(offset) relative to the start point of
+     * the sequence. Collinearity and distances are translation invariant,
+     * so they are the same as for the whole sequence.
+     */
+    public TrapezoidStore(long offset, int nTrapezoids) {
+        if (offset < 0)
+            throw new IndexOutOfBoundsException("com.Trapezoid index out of bounds.");
+        this.offset = offset;
+        int capacity = Math.max(nTrapezoids, 1);
+        symbols = new byte[capacity];
+        anchorX = new int[capacity];
+        anchorY = new int[capacity];
+        extendToLength(nTrapezoids);
+    }
+
+    /**
+     * Extend the store so that it has at least nTrapezoids trapezoids.
+     */
+    public void extendToLength(int nTrapezoids) {
+        if (nTrapezoids <= size)
+            return;
+        if (nTrapezoids > symbols.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(nTrapezoids, 2L * symbols.length));
+            symbols = Arrays.copyOf(symbols, capacity);
+            anchorX = Arrays.copyOf(anchorX, capacity);
+            anchorY = Arrays.copyOf(anchorY, capacity);
+        }
+        for (int i=size; i<nTrapezoids; i++) {
+            symbols[i] = (byte) (offset == 0
+                    ? SymbolSequence.morphism[symbols[i / BASE]][i % BASE]
+                    : SequencePositions.symbol(offset + i));
+            if (i > 0) {
+                int prevType = typeIndex(i - 1);
+                anchorX[i] = Math.addExact(anchorX[i - 1], X_OFFSETS[prevType][VERTICES - 1]);
+                anchorY[i] = Math.addExact(anchorY[i - 1], Y_OFFSETS[prevType][VERTICES - 1]);
+            }
+        }
+        size = nTrapezoids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the sequence index of the first trapezoid of the store.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("com.Trapezoid index out of bounds.");
+    }
+
+    public int symbol(int index) {
+        checkIndex(index);
+        return symbols[index];
+    }
+
+    private int typeIndex(int index) {
+        return TrapezoidSequence.trapezoidTypeMap[symbols[index]].index();
+    }
+
+    public TrapezoidType type(int index) {
+        checkIndex(index);
+        return TrapezoidSequence.trapezoidTypeMap[symbols[index]];
+    }
+
+    /**
+     * Get the x coordinate of a vertex relative to the start point.
+     * @param index: the index of the trapezoid.
+     * @param vertex: the index of the vertex in the trapezoid, from 0 to 3.
+     */
+    public int vertexX(int index, int vertex) {
+        checkIndex(index);
+        return anchorX[index] + X_OFFSETS[typeIndex(index)][vertex];
+    }
+
+    /**
+     * Get the y coordinate of a vertex relative to the start point, in
+     * multiples of sqrt(3).
+     * @param index: the index of the trapezoid.
+     * @param vertex: the index of the vertex in the trapezoid, from 0 to 3.
+     */
+    public int vertexY(int index, int vertex) {
+        checkIndex(index);
+        return anchorY[index] + Y_OFFSETS[typeIndex(index)][vertex];
+    }
+
+    /**
+     * Make a vertex in the number system of the start point.
+     */
+    public <T extends AbstractNumber<T>> Point<T> vertex(int index, int vertex, Point<T> startPoint) {
+        return point(vertexX(index, vertex), vertexY(index, vertex), startPoint);
+    }
+
+    /**
+     * Make the point with lattice coordinates x and y in the number system
+     * of the start point.
+     */
+    public static <T extends AbstractNumber<T>> Point<T> point(int x, int y, Point<T> startPoint) {
+        T xOffset = startPoint.x.whole(x);
+        T yOffset = startPoint.y.rt3().multiply(startPoint.y.whole(y));
+        return new Point<>(startPoint.x.add(xOffset), startPoint.y.add(yOffset));
+    }
+
+    /**
+     * Make a trapezoid in the number system of the start point.
+     */
+    public <T extends AbstractNumber<T>> Trapezoid<T> trapezoid(int index, Point<T> startPoint) {
+        return new Trapezoid<>(
+                vertex(index, 0, startPoint), vertex(index, 1, startPoint),
+                vertex(index, 2, startPoint), vertex(index, 3, startPoint));
+    }
+}
@@ -1,6 +1,7 @@
 package com;
 
 import com.numbers.AbstractNumber;
+import com.numbers.CommonMath;
 
 public class Vector<T extends AbstractNumber<T>> {
     T x;
@@ -35,6 +36,14 @@ public class Vector<T extends AbstractNumber<T>> {
     public T cross(Vector<T> v2) {
         return x.multiply(v2.y).subtract(y.multiply(v2.x));
     }
+
+    /**
+     * Get the sign of the cross product with v2 without computing it as a
+     * number where the number system allows it.
+     */
+    public int crossSign(Vector<T> v2) {
+        return Orientation.crossSign(this, v2);
+    }
     public T dot(Vector<T> v2) {
         return x.multiply(v2.x).add(y.multiply(v2.y));
     }
@@ -48,6 +57,18 @@ public class Vector<T extends AbstractNumber<T>> {
         return false;
     }
 
+    /**
+     * Get a 64-bit hash of this vector that is consistent with equals.
+     */
+    public long fingerprint() {
+        return CommonMath.fingerprint(x.fingerprint(), y.fingerprint());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+
     @Override
     public String toString() {
         return String.format("(%s, %s)", x.toString(), y.toString());
@@ -0,0 +1,105 @@
+package com;
+
+import com.numbers.AbstractNumber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The distinct vertices of a range of consecutive trapezoids.
+ *
+ * Vertex 3 of each trapezoid is vertex 0 of the next one, and the walk
+ * comes back to many lattice points, so a range has far fewer distinct
+ * vertices than four per trapezoid. Each distinct vertex gets an id, in
+ * the order of first appearance, with the indices of the trapezoids that
+ * have it as a vertex.
+ *
+ * Vertices are told apart by their lattice coordinates in the
+ * com.TrapezoidStore that the trapezoids were made from, not by the
+ * equality of their points, which is only approximate in some number
+ * systems.
+ */
+final class VertexPool<T extends AbstractNumber<T>> {
+    private final int minIndex;
+    private final List<Point<T>> points = new ArrayList<>();
+    // touching[id][0..touchingCounts[id]) are the trapezoids with the vertex.
+    private int[][] touching = new int[16][];
+    private int[] touchingCounts = new int[16];
+    // vertexIds[4 * (i - minIndex) + v] is the id of vertex v of trapezoid i.
+    private final int[] vertexIds;
+
+    /**
+     * Pool the vertices of the trapezoids of a store with indices from
+     * minIndex to maxIndex, in the number system of a start point.
+     */
+    VertexPool(TrapezoidStore store, Point<T> startPoint, int minIndex, int maxIndex) {
+        this.minIndex = minIndex;
+        vertexIds = new int[4 * (maxIndex - minIndex + 1)];
+        HashMap<Long, Integer> ids = new HashMap<>();
+        for (int k=0; k<=maxIndex - minIndex; k++) {
+            for (int v=0; v<4; v++) {
+                int x = store.vertexX(minIndex + k, v), y = store.vertexY(minIndex + k, v);
+                long key = LatticeHull.pack(x, y);
+                Integer id = ids.get(key);
+                if (id == null) {
+                    id = points.size();
+                    ids.put(key, id);
+                    points.add(TrapezoidStore.point(x, y, startPoint));
+                    if (id == touching.length) {
+                        touching = Arrays.copyOf(touching, 2 * id);
+                        touchingCounts = Arrays.copyOf(touchingCounts, 2 * id);
+                    }
+                    touching[id] = new int[2];
+                }
+                vertexIds[4 * k + v] = id;
+                addTouching(id, minIndex + k);
+            }
+        }
+    }
+
+    private void addTouching(int id, int trapezoidIndex) {
+        int count = touchingCounts[id];
+        // A trapezoid with a repeated vertex touches it only once.
+        if (count > 0 && touching[id][count - 1] == trapezoidIndex)
+            return;
+        if (count == touching[id].length)
+            touching[id] = Arrays.copyOf(touching[id], 2 * count);
+        touching[id][count] = trapezoidIndex;
+        touchingCounts[id]++;
+    }
+
+    /**
+     * @return the number of distinct vertices.
+     */
+    int size() {
+        return points.size();
+    }
+
+    Point<T> point(int id) {
+        return points.get(id);
+    }
+
+    /**
+     * Get the id of vertex v of the trapezoid at an index.
+     */
+    int id(int trapezoidIndex, int v) {
+        return vertexIds[4 * (trapezoidIndex - minIndex) + v];
+    }
+
+    /**
+     * @return the number of trapezoids that have the vertex.
+     */
+    int touchingCount(int id) {
+        return touchingCounts[id];
+    }
+
+    /**
+     * Get the indices of the trapezoids that have the vertex, in increasing
+     * order.
+     */
+    int touchingTrapezoid(int id, int k) {
+        return touching[id][k];
+    }
+}
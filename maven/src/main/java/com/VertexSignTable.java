@@ -0,0 +1,115 @@
+package com;
+
+import com.numbers.AbstractNumber;
+import com.numbers.DoubleRep;
+import com.numbers.RobustPredicates;
+
+
+/**
+ * The side of a line that each distinct vertex of a range of trapezoids is
+ * on, for classifying the trapezoids as intersected by the line or not.
+ *
+ * Adjacent trapezoids share vertices, so each distinct vertex gets an id
+ * and its sign is computed at most once per line. Signs are computed when
+ * a trapezoid first needs them, so that a trapezoid is found to be
+ * intersected from as few vertices as possible. Robust com.numbers.DoubleRep
+ * vertices are packed into arrays of doubles for com.numbers.RobustPredicates,
+ * and the rest use com.Orientation.
+ *
+ * Sequences on the lattice of com.TrapezoidStore use com.TrapezoidBvh
+ * instead, which skips the blocks of trapezoids that a line misses.
+ */
+final class VertexSignTable<T extends AbstractNumber<T>> {
+    private final int minIndex;
+    // vertexIds[4 * (i - minIndex) + v] is the id of vertex v of trapezoid i.
+    private final int[] vertexIds;
+    // The vertices as doubles, if they are robust com.numbers.DoubleRep values.
+    private double[] xs, ys;
+    private VertexPool<T> pool;
+    // signs[id] is the sign of the vertex for the current line iff stamps[id] == stamp.
+    private final int[] signs;
+    private final int[] stamps;
+    private int stamp;
+    private int lineId1, lineId2;
+
+    private VertexSignTable(int minIndex, int[] vertexIds, int nIds) {
+        this.minIndex = minIndex;
+        this.vertexIds = vertexIds;
+        signs = new int[nIds];
+        stamps = new int[nIds];
+    }
+
+    /**
+     * Make the table for the trapezoids of a store with indices from
+     * minIndex to maxIndex, in the number system of a start point.
+     */
+    static <T extends AbstractNumber<T>> VertexSignTable<T> of(
+            TrapezoidStore store, Point<T> startPoint, int minIndex, int maxIndex) {
+        VertexPool<T> pool = new VertexPool<>(store, startPoint, minIndex, maxIndex);
+        int[] vertexIds = new int[4 * (maxIndex - minIndex + 1)];
+        for (int trapIndex=minIndex; trapIndex<=maxIndex; trapIndex++) {
+            for (int v=0; v<4; v++)
+                vertexIds[4 * (trapIndex - minIndex) + v] = pool.id(trapIndex, v);
+        }
+        VertexSignTable<T> table = new VertexSignTable<>(minIndex, vertexIds, pool.size());
+        table.pack(pool);
+        return table;
+    }
+
+    /**
+     * Pack the vertices of a pool into arrays of doubles if they are robust
+     * com.numbers.DoubleRep values, or keep the pool otherwise.
+     */
+    private void pack(VertexPool<T> pool) {
+        int n = pool.size();
+        if (n > 0 && pool.point(0).x instanceof DoubleRep x && x.isRobust()) {
+            xs = new double[n];
+            ys = new double[n];
+            for (int id=0; id<n; id++) {
+                xs[id] = pool.point(id).x.toDouble();
+                ys[id] = pool.point(id).y.toDouble();
+            }
+        } else {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * Get the id of vertex v of the trapezoid at an index.
+     */
+    int id(int trapIndex, int v) {
+        return vertexIds[4 * (trapIndex - minIndex) + v];
+    }
+
+    /**
+     * Start classifying the vertices against the line through the vertices
+     * with ids a and b.
+     */
+    void setLine(int a, int b) {
+        lineId1 = a;
+        lineId2 = b;
+        stamp++;
+    }
+
+    /**
+     * Determine if the line of the last call to setLine intersects a
+     * trapezoid. It does unless all of the vertices are strictly on the
+     * same side of the line.
+     */
+    boolean intersectsLine(int trapIndex) {
+        int index = 4 * (trapIndex - minIndex);
+        int side = sign(vertexIds[index]);
+        return side == 0 || sign(vertexIds[index + 1]) != side
+                || sign(vertexIds[index + 2]) != side || sign(vertexIds[index + 3]) != side;
+    }
+
+    private int sign(int id) {
+        if (stamps[id] != stamp) {
+            signs[id] = xs != null
+                    ? RobustPredicates.orient2d(xs[lineId1], ys[lineId1], xs[lineId2], ys[lineId2], xs[id], ys[id])
+                    : Orientation.sign(pool.point(lineId1), pool.point(lineId2), pool.point(id));
+            stamps[id] = stamp;
+        }
+        return signs[id];
+    }
+}
@@ -1,10 +1,14 @@
 package com.commands;
 
+import com.IntervalDistanceAssertion;
+import com.LatticeDistanceEngine;
 import com.Point;
 import com.TrapezoidSequence;
+import com.numbers.AbstractNumber;
+import com.numbers.HybridWholeAndRt3;
+import com.numbers.Rt3Rational;
 import com.numbers.WholeAndRt3;
 import com.numbers.DoubleRep;
-import com.numbers.Fraction;
 
 /**
  * Assert that the ratio for the largest distance squared between two trapezoids
@@ -32,78 +36,109 @@ public class AssertBoundedMaxDistance {
             int gapMin = Integer.parseInt(args[0]);
             int gapMax = Integer.parseInt(args[1]);
             String numberSystem = args[2];
-            if (!numberSystem.equals("wholeAndRt3") && !numberSystem.equals("double")) {
+            if (!isExactNumberSystem(numberSystem) && !isDoubleNumberSystem(numberSystem)) {
                 printHelp();
                 return;
             }
-            if (numberSystem.equals("wholeAndRt3") && args.length != 5) {
+            if (isExactNumberSystem(numberSystem) && args.length != 5) {
                 printHelp();
                 return;
             }
-            if (numberSystem.equals("double") && args.length != 4) {
+            if (isDoubleNumberSystem(numberSystem) && args.length != 4) {
                 printHelp();
                 return;
             }
             if (numberSystem.equals("wholeAndRt3")) {
-                Fraction<WholeAndRt3> upperBound = new Fraction<>(
-                        new WholeAndRt3(Long.parseLong(args[3]), Long.parseLong(args[4])),
-                        new WholeAndRt3(1, 0)
-                );
-                Point<Fraction<WholeAndRt3>> zeroPoint = new Point<>(
-                        new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE),
-                        new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE)
-                );
-                TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = new TrapezoidSequence<>(1, zeroPoint);
-                int lastNewRelativePositioningIndex = trapSeq.indexOfLastNewRelativePositioning(gapMax + 1);
-                boolean belowBound = trapSeq.assertBoundedMaxDistance(
-                        gapMin, gapMax, 0, lastNewRelativePositioningIndex, upperBound
-                );
-                if (belowBound) {
-                    System.out.println("SUCCESS");
-                    System.out.printf(
-                            "The ratio of the largest distance to index gap between \n" +
-                            "trapezoids separated by at least %d indices and at most %d indices\n" +
-                            "is less than %s\n", gapMin, gapMax, upperBound
-                    );
-                } else {
-                    System.out.println("FAILURE");
-                    System.out.printf(
-                            "The ratio of the largest distance to index gap between \n" +
-                            "trapezoids separated by at least %d indices and at most %d indices\n" +
-                            "is not less than %s\n", gapMin, gapMax, upperBound
-                    );
-                }
+                assertBound(gapMin, gapMax,
+                        new WholeAndRt3(Long.parseLong(args[3]), Long.parseLong(args[4])));
+            } else if (numberSystem.equals("hybridWholeAndRt3")) {
+                assertBound(gapMin, gapMax,
+                        new HybridWholeAndRt3(Long.parseLong(args[3]), Long.parseLong(args[4])));
+            } else if (numberSystem.equals("interval")) {
+                assertInterval(gapMin, gapMax,
+                        new WholeAndRt3(Long.parseLong(args[3]), Long.parseLong(args[4])));
+            } else if (numberSystem.equals("lattice")) {
+                assertLattice(gapMin, gapMax,
+                        new HybridWholeAndRt3(Long.parseLong(args[3]), Long.parseLong(args[4])));
+            } else if (numberSystem.equals("rt3Rational")) {
+                assertBound(gapMin, gapMax,
+                        new Rt3Rational(Long.parseLong(args[3]), Long.parseLong(args[4])));
             } else {
-                DoubleRep upperBound = new DoubleRep(Double.parseDouble(args[3]));
-                Point<DoubleRep> zeroPoint = new Point<>(new DoubleRep(0), new DoubleRep(0));
-                TrapezoidSequence<DoubleRep> trapSeq = new TrapezoidSequence<>(1, zeroPoint);
-                int lastNewRelativePositioningIndex = trapSeq.indexOfLastNewRelativePositioning(gapMax+1);
-                boolean belowBound = trapSeq.assertBoundedMaxDistance(gapMin, gapMax, 0, lastNewRelativePositioningIndex, upperBound);
-                if (belowBound) {
-                    System.out.println("SUCCESS");
-                    System.out.printf(
-                            "The ratio of the largest distance to index gap between \n" +
-                            "trapezoids separated by at least %d indices and at most %d indices\n" +
-                            "is less than %s\n", gapMin, gapMax, upperBound
-                    );
-                } else {
-                    System.out.println("FAILURE");
-                    System.out.printf(
-                            "The ratio of the largest distance to index gap between \n" +
-                            "trapezoids separated by at least %d indices and at most %d indices\n" +
-                            "is not less than %s\n", gapMin, gapMax, upperBound
-                    );
-                }
+                assertBound(gapMin, gapMax, new DoubleRep(Double.parseDouble(args[3])));
             }
         } catch (NumberFormatException e) {
             printHelp();
         }
     }
+    private static void assertInterval(int gapMin, int gapMax, WholeAndRt3 upperBound) {
+        IntervalDistanceAssertion assertion = new IntervalDistanceAssertion(1);
+        int lastNewRelativePositioningIndex = assertion.indexOfLastNewRelativePositioning(gapMax + 1);
+        boolean belowBound = assertion.assertBoundedMaxDistance(
+                gapMin, gapMax, 0, lastNewRelativePositioningIndex, upperBound
+        );
+        System.out.printf("Evaluated %d of %d distances exactly.\n",
+                assertion.getEscalations(), assertion.getEvaluations());
+        printResult(belowBound, gapMin, gapMax, upperBound);
+    }
+
+    private static void assertLattice(int gapMin, int gapMax, HybridWholeAndRt3 upperBound) {
+        TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(
+                1, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        int lastNewRelativePositioningIndex = trapSeq.indexOfLastNewRelativePositioning(gapMax + 1);
+        LatticeDistanceEngine engine = new LatticeDistanceEngine(lastNewRelativePositioningIndex + gapMax + 2);
+        boolean belowBound = engine.assertBoundedMaxDistance(
+                gapMin, gapMax, 0, lastNewRelativePositioningIndex, upperBound
+        );
+        printResult(belowBound, gapMin, gapMax, upperBound);
+    }
+
+    private static <T extends AbstractNumber<T>> void assertBound(int gapMin, int gapMax, T upperBound) {
+        Point<T> zeroPoint = new Point<>(upperBound.whole(0), upperBound.whole(0));
+        TrapezoidSequence<T> trapSeq = new TrapezoidSequence<>(1, zeroPoint);
+        int lastNewRelativePositioningIndex = trapSeq.indexOfLastNewRelativePositioning(gapMax + 1);
+        boolean belowBound = trapSeq.assertBoundedMaxDistance(
+                gapMin, gapMax, 0, lastNewRelativePositioningIndex, upperBound
+        );
+        printResult(belowBound, gapMin, gapMax, upperBound);
+    }
+
+    private static void printResult(boolean belowBound, int gapMin, int gapMax, Object upperBound) {
+        if (belowBound) {
+            System.out.println("SUCCESS");
+            System.out.printf(
+                    "The ratio of the largest distance to index gap between \n" +
+                    "trapezoids separated by at least %d indices and at most %d indices\n" +
+                    "is less than %s\n", gapMin, gapMax, upperBound
+            );
+        } else {
+            System.out.println("FAILURE");
+            System.out.printf(
+                    "The ratio of the largest distance to index gap between \n" +
+                    "trapezoids separated by at least %d indices and at most %d indices\n" +
+                    "is not less than %s\n", gapMin, gapMax, upperBound
+            );
+        }
+    }
+
+    private static boolean isExactNumberSystem(String numberSystem) {
+        return numberSystem.equals("wholeAndRt3") || numberSystem.equals("hybridWholeAndRt3")
+                || numberSystem.equals("rt3Rational") || numberSystem.equals("interval")
+                || numberSystem.equals("lattice");
+    }
+
+    private static boolean isDoubleNumberSystem(String numberSystem) {
+        return numberSystem.equals("double");
+    }
+
     private static void printHelp() {
         System.out.println("Usage:");
-        System.out.println("\tjava com.commands.AssertBoundedMaxDistance min_gap max_gap (\"wholeAndRt3\" ones rt3)|(\"double\" value)");
+        System.out.println("\tjava com.commands.AssertBoundedMaxDistance min_gap max_gap (\"wholeAndRt3\"|\"hybridWholeAndRt3\"|\"rt3Rational\"|\"interval\"|\"lattice\" ones rt3)|(\"double\" value)");
         System.out.println("Examples:");
         System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 wholeAndRt3 9 0");
+        System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 hybridWholeAndRt3 9 0");
+        System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 rt3Rational 9 0");
+        System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 interval 9 0");
+        System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 lattice 9 0");
         System.out.println("java com.commands.AssertBoundedMaxDistance 7 48 double 4.44");
     }
 
@@ -1,9 +1,17 @@
 package com.commands;
 
 import com.Interval;
+import com.LatticeCollinearityEngine;
 import com.Point;
 import com.TrapezoidIntersectionPair;
 import com.TrapezoidSequence;
+import com.TrapezoidStore;
+import com.numbers.AbstractNumber;
+import com.numbers.FilteredWholeAndRt3;
+import com.numbers.HybridWholeAndRt3;
+import com.numbers.Int128;
+import com.numbers.Int128AndRt3;
+import com.numbers.LongRational;
 import com.numbers.WholeAndRt3;
 import com.numbers.WholeNumber;
 
@@ -23,56 +31,22 @@ public class CountCollinearTrapezoids {
         try {
             int maxIndexGap = Integer.parseInt(args[0]);
             String numberSystem = args[1];
-            if (numberSystem.equals("wholeAndRt3")) {
-                Point<WholeAndRt3> zeroPoint = new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO);
-                TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(2, zeroPoint);
-                Interval[] searchIntervals = trapSeq.getCollinearSearchIntervals(maxIndexGap);
-                System.out.printf("Intervals to search: %s.\n", Arrays.toString(searchIntervals));
-                TrapezoidIntersectionPair<WholeAndRt3> bestIntersectionPair = null;
-                for (Interval searchInterval: searchIntervals) {
-                    TrapezoidIntersectionPair<WholeAndRt3> intervalBestIntersectionPair = trapSeq.radialSweepCountCollinear(
-                            searchInterval.getLo(), searchInterval.getHi(), maxIndexGap
-                    );
-                    if (bestIntersectionPair == null || intervalBestIntersectionPair.numTrapezoidsIntersected > bestIntersectionPair.numTrapezoidsIntersected) {
-                        bestIntersectionPair = intervalBestIntersectionPair;
-                    }
-                }
-                System.out.printf(
-                        "The largest number of trapezoids separated by at most %d indices that\n" +
-                        "are intersected by a single straight line is %d.\n" +
-                        "The intersection is through trapezoids %d and %d (0-based indexing) at points\n" +
-                        "%s and %s.\n",
-                        maxIndexGap, bestIntersectionPair.numTrapezoidsIntersected,
-                        bestIntersectionPair.trapezoidIndex1,
-                        bestIntersectionPair.trapezoidIndex2,
-                        bestIntersectionPair.p1,
-                        bestIntersectionPair.p2
-                );
+            if (numberSystem.equals("lattice")) {
+                countCollinearOnLattice(maxIndexGap);
+            } else if (numberSystem.equals("wholeAndRt3")) {
+                countCollinear(maxIndexGap, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+            } else if (numberSystem.equals("filteredWholeAndRt3")) {
+                countCollinear(maxIndexGap, new Point<>(FilteredWholeAndRt3.ZERO, FilteredWholeAndRt3.ZERO));
+            } else if (numberSystem.equals("hybridWholeAndRt3")) {
+                countCollinear(maxIndexGap, new Point<>(HybridWholeAndRt3.ZERO, HybridWholeAndRt3.ZERO));
+            } else if (numberSystem.equals("int128AndRt3")) {
+                countCollinear(maxIndexGap, new Point<>(Int128AndRt3.ZERO, Int128AndRt3.ZERO));
             } else if (numberSystem.equals("wholeNumber")) {
-                Point<WholeNumber> zeroPoint = new Point<>(WholeNumber.ZERO, WholeNumber.ZERO);
-                TrapezoidSequence<WholeNumber> trapSeq = new TrapezoidSequence<>(2, zeroPoint);
-                Interval[] searchIntervals = trapSeq.getCollinearSearchIntervals(maxIndexGap);
-                System.out.printf("Intervals to search: %s.\n", Arrays.toString(searchIntervals));
-                TrapezoidIntersectionPair<WholeNumber> bestIntersectionPair = null;
-                for (Interval searchInterval: searchIntervals) {
-                    TrapezoidIntersectionPair<WholeNumber> intervalBestIntersectionPair = trapSeq.radialSweepCountCollinear(
-                            searchInterval.getLo(), searchInterval.getHi(), maxIndexGap
-                    );
-                    if (bestIntersectionPair == null || intervalBestIntersectionPair.numTrapezoidsIntersected > bestIntersectionPair.numTrapezoidsIntersected) {
-                        bestIntersectionPair = intervalBestIntersectionPair;
-                    }
-                }
-                System.out.printf(
-                        "The largest number of trapezoids separated by at most %d indices that\n" +
-                                "are intersected by a single straight line is %d.\n" +
-                                "The intersection is through trapezoids %d and %d (0-based indexing) at points\n" +
-                                "%s and %s.\n",
-                        maxIndexGap, bestIntersectionPair.numTrapezoidsIntersected,
-                        bestIntersectionPair.trapezoidIndex1,
-                        bestIntersectionPair.trapezoidIndex2,
-                        bestIntersectionPair.p1,
-                        bestIntersectionPair.p2
-                );
+                countCollinear(maxIndexGap, new Point<>(WholeNumber.ZERO, WholeNumber.ZERO));
+            } else if (numberSystem.equals("int128")) {
+                countCollinear(maxIndexGap, new Point<>(Int128.ZERO, Int128.ZERO));
+            } else if (numberSystem.equals("longRational")) {
+                countCollinear(maxIndexGap, new Point<>(LongRational.ZERO, LongRational.ZERO));
             } else {
                 printHelp();
                 return;
@@ -82,12 +56,67 @@ public class CountCollinearTrapezoids {
         }
 
     }
+    /**
+     * Interface for a radial sweep over an interval of indices.
+     */
+    private interface IntervalSweep<T extends AbstractNumber<T>> {
+        TrapezoidIntersectionPair<T> radialSweepCountCollinear(int minIndex, int maxIndex, int maxIndexDiff);
+    }
+
+    private static <T extends AbstractNumber<T>> void countCollinear(int maxIndexGap, Point<T> zeroPoint) {
+        TrapezoidSequence<T> trapSeq = new TrapezoidSequence<>(2, zeroPoint);
+        countCollinear(maxIndexGap, trapSeq.getCollinearSearchIntervals(maxIndexGap), trapSeq::radialSweepCountCollinear);
+    }
+
+    private static void countCollinearOnLattice(int maxIndexGap) {
+        TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(
+                2, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        Interval[] searchIntervals = trapSeq.getCollinearSearchIntervals(maxIndexGap);
+        int nTrapezoids = 0;
+        for (Interval searchInterval: searchIntervals) {
+            nTrapezoids = Math.max(nTrapezoids, searchInterval.getHi() + 1);
+        }
+        LatticeCollinearityEngine engine = new LatticeCollinearityEngine(new TrapezoidStore(nTrapezoids));
+        countCollinear(maxIndexGap, searchIntervals, engine::radialSweepCountCollinear);
+    }
+
+    private static <T extends AbstractNumber<T>> void countCollinear(
+            int maxIndexGap, Interval[] searchIntervals, IntervalSweep<T> sweep) {
+        System.out.printf("Intervals to search: %s.\n", Arrays.toString(searchIntervals));
+        TrapezoidIntersectionPair<T> bestIntersectionPair = null;
+        for (Interval searchInterval: searchIntervals) {
+            TrapezoidIntersectionPair<T> intervalBestIntersectionPair = sweep.radialSweepCountCollinear(
+                    searchInterval.getLo(), searchInterval.getHi(), maxIndexGap
+            );
+            if (bestIntersectionPair == null || intervalBestIntersectionPair.numTrapezoidsIntersected > bestIntersectionPair.numTrapezoidsIntersected) {
+                bestIntersectionPair = intervalBestIntersectionPair;
+            }
+        }
+        System.out.printf(
+                "The largest number of trapezoids separated by at most %d indices that\n" +
+                "are intersected by a single straight line is %d.\n" +
+                "The intersection is through trapezoids %d and %d (0-based indexing) at points\n" +
+                "%s and %s.\n",
+                maxIndexGap, bestIntersectionPair.numTrapezoidsIntersected,
+                bestIntersectionPair.trapezoidIndex1,
+                bestIntersectionPair.trapezoidIndex2,
+                bestIntersectionPair.p1,
+                bestIntersectionPair.p2
+        );
+    }
+
     private static void printHelp() {
         System.out.println("Usage:");
-        System.out.println("\tjava com.commands.CountCollinearTrapezoids maxIndexGap \"wholeAndRt3\"|\"wholeNumber\"");
+        System.out.println("\tjava com.commands.CountCollinearTrapezoids maxIndexGap \"lattice\"|\"wholeAndRt3\"|\"filteredWholeAndRt3\"|\"hybridWholeAndRt3\"|\"int128AndRt3\"|\"wholeNumber\"|\"int128\"|\"longRational\"");
         System.out.println("Examples:");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 lattice");
         System.out.println("java com.commands.CountCollinearTrapezoids 7 wholeAndRt3");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 filteredWholeAndRt3");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 hybridWholeAndRt3");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 int128AndRt3");
         System.out.println("java com.commands.CountCollinearTrapezoids 7 wholeNumber");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 int128");
+        System.out.println("java com.commands.CountCollinearTrapezoids 7 longRational");
     }
 
     private static boolean isHelpArgument(String str) {
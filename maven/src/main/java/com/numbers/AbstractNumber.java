@@ -15,4 +15,76 @@ public abstract class AbstractNumber<T> implements Comparable<T>, Arithmetic<T>,
     public abstract double toDouble();
     public abstract String toString();
     public abstract boolean equals(Object o);
+
+    /**
+     * Get a 64-bit hash of this number that is consistent with equals.
+     *
+     * Equal numbers have equal fingerprints, so fingerprints can be used as
+     * primitive keys for deduplicating geometry, with equals to confirm a
+     * match.
+     */
+    public abstract long fingerprint();
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+
+    /**
+     * Get the image of this number under the automorphism that maps sqrt(3)
+     * to -sqrt(3).
+     *
+     * The product of a number and its conjugate has no sqrt(3) part, which
+     * is used to give com.numbers.Fraction a unique canonical form. Number
+     * systems without a sqrt(3) part are their own conjugate.
+     */
+    @SuppressWarnings("unchecked")
+    public T conjugate() {
+        return (T) this;
+    }
+
+    /**
+     * Get the smaller of this number and another.
+     *
+     * Number systems that cannot always decide comparisons, such as
+     * com.numbers.DoubleInterval, override this to return a value that
+     * encloses the smaller number without comparing.
+     */
+    @SuppressWarnings("unchecked")
+    public T min(T other) {
+        return compareTo(other) <= 0 ? (T) this : other;
+    }
+
+    /**
+     * Get the larger of this number and another, as for min.
+     */
+    @SuppressWarnings("unchecked")
+    public T max(T other) {
+        return compareTo(other) >= 0 ? (T) this : other;
+    }
+
+    /**
+     * Get a number that encloses both this number and another.
+     *
+     * This is used to bound a value that lies between two computed values
+     * when a comparison could not decide which formula applies. Number
+     * systems that throw an com.numbers.IndeterminateComparisonException
+     * override it with a value that encloses both. Exact number systems
+     * always decide such comparisons, and by default get the larger of
+     * the two numbers, which bounds the value from above.
+     */
+    public T hull(T other) {
+        return max(other);
+    }
+
+    /**
+     * Get a bound on the number of bits needed to represent this number.
+     *
+     * This is used to decide when it is worth reducing intermediate
+     * results. Number systems that have no notion of exact size return 0.
+     * @return the number of bits in the largest integer component.
+     */
+    public int magnitudeBits() {
+        return 0;
+    }
 }
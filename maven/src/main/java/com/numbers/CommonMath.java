@@ -5,16 +5,74 @@ public class CommonMath {
      * Get the greatest common divisor of a and b.
      *
      * If either of a and b are negative, treat them as if they are positive.
+     * This uses the iterative binary GCD algorithm, which only needs shifts
+     * and subtractions. As with negation, the greatest common divisor of
+     * Long.MIN_VALUE and 0 or Long.MIN_VALUE is Long.MIN_VALUE.
      * @param a: the first value.
      * @param b: the second value.
      * @return The greatest common divisor of the given values.
      */
     public static long gcd(long a, long b) {
-        if (a < 0)
-            a *= -1;
-        if (b < 0)
-            b *= -1;
-        return (b == 0) ? a : gcd(b, a%b);
+        // Long.MIN_VALUE stays negative here, but is handled correctly as
+        // the unsigned value 2^63 by the unsigned shifts below.
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        while (b != 0) {
+            b >>>= Long.numberOfTrailingZeros(b);
+            // Both a and b are odd, so they are less than 2^63.
+            if (a > b) {
+                long tmp = a;
+                a = b;
+                b = tmp;
+            }
+            b -= a;
+        }
+        return a << shift;
+    }
+
+    /**
+     * Compare a * b with c * d exactly.
+     *
+     * The products are compared as 128-bit values, with the high words
+     * compared as signed values and the low words as unsigned values.
+     */
+    public static int compareProducts(long a, long b, long c, long d) {
+        long hi1 = Math.multiplyHigh(a, b);
+        long hi2 = Math.multiplyHigh(c, d);
+        if (hi1 != hi2)
+            return Long.compare(hi1, hi2);
+        return Long.compareUnsigned(a * b, c * d);
+    }
+
+    /**
+     * Mix a value into a 64-bit fingerprint.
+     *
+     * This uses the SplitMix64 finalizer, so that small and structured
+     * values such as lattice coordinates spread over all of the bits.
+     * @param seed: the fingerprint of the preceding values.
+     * @param value: the value to mix in.
+     * @return the combined fingerprint.
+     */
+    public static long fingerprint(long seed, long value) {
+        long z = seed * 0x9E3779B97F4A7C15L + value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the number of bits needed to represent the magnitude of a.
+     * @param a: the value.
+     * @return the position of the highest set bit of |a|, or 0 if a is 0.
+     */
+    public static int magnitudeBits(long a) {
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.abs(a));
     }
 
     /**
@@ -63,4 +121,20 @@ public class CommonMath {
     public static Fraction<WholeNumber> nextRt3Approximation(Fraction<WholeNumber> frac) {
         return frac.add(frac.one()).reciprocal().multiply(frac.two()).add(frac.one());
     }
+
+    /**
+     * Get the same approximation of sqrt(3) as approximateRt3, as a
+     * com.numbers.LongRational.
+     */
+    public static LongRational approximateRt3Rational(int iterations) {
+        LongRational approximation = new LongRational(2);
+        for (int i=0; i<iterations; i++) {
+            approximation = nextRt3Approximation(approximation);
+        }
+        return approximation;
+    }
+
+    public static LongRational nextRt3Approximation(LongRational frac) {
+        return frac.add(frac.one()).reciprocal().multiply(frac.two()).add(frac.one());
+    }
 }
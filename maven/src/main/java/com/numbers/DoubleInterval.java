@@ -0,0 +1,326 @@
+package com.numbers;
+
+/**
+ * Class for rigorously enclosing real numbers in intervals
+ *      [lo, hi]
+ * where lo and hi are doubles.
+ *
+ * Every operation rounds the lower end point down and the upper end point
+ * up, so the result always contains the exact result of the operation on
+ * any values contained in the operands. Java has no directed rounding
+ * modes, so each end point is computed with the default rounding and then
+ * moved by one ulp only if the rounding error, which is recovered exactly
+ * with the TwoSum algorithm or with Math.fma, went the wrong way. Results
+ * that are exact, such as sums of small integers, stay exact.
+ *
+ * Comparisons that the intervals cannot decide throw an
+ * com.numbers.IndeterminateComparisonException, so a computation either
+ * gets the same answer as exact arithmetic or fails loudly.
+ */
+public class DoubleInterval extends AbstractNumber<DoubleInterval> {
+    private static final String INDETERMINATE_ERROR =
+            "Cannot compare %s with %s.";
+    public static final DoubleInterval ZERO = new DoubleInterval(0);
+    public static final DoubleInterval ONE = new DoubleInterval(1);
+    private static final DoubleInterval TWO = new DoubleInterval(2);
+    private static final DoubleInterval THREE = new DoubleInterval(3);
+    private static final DoubleInterval FOUR = new DoubleInterval(4);
+    private static final DoubleInterval FIVE = new DoubleInterval(5);
+    private static final DoubleInterval SIX = new DoubleInterval(6);
+    private static final DoubleInterval RT3 = sqrt(3);
+    private static final DoubleInterval TWO_RT3 = RT3.multiply(TWO);
+    private static final DoubleInterval THREE_RT3 = RT3.multiply(THREE);
+
+    final double lo;
+    final double hi;
+
+    public DoubleInterval(double lo, double hi) {
+        if (!(lo <= hi))
+            throw new IllegalArgumentException(String.format("Invalid interval [%s, %s].", lo, hi));
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    public DoubleInterval(double value) {
+        this(value, value);
+    }
+
+    /**
+     * Get the smallest interval containing the given whole number.
+     */
+    public static DoubleInterval valueOf(long value) {
+        double rounded = (double) value;
+        // (long) 2^63 saturates to Long.MAX_VALUE, so compare as doubles too.
+        if (rounded != 0x1p63 && (long) rounded == value)
+            return new DoubleInterval(rounded);
+        return new DoubleInterval(Math.nextDown(rounded), Math.nextUp(rounded));
+    }
+
+    /**
+     * Get the smallest interval containing ones + rt3 * sqrt(3).
+     */
+    public static DoubleInterval valueOf(WholeAndRt3 value) {
+        return valueOf(value.ones).add(RT3.multiply(valueOf(value.rt3)));
+    }
+
+    /**
+     * Get a tight interval containing the square root of a whole number.
+     */
+    private static DoubleInterval sqrt(long value) {
+        double root = Math.sqrt(value);
+        // Math.sqrt is correctly rounded, and root^2 - value is exact here.
+        double error = Math.fma(root, root, -value);
+        if (error == 0)
+            return new DoubleInterval(root);
+        return error > 0
+                ? new DoubleInterval(Math.nextDown(root), root)
+                : new DoubleInterval(root, Math.nextUp(root));
+    }
+
+    public double getLo() {
+        return lo;
+    }
+
+    public double getHi() {
+        return hi;
+    }
+
+    public DoubleInterval whole(long wholeValue) {
+        return valueOf(wholeValue);
+    }
+
+    /**
+     * Round a result down, where error has the sign of the exact value
+     * minus the rounded result.
+     */
+    private static double down(double result, double error) {
+        return error < 0 ? Math.nextDown(result) : result;
+    }
+
+    private static double up(double result, double error) {
+        return error > 0 ? Math.nextUp(result) : result;
+    }
+
+    /**
+     * Get the exact error of a + b with the TwoSum algorithm.
+     */
+    private static double sumError(double a, double b, double sum) {
+        if (Double.isInfinite(sum))
+            return 0;
+        double bVirtual = sum - a;
+        return (a - (sum - bVirtual)) + (b - bVirtual);
+    }
+
+    private static double productError(double a, double b, double product) {
+        if (Double.isInfinite(product))
+            return 0;
+        if (product == 0)
+            return Math.signum(a) * Math.signum(b);
+        return Math.fma(a, b, -product);
+    }
+
+    /**
+     * Get a value with the sign of the error of the quotient a / b.
+     *
+     * The remainder a - q * b of a correctly rounded quotient is exact.
+     */
+    private static double quotientError(double a, double b, double quotient) {
+        if (Double.isInfinite(quotient) || quotient == 0)
+            return 0;
+        double remainder = Math.fma(-quotient, b, a);
+        return b > 0 ? remainder : -remainder;
+    }
+
+    private static double addDown(double a, double b) {
+        double sum = a + b;
+        return down(sum, sumError(a, b, sum));
+    }
+
+    private static double addUp(double a, double b) {
+        double sum = a + b;
+        return up(sum, sumError(a, b, sum));
+    }
+
+    private static double multiplyDown(double a, double b) {
+        double product = a * b;
+        return down(product, productError(a, b, product));
+    }
+
+    private static double multiplyUp(double a, double b) {
+        double product = a * b;
+        return up(product, productError(a, b, product));
+    }
+
+    private static double divideDown(double a, double b) {
+        double quotient = a / b;
+        return down(quotient, quotientError(a, b, quotient));
+    }
+
+    private static double divideUp(double a, double b) {
+        double quotient = a / b;
+        return up(quotient, quotientError(a, b, quotient));
+    }
+
+    @Override
+    public DoubleInterval add(DoubleInterval summand) {
+        return new DoubleInterval(addDown(lo, summand.lo), addUp(hi, summand.hi));
+    }
+
+    @Override
+    public DoubleInterval subtract(DoubleInterval summand) {
+        return new DoubleInterval(addDown(lo, -summand.hi), addUp(hi, -summand.lo));
+    }
+
+    @Override
+    public DoubleInterval multiply(DoubleInterval scalar) {
+        if (lo == hi && scalar.lo == scalar.hi) {
+            return new DoubleInterval(multiplyDown(lo, scalar.lo), multiplyUp(lo, scalar.lo));
+        }
+        double resultLo = Math.min(
+                Math.min(multiplyDown(lo, scalar.lo), multiplyDown(lo, scalar.hi)),
+                Math.min(multiplyDown(hi, scalar.lo), multiplyDown(hi, scalar.hi)));
+        double resultHi = Math.max(
+                Math.max(multiplyUp(lo, scalar.lo), multiplyUp(lo, scalar.hi)),
+                Math.max(multiplyUp(hi, scalar.lo), multiplyUp(hi, scalar.hi)));
+        return new DoubleInterval(resultLo, resultHi);
+    }
+
+    /**
+     * Divide this com.numbers.DoubleInterval by another.
+     * @throws IndeterminateComparisonException if the divisor contains zero.
+     */
+    @Override
+    public DoubleInterval divide(DoubleInterval divisor) {
+        if (divisor.lo <= 0 && divisor.hi >= 0)
+            throw new IndeterminateComparisonException(
+                    String.format("Cannot divide %s by %s, which contains zero.", this, divisor));
+        double resultLo = Math.min(
+                Math.min(divideDown(lo, divisor.lo), divideDown(lo, divisor.hi)),
+                Math.min(divideDown(hi, divisor.lo), divideDown(hi, divisor.hi)));
+        double resultHi = Math.max(
+                Math.max(divideUp(lo, divisor.lo), divideUp(lo, divisor.hi)),
+                Math.max(divideUp(hi, divisor.lo), divideUp(hi, divisor.hi)));
+        return new DoubleInterval(resultLo, resultHi);
+    }
+
+    /**
+     * Get a common divisor of this com.numbers.DoubleInterval and another.
+     *
+     * As with com.numbers.Fraction, every nonzero value divides every other
+     * value, so this returns one unless both values are zero.
+     */
+    @Override
+    public DoubleInterval commonDivisor(DoubleInterval m2) {
+        if (equals(ZERO) && m2.equals(ZERO))
+            return this;
+        return ONE;
+    }
+
+    @Override
+    public DoubleInterval additiveInverse() {
+        return new DoubleInterval(-hi, -lo);
+    }
+
+    /**
+     * Get an interval containing the smaller of any two values contained
+     * in this interval and the other.
+     *
+     * This never throws, so taking the minimum of overlapping intervals does
+     * not force an exact computation.
+     */
+    @Override
+    public DoubleInterval min(DoubleInterval other) {
+        return new DoubleInterval(Math.min(lo, other.lo), Math.min(hi, other.hi));
+    }
+
+    @Override
+    public DoubleInterval max(DoubleInterval other) {
+        return new DoubleInterval(Math.max(lo, other.lo), Math.max(hi, other.hi));
+    }
+
+    @Override
+    public DoubleInterval hull(DoubleInterval other) {
+        return new DoubleInterval(Math.min(lo, other.lo), Math.max(hi, other.hi));
+    }
+
+    /**
+     * @throws IndeterminateComparisonException if the intervals overlap and
+     *  are not the same single value.
+     */
+    @Override
+    public int compareTo(DoubleInterval m2) {
+        if (hi < m2.lo)
+            return -1;
+        if (lo > m2.hi)
+            return 1;
+        if (lo == hi && m2.lo == m2.hi)
+            return 0;
+        throw new IndeterminateComparisonException(String.format(INDETERMINATE_ERROR, this, m2));
+    }
+
+    @Override
+    public int compareToZero() {
+        return compareTo(ZERO);
+    }
+
+    /**
+     * Intervals are equal iff they have the same end points.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleInterval interval2))
+            return false;
+        // Adding 0.0 maps -0.0 to 0.0.
+        return lo + 0.0 == interval2.lo + 0.0 && hi + 0.0 == interval2.hi + 0.0;
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(
+                CommonMath.fingerprint(2, Double.doubleToLongBits(lo + 0.0)),
+                Double.doubleToLongBits(hi + 0.0));
+    }
+
+    /**
+     * @return the midpoint of this interval.
+     */
+    @Override
+    public double toDouble() {
+        return lo / 2 + hi / 2;
+    }
+
+    @Override
+    public String toString() {
+        if (lo == hi)
+            return "" + lo;
+        return String.format("[%s, %s]", lo, hi);
+    }
+
+    public DoubleInterval one() {
+        return ONE;
+    }
+    public DoubleInterval two() {
+        return TWO;
+    }
+    public DoubleInterval three() {
+        return THREE;
+    }
+    public DoubleInterval four() {
+        return FOUR;
+    }
+    public DoubleInterval five() {
+        return FIVE;
+    }
+    public DoubleInterval six() {
+        return SIX;
+    }
+    public DoubleInterval rt3() {
+        return RT3;
+    }
+    public DoubleInterval twoRt3() {
+        return TWO_RT3;
+    }
+    public DoubleInterval threeRt3() {
+        return THREE_RT3;
+    }
+}
@@ -1,72 +1,146 @@
 package com.numbers;
 
+/**
+ * Class used as a wrapper around double.
+ *
+ * By default, values are compared with a fixed tolerance of EPS. Robust
+ * values instead compare exactly, and orientation tests on robust values
+ * are evaluated with the adaptive exact predicates in
+ * com.numbers.RobustPredicates. The result of an operation is robust if
+ * either operand is robust.
+ *
+ * Only the orientation tests are exact, and only for the doubles as
+ * given. Arithmetic on robust values is still rounded, so a robust
+ * comparison of computed values such as distances certifies nothing; for
+ * example a squared distance of 28 may compare below 28. The y
+ * coordinates of the trapezoid sequence are rounded multiples of sqrt(3)
+ * too, so points that are collinear in the plane are usually not
+ * collinear as doubles, and robust orientation tests on them do not
+ * certify collinearity counts either.
+ */
 public class DoubleRep extends AbstractNumber<DoubleRep> {
     private static final double EPS = 0.00000000001;
 
-    double value;
+    final double value;
+    final boolean robust;
 
     public DoubleRep(double value) {
+        this(value, false);
+    }
+
+    public DoubleRep(double value, boolean robust) {
         this.value = value;
+        this.robust = robust;
+    }
+
+    /**
+     * Make a robust com.numbers.DoubleRep.
+     * @param value: the value to wrap.
+     * @return a com.numbers.DoubleRep that compares exactly.
+     */
+    public static DoubleRep robust(double value) {
+        return new DoubleRep(value, true);
+    }
+
+    public boolean isRobust() {
+        return robust;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    private DoubleRep make(double result, DoubleRep n2) {
+        return new DoubleRep(result, robust || n2.robust);
+    }
+
+    private DoubleRep make(double result) {
+        return new DoubleRep(result, robust);
     }
 
     @Override
     public DoubleRep add(DoubleRep n2) {
-        return new DoubleRep(value + n2.value);
+        return make(value + n2.value, n2);
     }
 
     @Override
     public DoubleRep subtract(DoubleRep n2) {
-        return new DoubleRep(value - n2.value);
+        return make(value - n2.value, n2);
     }
 
     @Override
     public DoubleRep multiply(DoubleRep n2) {
-        return new DoubleRep(value * n2.value);
+        return make(value * n2.value, n2);
     }
 
     @Override
     public DoubleRep divide(DoubleRep n2) {
-        return new DoubleRep(value / n2.value);
+        return make(value / n2.value, n2);
     }
 
     public DoubleRep whole(long wholeValue) {
-        return new DoubleRep(wholeValue);
+        return make(wholeValue);
     }
 
     @Override
     public DoubleRep commonDivisor(DoubleRep n2) {
         if (value == (long) value && n2.value == (long) n2.value) {
-            return new DoubleRep(CommonMath.gcd((long) value, (long) n2.value));
+            return make(CommonMath.gcd((long) value, (long) n2.value), n2);
         }
         return one();
     }
 
     @Override
     public DoubleRep additiveInverse() {
-        return new DoubleRep(-value);
+        return make(-value);
     }
 
 
     @Override
     public int compareToZero() {
+        if (robust)
+            return (int) Math.signum(value);
         return compareTo(new DoubleRep(0));
     }
 
     @Override
     public int compareTo(DoubleRep o) {
+        if (robust || o.robust)
+            return Double.compare(value + 0.0, o.value + 0.0);
         if (Math.abs(value - o.value) < EPS)
             return 0;
         return Double.compare(value, o.value);
     }
 
+    /**
+     * Robust values are equal iff they are exactly equal. Other values are
+     * equal if they are within EPS of each other, and are never equal to a
+     * robust value.
+     */
     @Override
     public boolean equals(Object o) {
         if (o instanceof DoubleRep d2) {
+            if (robust != d2.robust)
+                return false;
+            if (robust)
+                return value == d2.value;
             return Math.abs(value - d2.value) < EPS;
         }
         return false;
     }
 
+    /**
+     * Tolerant equality is not transitive, so every value that is not
+     * robust has the same fingerprint. Only robust values hash usefully.
+     */
+    @Override
+    public long fingerprint() {
+        if (!robust)
+            return 0;
+        // Adding 0.0 maps -0.0 to 0.0, which compares equal to it.
+        return CommonMath.fingerprint(1, Double.doubleToLongBits(value + 0.0));
+    }
+
     @Override
     public double toDouble() {
         return value;
@@ -78,12 +152,12 @@ public class DoubleRep extends AbstractNumber<DoubleRep> {
     }
 
     public DoubleRep sqrt() {
-        return new DoubleRep(Math.sqrt(value));
+        return make(Math.sqrt(value));
     }
 
     @Override
     public DoubleRep one() {
-        return new DoubleRep(1);
+        return make(1);
     }
 
     @Override
@@ -113,7 +187,7 @@ public class DoubleRep extends AbstractNumber<DoubleRep> {
 
     @Override
     public DoubleRep rt3() {
-        return new DoubleRep(Math.sqrt(3));
+        return make(Math.sqrt(3));
     }
 
     @Override
@@ -0,0 +1,251 @@
+package com.numbers;
+
+/**
+ * Class for exact arithmetic on com.numbers of the form
+ *      a + b * sqrt(3)
+ * that answers comparisons with floating point whenever that is certain.
+ *
+ * Arithmetic is carried out on the exact com.numbers.WholeAndRt3 value
+ * alone. Only comparisons and orientation tests are filtered: they derive
+ * a double approximation of each operand together with a bound on its
+ * absolute error, and evaluate the predicate in double arithmetic with a
+ * propagated error bound. Only when the result is within the error bound
+ * of zero is the exact value consulted, so the answers are always the
+ * same as those of com.numbers.WholeAndRt3.
+ */
+public class FilteredWholeAndRt3 extends AbstractNumber<FilteredWholeAndRt3> {
+    private static final double RT3 = Math.sqrt(3);
+    // A bound on the relative rounding error of one double operation,
+    // doubled to absorb the second order terms of the error analysis.
+    private static final double EPS = Math.ulp(1.0);
+    public static final FilteredWholeAndRt3 ZERO = new FilteredWholeAndRt3(WholeAndRt3.ZERO);
+    public static final FilteredWholeAndRt3 ONE = new FilteredWholeAndRt3(WholeAndRt3.ONE);
+    private static final FilteredWholeAndRt3 TWO = new FilteredWholeAndRt3(2, 0);
+    private static final FilteredWholeAndRt3 THREE = new FilteredWholeAndRt3(3, 0);
+    private static final FilteredWholeAndRt3 FOUR = new FilteredWholeAndRt3(4, 0);
+    private static final FilteredWholeAndRt3 FIVE = new FilteredWholeAndRt3(5, 0);
+    private static final FilteredWholeAndRt3 SIX = new FilteredWholeAndRt3(6, 0);
+    private static final FilteredWholeAndRt3 RT3_VALUE = new FilteredWholeAndRt3(0, 1);
+    private static final FilteredWholeAndRt3 TWO_RT3 = new FilteredWholeAndRt3(0, 2);
+    private static final FilteredWholeAndRt3 THREE_RT3 = new FilteredWholeAndRt3(0, 3);
+
+    final WholeAndRt3 exact;
+
+    public FilteredWholeAndRt3(WholeAndRt3 exact) {
+        this.exact = exact;
+    }
+
+    public FilteredWholeAndRt3(long ones, long rt3) {
+        this(new WholeAndRt3(ones, rt3));
+    }
+
+    public WholeAndRt3 getExact() {
+        return exact;
+    }
+
+    public double getError() {
+        return error(approx());
+    }
+
+    private double approx() {
+        return Math.fma(RT3, exact.rt3, exact.ones);
+    }
+
+    /**
+     * Bound the absolute error of approx().
+     *
+     * Converting each part, rounding sqrt(3) and the fused multiply-add
+     * each contribute at most one rounding error.
+     */
+    private double error(double approx) {
+        return EPS * (Math.abs((double) exact.ones) + 2 * Math.abs((double) exact.rt3) + Math.abs(approx));
+    }
+
+    public FilteredWholeAndRt3 whole(long wholeValue) {
+        return new FilteredWholeAndRt3(wholeValue, 0);
+    }
+
+    @Override
+    public FilteredWholeAndRt3 add(FilteredWholeAndRt3 summand) {
+        return new FilteredWholeAndRt3(exact.add(summand.exact));
+    }
+
+    @Override
+    public FilteredWholeAndRt3 subtract(FilteredWholeAndRt3 summand) {
+        return new FilteredWholeAndRt3(exact.subtract(summand.exact));
+    }
+
+    @Override
+    public FilteredWholeAndRt3 additiveInverse() {
+        return new FilteredWholeAndRt3(exact.additiveInverse());
+    }
+
+    @Override
+    public FilteredWholeAndRt3 multiply(FilteredWholeAndRt3 scalar) {
+        return new FilteredWholeAndRt3(exact.multiply(scalar.exact));
+    }
+
+    @Override
+    public FilteredWholeAndRt3 divide(FilteredWholeAndRt3 divisor) {
+        return new FilteredWholeAndRt3(exact.divide(divisor.exact));
+    }
+
+    @Override
+    public FilteredWholeAndRt3 commonDivisor(FilteredWholeAndRt3 m2) {
+        return new FilteredWholeAndRt3(exact.commonDivisor(m2.exact));
+    }
+
+    @Override
+    public int compareTo(FilteredWholeAndRt3 m2) {
+        double approx = approx();
+        double approx2 = m2.approx();
+        double difference = approx - approx2;
+        double differenceError = error(approx) + m2.error(approx2) + EPS * Math.abs(difference);
+        if (difference > differenceError)
+            return 1;
+        if (difference < -differenceError)
+            return -1;
+        return exact.compareTo(m2.exact);
+    }
+
+    @Override
+    public int compareToZero() {
+        double approx = approx();
+        double error = error(approx);
+        if (approx > error)
+            return 1;
+        if (approx < -error)
+            return -1;
+        return exact.compareToZero();
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors a->b and a->c.
+     *
+     * The cross product is evaluated in double arithmetic first, and the
+     * exact kernel is only used if the error bound does not exclude zero.
+     * @return 1 if c is to the left of the directed line through a and b,
+     *  -1 if it is to the right and 0 if the three points are collinear.
+     */
+    public static int orientation(FilteredWholeAndRt3 ax, FilteredWholeAndRt3 ay,
+                                  FilteredWholeAndRt3 bx, FilteredWholeAndRt3 by,
+                                  FilteredWholeAndRt3 cx, FilteredWholeAndRt3 cy) {
+        double axApprox = ax.approx();
+        double ayApprox = ay.approx();
+        double bxApprox = bx.approx();
+        double byApprox = by.approx();
+        double cxApprox = cx.approx();
+        double cyApprox = cy.approx();
+        double axError = ax.error(axApprox);
+        double ayError = ay.error(ayApprox);
+        double x1 = bxApprox - axApprox;
+        double y1 = byApprox - ayApprox;
+        double x2 = cxApprox - axApprox;
+        double y2 = cyApprox - ayApprox;
+        double x1Error = bx.error(bxApprox) + axError + EPS * Math.abs(x1);
+        double y1Error = by.error(byApprox) + ayError + EPS * Math.abs(y1);
+        double x2Error = cx.error(cxApprox) + axError + EPS * Math.abs(x2);
+        double y2Error = cy.error(cyApprox) + ayError + EPS * Math.abs(y2);
+        double left = x1 * y2;
+        double right = y1 * x2;
+        double leftError = Math.abs(x1) * y2Error + Math.abs(y2) * x1Error
+                + x1Error * y2Error + EPS * Math.abs(left);
+        double rightError = Math.abs(y1) * x2Error + Math.abs(x2) * y1Error
+                + y1Error * x2Error + EPS * Math.abs(right);
+        double cross = left - right;
+        double crossError = leftError + rightError + EPS * Math.abs(cross);
+        if (cross > crossError)
+            return 1;
+        if (cross < -crossError)
+            return -1;
+        return WholeAndRt3Kernel.orientation(ax.exact, ay.exact, bx.exact, by.exact, cx.exact, cy.exact);
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors (x1, y1) and (x2, y2).
+     */
+    public static int crossSign(FilteredWholeAndRt3 x1, FilteredWholeAndRt3 y1,
+                                FilteredWholeAndRt3 x2, FilteredWholeAndRt3 y2) {
+        double x1Approx = x1.approx();
+        double y1Approx = y1.approx();
+        double x2Approx = x2.approx();
+        double y2Approx = y2.approx();
+        double x1Error = x1.error(x1Approx);
+        double y1Error = y1.error(y1Approx);
+        double x2Error = x2.error(x2Approx);
+        double y2Error = y2.error(y2Approx);
+        double left = x1Approx * y2Approx;
+        double right = y1Approx * x2Approx;
+        double leftError = Math.abs(x1Approx) * y2Error + Math.abs(y2Approx) * x1Error
+                + x1Error * y2Error + EPS * Math.abs(left);
+        double rightError = Math.abs(y1Approx) * x2Error + Math.abs(x2Approx) * y1Error
+                + y1Error * x2Error + EPS * Math.abs(right);
+        double cross = left - right;
+        double crossError = leftError + rightError + EPS * Math.abs(cross);
+        if (cross > crossError)
+            return 1;
+        if (cross < -crossError)
+            return -1;
+        return WholeAndRt3Kernel.crossSign(x1.exact, y1.exact, x2.exact, y2.exact);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FilteredWholeAndRt3 value2))
+            return false;
+        return exact.equals(value2.exact);
+    }
+
+    @Override
+    public long fingerprint() {
+        return exact.fingerprint();
+    }
+
+    @Override
+    public FilteredWholeAndRt3 conjugate() {
+        return new FilteredWholeAndRt3(exact.conjugate());
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return exact.magnitudeBits();
+    }
+
+    @Override
+    public double toDouble() {
+        return approx();
+    }
+
+    @Override
+    public String toString() {
+        return exact.toString();
+    }
+
+    public FilteredWholeAndRt3 one() {
+        return ONE;
+    }
+    public FilteredWholeAndRt3 two() {
+        return TWO;
+    }
+    public FilteredWholeAndRt3 three() {
+        return THREE;
+    }
+    public FilteredWholeAndRt3 four() {
+        return FOUR;
+    }
+    public FilteredWholeAndRt3 five() {
+        return FIVE;
+    }
+    public FilteredWholeAndRt3 six() {
+        return SIX;
+    }
+    public FilteredWholeAndRt3 rt3() {
+        return RT3_VALUE;
+    }
+    public FilteredWholeAndRt3 twoRt3() {
+        return TWO_RT3;
+    }
+    public FilteredWholeAndRt3 threeRt3() {
+        return THREE_RT3;
+    }
+}
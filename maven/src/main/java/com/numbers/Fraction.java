@@ -2,44 +2,74 @@ package com.numbers;
 
 /**
  * Class for precisely handling Fractions of AbstractNumbers.
+ *
+ * Fractions are immutable and the denominator is always positive.
+ * Arithmetic results are not reduced to lowest terms until the numerator or
+ * the denominator grows beyond the normalization threshold, or until a
+ * canonical form is needed by equals or toString. The canonical form used
+ * by equals and fingerprint is computed at most once per instance.
  * @param <T> a subclass of com.numbers.AbstractNumber.
  */
 public class Fraction<T extends AbstractNumber<T>> extends AbstractNumber<Fraction<T>> {
+    /*
+     * Results are normalized once a part needs more than this many bits.
+     * Keeping unreduced parts within 28 bits means that the products and
+     * sums of parts computed by the next operation still fit in a long,
+     * even with the factor of 3 from multiplying sqrt(3) terms.
+     */
+    private static final int NORMALIZATION_BITS = 28;
 
-    T num, denom;
+    final T num, denom;
+    /*
+     * The canonical form, or null until it is first needed. If it cannot be
+     * computed without overflow, canonicalOverflows is set instead.
+     */
+    private Fraction<T> canonicalForm = null;
+    private boolean canonicalOverflows = false;
 
     public Fraction(T numerator, T denominator) {
+        if (denominator.compareToZero() < 0) {
+            numerator = numerator.additiveInverse();
+            denominator = denominator.additiveInverse();
+        }
         this.num = numerator;
         this.denom = denominator;
     }
 
+    /**
+     * Make a com.numbers.Fraction from an arithmetic result, normalizing it
+     * only if it has grown beyond the normalization threshold.
+     */
+    private static <T extends AbstractNumber<T>> Fraction<T> result(T numerator, T denominator) {
+        Fraction<T> result = new Fraction<>(numerator, denominator);
+        if (result.magnitudeBits() > NORMALIZATION_BITS)
+            return result.normalized();
+        return result;
+    }
+
     public Fraction<T> add(Fraction<T> f2) {
-        Fraction<T> result = new Fraction<>(
+        return result(
                 num.multiply(f2.denom).add(f2.num.multiply(denom)),
                 denom.multiply(f2.denom));
-        result.normalize();
-        return result;
     }
 
     public Fraction<T> additiveInverse() {
-        Fraction<T> result = new Fraction<>(num.additiveInverse(), denom);
-        result.normalize();
-        return result;
+        return new Fraction<>(num.additiveInverse(), denom);
+    }
+
+    @Override
+    public Fraction<T> conjugate() {
+        return new Fraction<>(num.conjugate(), denom.conjugate());
     }
 
     public Fraction<T> subtract(Fraction<T> f2) {
-        Fraction<T> result = new Fraction<>(
+        return result(
                 num.multiply(f2.denom).subtract(f2.num.multiply(denom)),
                 denom.multiply(f2.denom));
-        result.normalize();
-        return result;
     }
 
     public Fraction<T> multiply(Fraction<T> f2) {
-        Fraction<T> result = new Fraction<>(
-                num.multiply(f2.num), denom.multiply(f2.denom));
-        result.normalize();
-        return result;
+        return result(num.multiply(f2.num), denom.multiply(f2.denom));
     }
 
     public Fraction<T> divide(Fraction<T> f2) {
@@ -49,23 +79,87 @@ public class Fraction<T extends AbstractNumber<T>> extends AbstractNumber<Fracti
     }
 
     public Fraction<T> reciprocal() {
-        Fraction<T> result = new Fraction<>(denom, num);
-        result.normalize();
-        return result;
+        return new Fraction<>(denom, num);
     }
 
     public Fraction<T> whole(long value) {
         return new Fraction<>(num.whole(value), num.one());
     }
 
-    public void normalize() {
-        if (denom.compareToZero() < 0) {
-            num = num.additiveInverse();
-            denom = denom.additiveInverse();
-        }
+    /**
+     * Get this com.numbers.Fraction in lowest terms.
+     * @return an equal com.numbers.Fraction whose numerator and denominator
+     *  have no common divisor.
+     */
+    public Fraction<T> normalized() {
         T commonDivisor = num.commonDivisor(denom);
-        num = num.divide(commonDivisor);
-        denom = denom.divide(commonDivisor);
+        if (commonDivisor.equals(commonDivisor.one()))
+            return this;
+        return new Fraction<>(num.divide(commonDivisor), denom.divide(commonDivisor));
+    }
+
+    /**
+     * Get the unique representation of this com.numbers.Fraction.
+     *
+     * Reducing by a common divisor alone does not give a unique form when
+     * the denominator has a sqrt(3) part, since, for example,
+     * (1 + sqrt(3)) / (2 + 2 * sqrt(3)) and 1 / 2 are coprime by common
+     * divisors of the integer parts. The denominator is first made rational
+     * by multiplying by its conjugate and the result is then normalized.
+     * For number systems that divide exactly, such as com.numbers.Rt3Rational,
+     * the canonical form has a unit denominator.
+     * @return an equal com.numbers.Fraction such that equal Fractions have
+     *  equal canonical numerators and denominators.
+     */
+    public Fraction<T> canonical() {
+        Fraction<T> rational = this;
+        T conjugate = denom.conjugate();
+        if (!conjugate.equals(denom))
+            rational = new Fraction<>(num.multiply(conjugate), denom.multiply(conjugate));
+        rational = rational.normalized();
+        T one = rational.denom.one();
+        if (rational.denom.equals(one))
+            return rational;
+        try {
+            T quotient = rational.num.divide(rational.denom);
+            if (quotient.multiply(rational.denom).equals(rational.num))
+                return new Fraction<>(quotient, one);
+        } catch (ArithmeticException e) {
+            // The division is not exact in this number system.
+        }
+        return rational;
+    }
+
+    /**
+     * Get the canonical form, computing it on the first call.
+     * @return the canonical form, or null if computing it overflows.
+     */
+    private Fraction<T> cachedCanonical() {
+        if (canonicalForm == null && !canonicalOverflows) {
+            try {
+                canonicalForm = canonical();
+            } catch (ArithmeticException e) {
+                canonicalOverflows = true;
+            }
+        }
+        return canonicalForm;
+    }
+
+    /**
+     * Fractions that are too large to canonicalize all share one
+     * fingerprint, so that fingerprint never throws.
+     */
+    @Override
+    public long fingerprint() {
+        Fraction<T> canonical = cachedCanonical();
+        if (canonical == null)
+            return 0;
+        return CommonMath.fingerprint(canonical.num.fingerprint(), canonical.denom.fingerprint());
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return Math.max(num.magnitudeBits(), denom.magnitudeBits());
     }
 
     @Override
@@ -95,12 +189,30 @@ public class Fraction<T extends AbstractNumber<T>> extends AbstractNumber<Fracti
         return f2.multiply(f2.reciprocal());
     }
 
+    /**
+     * Fractions are equal if their canonical forms are. If either is too
+     * large to canonicalize, they are compared by cross-multiplying, and
+     * if that overflows too, only identical representations are equal.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public boolean equals(Object o) {
         if (o instanceof Fraction<?> f2) {
-            this.normalize();
-            f2.normalize();
-            return num.equals(f2.num) && denom.equals(f2.denom);
+            Fraction<T> canonical = this.cachedCanonical();
+            Fraction<?> f2Canonical = f2.cachedCanonical();
+            if (canonical != null && f2Canonical != null) {
+                return canonical.num.equals(f2Canonical.num)
+                        && canonical.denom.equals(f2Canonical.denom);
+            }
+            if (num.equals(f2.num) && denom.equals(f2.denom))
+                return true;
+            if (num.getClass() != f2.num.getClass())
+                return false;
+            try {
+                return compareTo((Fraction<T>) f2) == 0;
+            } catch (ArithmeticException e) {
+                return false;
+            }
         }
         return false;
     }
@@ -112,10 +224,11 @@ public class Fraction<T extends AbstractNumber<T>> extends AbstractNumber<Fracti
 
     @Override
     public String toString() {
-        if (denom.compareTo(denom.one()) == 0){
-            return num.toString();
+        Fraction<T> normalized = this.normalized();
+        if (normalized.denom.compareTo(denom.one()) == 0){
+            return normalized.num.toString();
         }
-        return String.format("%s / %s", num.toString(), denom.toString());
+        return String.format("%s / %s", normalized.num.toString(), normalized.denom.toString());
     }
 
     public Fraction<T> one() {
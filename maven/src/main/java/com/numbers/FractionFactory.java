@@ -5,6 +5,9 @@ public class FractionFactory {
         return new Fraction<>(
                 new WholeNumber(numerator), new WholeNumber(denominator));
     }
+    public LongRational makeLongRational(long numerator, long denominator) {
+        return new LongRational(numerator, denominator);
+    }
     public Fraction<WholeAndRt3> makeRt3Fraction(
             long numeratorOnes, long numeratorRt3s,
             long denominatorOnes, long denominatorRt3s) {
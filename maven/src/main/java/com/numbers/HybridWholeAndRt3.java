@@ -0,0 +1,292 @@
+package com.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Class for precisely handling arithmetic on com.numbers of the form
+ *      a + b * sqrt(3)
+ * where a and b are integers of unbounded size.
+ *
+ * Values whose parts both fit in a long are stored as longs and use the
+ * checked arithmetic of com.numbers.WholeAndRt3Kernel. A result that would
+ * overflow a long is promoted to a BigInteger representation, and a
+ * BigInteger result that fits in a long again is demoted back to the long
+ * representation. This means that only the values that actually overflow
+ * pay for BigInteger arithmetic.
+ */
+public class HybridWholeAndRt3 extends AbstractNumber<HybridWholeAndRt3> {
+    private static final String DIVISION_ERROR =
+            "Non-integer division of %s by %s";
+    private static final BigInteger RT = BigInteger.valueOf(3);
+    public static final HybridWholeAndRt3 ZERO = new HybridWholeAndRt3(0, 0);
+    public static final HybridWholeAndRt3 ONE = new HybridWholeAndRt3(1, 0);
+    private static final HybridWholeAndRt3 TWO = new HybridWholeAndRt3(2, 0);
+    private static final HybridWholeAndRt3 THREE = new HybridWholeAndRt3(3, 0);
+    private static final HybridWholeAndRt3 FOUR = new HybridWholeAndRt3(4, 0);
+    private static final HybridWholeAndRt3 FIVE = new HybridWholeAndRt3(5, 0);
+    private static final HybridWholeAndRt3 SIX = new HybridWholeAndRt3(6, 0);
+    private static final HybridWholeAndRt3 RT3 = new HybridWholeAndRt3(0, 1);
+    private static final HybridWholeAndRt3 TWO_RT3 = new HybridWholeAndRt3(0, 2);
+    private static final HybridWholeAndRt3 THREE_RT3 = new HybridWholeAndRt3(0, 3);
+
+    final long ones;
+    final long rt3;
+    // Both null if the value fits in the long representation.
+    final BigInteger bigOnes;
+    final BigInteger bigRt3;
+
+    public HybridWholeAndRt3(long ones, long rt3) {
+        this.ones = ones;
+        this.rt3 = rt3;
+        this.bigOnes = null;
+        this.bigRt3 = null;
+    }
+
+    private HybridWholeAndRt3(BigInteger bigOnes, BigInteger bigRt3) {
+        this.ones = 0;
+        this.rt3 = 0;
+        this.bigOnes = bigOnes;
+        this.bigRt3 = bigRt3;
+    }
+
+    /**
+     * Make a com.numbers.HybridWholeAndRt3, using the long representation
+     * if both parts fit in a long.
+     */
+    public static HybridWholeAndRt3 valueOf(BigInteger ones, BigInteger rt3) {
+        if (ones.bitLength() < Long.SIZE && rt3.bitLength() < Long.SIZE)
+            return new HybridWholeAndRt3(ones.longValue(), rt3.longValue());
+        return new HybridWholeAndRt3(ones, rt3);
+    }
+
+    /**
+     * @return true iff this value is stored using BigIntegers.
+     */
+    public boolean isPromoted() {
+        return bigOnes != null;
+    }
+
+    public BigInteger bigOnes() {
+        return bigOnes == null ? BigInteger.valueOf(ones) : bigOnes;
+    }
+
+    public BigInteger bigRt3() {
+        return bigRt3 == null ? BigInteger.valueOf(rt3) : bigRt3;
+    }
+
+    public HybridWholeAndRt3 whole(long wholeValue) {
+        return new HybridWholeAndRt3(wholeValue, 0);
+    }
+
+    @Override
+    public HybridWholeAndRt3 add(HybridWholeAndRt3 summand) {
+        if (!isPromoted() && !summand.isPromoted()) {
+            try {
+                return new HybridWholeAndRt3(
+                        WholeAndRt3Kernel.add(ones, summand.ones),
+                        WholeAndRt3Kernel.add(rt3, summand.rt3));
+            } catch (ArithmeticException e) {
+                // Fall through to the BigInteger representation.
+            }
+        }
+        return valueOf(bigOnes().add(summand.bigOnes()),
+                bigRt3().add(summand.bigRt3()));
+    }
+
+    @Override
+    public HybridWholeAndRt3 subtract(HybridWholeAndRt3 summand) {
+        if (!isPromoted() && !summand.isPromoted()) {
+            try {
+                return new HybridWholeAndRt3(
+                        WholeAndRt3Kernel.subtract(ones, summand.ones),
+                        WholeAndRt3Kernel.subtract(rt3, summand.rt3));
+            } catch (ArithmeticException e) {
+                // Fall through to the BigInteger representation.
+            }
+        }
+        return valueOf(bigOnes().subtract(summand.bigOnes()),
+                bigRt3().subtract(summand.bigRt3()));
+    }
+
+    @Override
+    public HybridWholeAndRt3 additiveInverse() {
+        if (!isPromoted() && ones != Long.MIN_VALUE && rt3 != Long.MIN_VALUE)
+            return new HybridWholeAndRt3(-ones, -rt3);
+        return valueOf(bigOnes().negate(), bigRt3().negate());
+    }
+
+    @Override
+    public HybridWholeAndRt3 multiply(HybridWholeAndRt3 scalar) {
+        if (!isPromoted() && !scalar.isPromoted()) {
+            try {
+                return new HybridWholeAndRt3(
+                        WholeAndRt3Kernel.multiplyOnes(ones, rt3, scalar.ones, scalar.rt3),
+                        WholeAndRt3Kernel.multiplyRt3(ones, rt3, scalar.ones, scalar.rt3));
+            } catch (ArithmeticException e) {
+                // Fall through to the BigInteger representation.
+            }
+        }
+        BigInteger aOnes = bigOnes(), aRt3 = bigRt3();
+        BigInteger bOnes = scalar.bigOnes(), bRt3 = scalar.bigRt3();
+        return valueOf(
+                aOnes.multiply(bOnes).add(RT.multiply(aRt3).multiply(bRt3)),
+                aOnes.multiply(bRt3).add(aRt3.multiply(bOnes)));
+    }
+
+    /**
+     * Divide this com.numbers.HybridWholeAndRt3 by the given one.
+     *
+     * This method only supports "integer" division. That is, the result
+     * of this operation multiplied by the divisor should give back the
+     * original com.numbers.HybridWholeAndRt3.
+     * @param divisor: The com.numbers.HybridWholeAndRt3 to divide by.
+     * @return the result of the division.
+     */
+    @Override
+    public HybridWholeAndRt3 divide(HybridWholeAndRt3 divisor) {
+        HybridWholeAndRt3 result;
+        if (divisor.compareToZero() == 0) {
+            throw new ArithmeticException("Divide by zero.");
+        } else if (!isPromoted() && !divisor.isPromoted() && divisor.rt3 == 0
+                && !(ones == Long.MIN_VALUE && divisor.ones == -1)
+                && !(rt3 == Long.MIN_VALUE && divisor.ones == -1)) {
+            if (ones % divisor.ones != 0 || rt3 % divisor.ones != 0)
+                throw new ArithmeticException(
+                        String.format(DIVISION_ERROR, this, divisor));
+            return new HybridWholeAndRt3(ones / divisor.ones, rt3 / divisor.ones);
+        } else {
+            BigInteger aOnes = bigOnes(), aRt3 = bigRt3();
+            BigInteger bOnes = divisor.bigOnes(), bRt3 = divisor.bigRt3();
+            BigInteger rationalizedDenominator =
+                    bOnes.multiply(bOnes).subtract(RT.multiply(bRt3).multiply(bRt3));
+            result = valueOf(
+                    aOnes.multiply(bOnes).subtract(RT.multiply(aRt3).multiply(bRt3))
+                            .divide(rationalizedDenominator),
+                    aRt3.multiply(bOnes).subtract(aOnes.multiply(bRt3))
+                            .divide(rationalizedDenominator));
+        }
+        if (!this.equals(result.multiply(divisor)))
+            throw new ArithmeticException(
+                    String.format(DIVISION_ERROR, this, divisor));
+        return result;
+    }
+
+    /**
+     * Find a "common divisor" of this com.numbers.HybridWholeAndRt3 and another.
+     *
+     * The returned value has no irrational part and is the largest integer
+     * that divides the integer parts and the irrational parts of both
+     * values. If both terms are "zero", then return "one".
+     * @param m2: the second com.numbers.HybridWholeAndRt3.
+     * @return a "common divisor" of this value and another.
+     */
+    @Override
+    public HybridWholeAndRt3 commonDivisor(HybridWholeAndRt3 m2) {
+        if (this.equals(ZERO) && m2.equals(ZERO))
+            return one();
+        if (!isPromoted() && !m2.isPromoted()
+                && ones != Long.MIN_VALUE && rt3 != Long.MIN_VALUE
+                && m2.ones != Long.MIN_VALUE && m2.rt3 != Long.MIN_VALUE) {
+            return new HybridWholeAndRt3(CommonMath.gcd(
+                    CommonMath.gcd(ones, rt3),
+                    CommonMath.gcd(m2.ones, m2.rt3)), 0);
+        }
+        return valueOf(bigOnes().gcd(bigRt3()).gcd(m2.bigOnes()).gcd(m2.bigRt3()),
+                BigInteger.ZERO);
+    }
+
+    /**
+     * Compare two HybridWholeAndRt3s exactly.
+     * @param m2: the value to compare against.
+     * @return -1, 0 or 1 as this value is less than, equal to or greater
+     *  than m2.
+     */
+    @Override
+    public int compareTo(HybridWholeAndRt3 m2) {
+        if (!isPromoted() && !m2.isPromoted())
+            return WholeAndRt3Kernel.compare(ones, rt3, m2.ones, m2.rt3);
+        return WholeAndRt3Kernel.wideSign(bigOnes().subtract(m2.bigOnes()),
+                bigRt3().subtract(m2.bigRt3()));
+    }
+
+    @Override
+    public int compareToZero() {
+        if (!isPromoted())
+            return WholeAndRt3Kernel.sign(ones, rt3);
+        return WholeAndRt3Kernel.wideSign(bigOnes, bigRt3);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s + %s * sqrt(3))", bigOnes(), bigRt3());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof HybridWholeAndRt3 value2))
+            return false;
+        // Values are always demoted when they fit, so the representation
+        // is unique.
+        if (isPromoted() != value2.isPromoted())
+            return false;
+        if (!isPromoted())
+            return ones == value2.ones && rt3 == value2.rt3;
+        return bigOnes.equals(value2.bigOnes) && bigRt3.equals(value2.bigRt3);
+    }
+
+    @Override
+    public long fingerprint() {
+        if (!isPromoted())
+            return CommonMath.fingerprint(CommonMath.fingerprint(0, ones), rt3);
+        return CommonMath.fingerprint(CommonMath.fingerprint(1, bigOnes.hashCode()), bigRt3.hashCode());
+    }
+
+    @Override
+    public HybridWholeAndRt3 conjugate() {
+        if (!isPromoted() && rt3 != Long.MIN_VALUE)
+            return new HybridWholeAndRt3(ones, -rt3);
+        return valueOf(bigOnes(), bigRt3().negate());
+    }
+
+    @Override
+    public int magnitudeBits() {
+        if (!isPromoted())
+            return Math.max(CommonMath.magnitudeBits(ones), CommonMath.magnitudeBits(rt3));
+        return Math.max(bigOnes.bitLength(), bigRt3.bitLength()) + 1;
+    }
+
+    @Override
+    public double toDouble() {
+        if (!isPromoted())
+            return ones + Math.sqrt(3) * rt3;
+        return bigOnes.doubleValue() + Math.sqrt(3) * bigRt3.doubleValue();
+    }
+
+    public HybridWholeAndRt3 one() {
+        return ONE;
+    }
+    public HybridWholeAndRt3 two() {
+        return TWO;
+    }
+    public HybridWholeAndRt3 three() {
+        return THREE;
+    }
+    public HybridWholeAndRt3 four() {
+        return FOUR;
+    }
+    public HybridWholeAndRt3 five() {
+        return FIVE;
+    }
+    public HybridWholeAndRt3 six() {
+        return SIX;
+    }
+    public HybridWholeAndRt3 rt3() {
+        return RT3;
+    }
+    public HybridWholeAndRt3 twoRt3() {
+        return TWO_RT3;
+    }
+    public HybridWholeAndRt3 threeRt3() {
+        return THREE_RT3;
+    }
+}
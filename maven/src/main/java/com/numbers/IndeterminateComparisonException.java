@@ -0,0 +1,16 @@
+package com.numbers;
+
+/**
+ * Thrown when a number system cannot decide a comparison.
+ *
+ * com.numbers.DoubleInterval throws this when the intervals being compared
+ * overlap, so that callers can redo the computation in an exact number
+ * system.
+ */
+public class IndeterminateComparisonException extends ArithmeticException {
+    private static final long serialVersionUID = 1L;
+
+    public IndeterminateComparisonException(String message) {
+        super(message);
+    }
+}
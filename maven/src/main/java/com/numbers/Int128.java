@@ -0,0 +1,348 @@
+package com.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Class for exact arithmetic on 128-bit signed integers.
+ *
+ * Values are stored in two's complement as a high and a low long. All of
+ * the arithmetic is done on the pairs of longs with explicit carries and
+ * Math.multiplyHigh, so no intermediate objects are allocated. Results that
+ * do not fit in 128 bits throw an ArithmeticException.
+ *
+ * As with com.numbers.WholeNumber, multiples of sqrt(3) are represented as
+ * whole numbers for the purpose of building trapezoid sequences.
+ */
+public class Int128 extends AbstractNumber<Int128> {
+    public static final Int128 MINUS_ONE = new Int128(-1, -1);
+    public static final Int128 ZERO = new Int128(0, 0);
+    public static final Int128 ONE = new Int128(0, 1);
+    public static final Int128 MIN_VALUE = new Int128(Long.MIN_VALUE, 0);
+    public static final Int128 MAX_VALUE = new Int128(Long.MAX_VALUE, -1);
+    private static final Int128 TWO = new Int128(2);
+    private static final Int128 THREE = new Int128(3);
+    private static final Int128 FOUR = new Int128(4);
+    private static final Int128 FIVE = new Int128(5);
+    private static final Int128 SIX = new Int128(6);
+    private static final String DIVISION_ERROR =
+            "Non-integer division of %s by %s";
+    private static final BigInteger LOW_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    final long hi;
+    final long lo;
+
+    public Int128(long value) {
+        this(value >> 63, value);
+    }
+
+    public Int128(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    /**
+     * Convert a BigInteger to an com.numbers.Int128.
+     * @throws ArithmeticException if the value does not fit in 128 bits.
+     */
+    public static Int128 valueOf(BigInteger value) {
+        if (value.bitLength() > 127)
+            throw new ArithmeticException("Value does not fit in 128 bits.");
+        return new Int128(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    public BigInteger toBigInteger() {
+        return BigInteger.valueOf(hi).shiftLeft(64).or(BigInteger.valueOf(lo).and(LOW_MASK));
+    }
+
+    /**
+     * @return true iff this value fits in a long.
+     */
+    boolean fitsInLong() {
+        return hi == (lo >> 63);
+    }
+
+    public Int128 whole(long wholeValue) {
+        return new Int128(wholeValue);
+    }
+
+    @Override
+    public Int128 add(Int128 n2) {
+        long sumLo = lo + n2.lo;
+        long carry = Long.compareUnsigned(sumLo, lo) < 0 ? 1 : 0;
+        long sumHi = hi + n2.hi + carry;
+        // As for a single long, the sum overflows iff both operands have
+        // the same sign and the result has the other sign.
+        if (((hi ^ sumHi) & (n2.hi ^ sumHi)) < 0)
+            throw new ArithmeticException("Addition will overflow.");
+        return new Int128(sumHi, sumLo);
+    }
+
+    @Override
+    public Int128 subtract(Int128 n2) {
+        long differenceLo = lo - n2.lo;
+        long borrow = Long.compareUnsigned(lo, n2.lo) < 0 ? 1 : 0;
+        long differenceHi = hi - n2.hi - borrow;
+        if (((hi ^ n2.hi) & (hi ^ differenceHi)) < 0)
+            throw new ArithmeticException("Subtraction will overflow.");
+        return new Int128(differenceHi, differenceLo);
+    }
+
+    @Override
+    public Int128 multiply(Int128 n2) {
+        if (fitsInLong() && n2.fitsInLong()) {
+            // The product of two longs always fits in 128 bits.
+            return new Int128(Math.multiplyHigh(lo, n2.lo), lo * n2.lo);
+        }
+        long aHi = hi < 0 ? magnitudeHi(hi, lo) : hi;
+        long aLo = hi < 0 ? -lo : lo;
+        long bHi = n2.hi < 0 ? magnitudeHi(n2.hi, n2.lo) : n2.hi;
+        long bLo = n2.hi < 0 ? -n2.lo : n2.lo;
+        // The magnitudes are unsigned, so aHi * bHi * 2^128 must be zero.
+        if (aHi != 0 && bHi != 0)
+            throw new ArithmeticException("Multiplication will overflow.");
+        long productLo = aLo * bLo;
+        long productHi = unsignedMultiplyHigh(aLo, bLo);
+        if (unsignedMultiplyHigh(aHi, bLo) != 0 || unsignedMultiplyHigh(aLo, bHi) != 0)
+            throw new ArithmeticException("Multiplication will overflow.");
+        long cross = aHi * bLo + aLo * bHi;
+        long sumHi = productHi + cross;
+        if (Long.compareUnsigned(sumHi, productHi) < 0)
+            throw new ArithmeticException("Multiplication will overflow.");
+        if ((hi < 0) != (n2.hi < 0)) {
+            if (sumHi < 0 && (sumHi != Long.MIN_VALUE || productLo != 0))
+                throw new ArithmeticException("Multiplication will overflow.");
+            return new Int128(magnitudeHi(sumHi, productLo), -productLo);
+        }
+        if (sumHi < 0)
+            throw new ArithmeticException("Multiplication will overflow.");
+        return new Int128(sumHi, productLo);
+    }
+
+    /**
+     * Divide this com.numbers.Int128 by the given com.numbers.Int128.
+     *
+     * As with com.numbers.WholeNumber, only exact division is supported.
+     * @throws ArithmeticException if the divisor does not divide this
+     *  value, or the quotient overflows.
+     */
+    @Override
+    public Int128 divide(Int128 n2) {
+        if (n2.compareToZero() == 0)
+            throw new ArithmeticException(String.format(DIVISION_ERROR, this, n2));
+        if (fitsInLong() && n2.fitsInLong() && !(lo == Long.MIN_VALUE && n2.lo == -1)) {
+            if (lo % n2.lo != 0)
+                throw new ArithmeticException(String.format(DIVISION_ERROR, this, n2));
+            return new Int128(lo / n2.lo);
+        }
+        long[] quotient = {hi < 0 ? magnitudeHi(hi, lo) : hi, hi < 0 ? -lo : lo};
+        boolean exact = divideMagnitude(quotient,
+                n2.hi < 0 ? magnitudeHi(n2.hi, n2.lo) : n2.hi, n2.hi < 0 ? -n2.lo : n2.lo);
+        if (!exact)
+            throw new ArithmeticException(String.format(DIVISION_ERROR, this, n2));
+        if ((hi < 0) != (n2.hi < 0))
+            return new Int128(magnitudeHi(quotient[0], quotient[1]), -quotient[1]);
+        if (quotient[0] < 0)
+            throw new ArithmeticException("Division will overflow.");
+        return new Int128(quotient[0], quotient[1]);
+    }
+
+    /**
+     * Get the greatest common divisor with the binary GCD algorithm.
+     *
+     * As with CommonMath.gcd, the greatest common divisor of MIN_VALUE and
+     * 0 or MIN_VALUE is MIN_VALUE.
+     */
+    @Override
+    public Int128 commonDivisor(Int128 n2) {
+        if (compareToZero() == 0 && n2.compareToZero() == 0)
+            return ONE;
+        if (fitsInLong() && n2.fitsInLong() && lo != Long.MIN_VALUE && n2.lo != Long.MIN_VALUE)
+            return new Int128(CommonMath.gcd(lo, n2.lo));
+        long[] a = {hi < 0 ? magnitudeHi(hi, lo) : hi, hi < 0 ? -lo : lo};
+        long[] b = {n2.hi < 0 ? magnitudeHi(n2.hi, n2.lo) : n2.hi, n2.hi < 0 ? -n2.lo : n2.lo};
+        if ((a[0] | a[1]) == 0)
+            return new Int128(b[0], b[1]);
+        if ((b[0] | b[1]) == 0)
+            return new Int128(a[0], a[1]);
+        int shift = trailingZeros(a[0] | b[0], a[1] | b[1]);
+        shiftRight(a, trailingZeros(a[0], a[1]));
+        while ((b[0] | b[1]) != 0) {
+            shiftRight(b, trailingZeros(b[0], b[1]));
+            if (Long.compareUnsigned(a[0], b[0]) > 0
+                    || (a[0] == b[0] && Long.compareUnsigned(a[1], b[1]) > 0)) {
+                long[] tmp = a;
+                a = b;
+                b = tmp;
+            }
+            long borrow = Long.compareUnsigned(b[1], a[1]) < 0 ? 1 : 0;
+            b[1] -= a[1];
+            b[0] -= a[0] + borrow;
+        }
+        if (shift >= 64)
+            return new Int128(a[1] << (shift - 64), 0);
+        if (shift == 0)
+            return new Int128(a[0], a[1]);
+        return new Int128((a[0] << shift) | (a[1] >>> (64 - shift)), a[1] << shift);
+    }
+
+    @Override
+    public Int128 additiveInverse() {
+        if (hi == Long.MIN_VALUE && lo == 0)
+            throw new ArithmeticException("Additive inverse will overflow.");
+        return new Int128(magnitudeHi(hi, lo), -lo);
+    }
+
+    @Override
+    public int compareTo(Int128 n2) {
+        int comparison = Long.compare(hi, n2.hi);
+        if (comparison != 0)
+            return comparison;
+        return Long.compareUnsigned(lo, n2.lo);
+    }
+
+    @Override
+    public int compareToZero() {
+        if (hi < 0)
+            return -1;
+        return (hi | lo) == 0 ? 0 : 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof Int128 n2) {
+            return hi == n2.hi && lo == n2.lo;
+        }
+        return false;
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(CommonMath.fingerprint(0, hi), lo);
+    }
+
+    @Override
+    public int magnitudeBits() {
+        long magnitudeHi = hi < 0 ? magnitudeHi(hi, lo) : hi;
+        long magnitudeLo = hi < 0 ? -lo : lo;
+        if (magnitudeHi != 0)
+            return 2 * Long.SIZE - Long.numberOfLeadingZeros(magnitudeHi);
+        return Long.SIZE - Long.numberOfLeadingZeros(magnitudeLo);
+    }
+
+    @Override
+    public double toDouble() {
+        if (fitsInLong())
+            return (double) lo;
+        double unsignedLo = (double) (lo >>> 1) * 2 + (lo & 1);
+        return hi * 0x1p64 + unsignedLo;
+    }
+
+    @Override
+    public String toString() {
+        if (fitsInLong())
+            return "" + lo;
+        return toBigInteger().toString();
+    }
+
+    /**
+     * Get the high long of the negation of the 128-bit value (hi, lo).
+     *
+     * The low long of the negation is -lo.
+     */
+    static long magnitudeHi(long hi, long lo) {
+        return lo == 0 ? -hi : ~hi;
+    }
+
+    /**
+     * Get the high long of the unsigned 128-bit product of a and b.
+     */
+    static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    private static int trailingZeros(long hi, long lo) {
+        if (lo != 0)
+            return Long.numberOfTrailingZeros(lo);
+        return Long.SIZE + Long.numberOfTrailingZeros(hi);
+    }
+
+    private static void shiftRight(long[] value, int shift) {
+        if (shift >= 64) {
+            value[1] = value[0] >>> (shift - 64);
+            value[0] = 0;
+        } else if (shift > 0) {
+            value[1] = (value[1] >>> shift) | (value[0] << (64 - shift));
+            value[0] >>>= shift;
+        }
+    }
+
+    /**
+     * Divide the unsigned 128-bit value in numerator by the unsigned 128-bit
+     * divisor (divisorHi, divisorLo) with shift and subtract long division.
+     * The quotient replaces the numerator.
+     * @return true iff the remainder is zero.
+     */
+    private static boolean divideMagnitude(long[] numerator, long divisorHi, long divisorLo) {
+        long nHi = numerator[0];
+        long nLo = numerator[1];
+        long qHi = 0, qLo = 0, rHi = 0, rLo = 0;
+        int bits = nHi != 0 ? 2 * Long.SIZE - Long.numberOfLeadingZeros(nHi)
+                : Long.SIZE - Long.numberOfLeadingZeros(nLo);
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            // The remainder can reach 2^128 after shifting when the divisor
+            // is at least 2^127, so keep the bit that is shifted out.
+            boolean carry = rHi < 0;
+            long nextBit = bit >= 64 ? (nHi >>> (bit - 64)) & 1 : (nLo >>> bit) & 1;
+            rHi = (rHi << 1) | (rLo >>> 63);
+            rLo = (rLo << 1) | nextBit;
+            qHi = (qHi << 1) | (qLo >>> 63);
+            qLo <<= 1;
+            if (carry || Long.compareUnsigned(rHi, divisorHi) > 0
+                    || (rHi == divisorHi && Long.compareUnsigned(rLo, divisorLo) >= 0)) {
+                long borrow = Long.compareUnsigned(rLo, divisorLo) < 0 ? 1 : 0;
+                rLo -= divisorLo;
+                rHi -= divisorHi + borrow;
+                qLo |= 1;
+            }
+        }
+        numerator[0] = qHi;
+        numerator[1] = qLo;
+        return (rHi | rLo) == 0;
+    }
+
+    public Int128 one() {
+        return ONE;
+    }
+    public Int128 two() {
+        return TWO;
+    }
+    public Int128 three() {
+        return THREE;
+    }
+    public Int128 four() {
+        return FOUR;
+    }
+    public Int128 five() {
+        return FIVE;
+    }
+    public Int128 six() {
+        return SIX;
+    }
+
+    /**
+     * Return a value representing sqrt(3).
+     *
+     * As for com.numbers.WholeNumber, multiples of sqrt(3) are represented
+     * the same way as whole numbers.
+     * @return a representation of sqrt(3).
+     */
+    public Int128 rt3() {
+        return ONE;
+    }
+    public Int128 twoRt3() {
+        return TWO;
+    }
+    public Int128 threeRt3() {
+        return THREE;
+    }
+}
@@ -0,0 +1,282 @@
+package com.numbers;
+
+/**
+ * Class for precisely handling arithmetic on com.numbers of the form
+ *      a + b * sqrt(3)
+ * where a and b are 128-bit integers.
+ *
+ * This is the com.numbers.Int128 analogue of com.numbers.WholeAndRt3. Signs
+ * are exact for all values: a + b * sqrt(3) with a and b of opposite signs
+ * is compared with zero by comparing a^2 with 3 * b^2 as unsigned
+ * integers. Comparisons never throw: two values are compared part by
+ * part without computing their difference.
+ */
+public class Int128AndRt3 extends AbstractNumber<Int128AndRt3> {
+    private static final String DIVISION_ERROR =
+            "Non-integer division of %s by %s";
+    private static final Int128 RT = new Int128(3);
+    public static final Int128AndRt3 ZERO = new Int128AndRt3(0, 0);
+    public static final Int128AndRt3 ONE = new Int128AndRt3(1, 0);
+    private static final Int128AndRt3 TWO = new Int128AndRt3(2, 0);
+    private static final Int128AndRt3 THREE = new Int128AndRt3(3, 0);
+    private static final Int128AndRt3 FOUR = new Int128AndRt3(4, 0);
+    private static final Int128AndRt3 FIVE = new Int128AndRt3(5, 0);
+    private static final Int128AndRt3 SIX = new Int128AndRt3(6, 0);
+    private static final Int128AndRt3 RT3 = new Int128AndRt3(0, 1);
+    private static final Int128AndRt3 TWO_RT3 = new Int128AndRt3(0, 2);
+    private static final Int128AndRt3 THREE_RT3 = new Int128AndRt3(0, 3);
+
+    final Int128 ones;
+    final Int128 rt3;
+
+    public Int128AndRt3(Int128 ones, Int128 rt3) {
+        this.ones = ones;
+        this.rt3 = rt3;
+    }
+
+    public Int128AndRt3(long ones, long rt3) {
+        this(new Int128(ones), new Int128(rt3));
+    }
+
+    public Int128 getOnes() {
+        return ones;
+    }
+
+    public Int128 getRt3() {
+        return rt3;
+    }
+
+    public Int128AndRt3 whole(long wholeValue) {
+        return new Int128AndRt3(wholeValue, 0);
+    }
+
+    @Override
+    public Int128AndRt3 add(Int128AndRt3 summand) {
+        return new Int128AndRt3(ones.add(summand.ones), rt3.add(summand.rt3));
+    }
+
+    @Override
+    public Int128AndRt3 subtract(Int128AndRt3 summand) {
+        return new Int128AndRt3(ones.subtract(summand.ones), rt3.subtract(summand.rt3));
+    }
+
+    @Override
+    public Int128AndRt3 multiply(Int128AndRt3 scalar) {
+        return new Int128AndRt3(
+                ones.multiply(scalar.ones).add(RT.multiply(rt3.multiply(scalar.rt3))),
+                ones.multiply(scalar.rt3).add(rt3.multiply(scalar.ones)));
+    }
+
+    /**
+     * Divide this com.numbers.Int128AndRt3 by the given com.numbers.Int128AndRt3.
+     *
+     * As with com.numbers.WholeAndRt3, only "integer" division is supported.
+     * The divisor is rationalized by multiplying by its conjugate, so the
+     * division is exact iff the integer norm of the divisor divides both
+     * parts of the rationalized numerator.
+     * @param divisor: The com.numbers.Int128AndRt3 to divide by.
+     * @return the result of the division.
+     */
+    @Override
+    public Int128AndRt3 divide(Int128AndRt3 divisor) {
+        Int128 norm = divisor.ones;
+        Int128 resultOnes = ones;
+        Int128 resultRt3 = rt3;
+        if (divisor.rt3.compareToZero() != 0) {
+            norm = divisor.ones.multiply(divisor.ones).subtract(RT.multiply(divisor.rt3.multiply(divisor.rt3)));
+            resultOnes = ones.multiply(divisor.ones).subtract(RT.multiply(rt3.multiply(divisor.rt3)));
+            resultRt3 = rt3.multiply(divisor.ones).subtract(ones.multiply(divisor.rt3));
+        }
+        try {
+            return new Int128AndRt3(resultOnes.divide(norm), resultRt3.divide(norm));
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException(String.format(DIVISION_ERROR, this, divisor));
+        }
+    }
+
+    /**
+     * Find a "common divisor" of this com.numbers.Int128AndRt3 and another.
+     *
+     * As for com.numbers.WholeAndRt3, this is the largest integer that
+     * divides both parts of both values. If both terms are "zero", then
+     * return "one".
+     */
+    @Override
+    public Int128AndRt3 commonDivisor(Int128AndRt3 m2) {
+        if (this.equals(ZERO) && m2.equals(ZERO))
+            return one();
+        return new Int128AndRt3(
+                ones.commonDivisor(rt3).commonDivisor(m2.ones.commonDivisor(m2.rt3)),
+                Int128.ZERO);
+    }
+
+    @Override
+    public Int128AndRt3 additiveInverse() {
+        return new Int128AndRt3(ones.additiveInverse(), rt3.additiveInverse());
+    }
+
+    @Override
+    public Int128AndRt3 conjugate() {
+        return new Int128AndRt3(ones, rt3.additiveInverse());
+    }
+
+    @Override
+    public int compareTo(Int128AndRt3 m2) {
+        int onesComparison = ones.compareTo(m2.ones);
+        int rt3Comparison = rt3.compareTo(m2.rt3);
+        if (rt3Comparison == 0 || onesComparison == rt3Comparison)
+            return onesComparison;
+        if (onesComparison == 0)
+            return rt3Comparison;
+        // The differences of the parts have opposite signs, so the larger of
+        // their magnitudes decides. A difference can need 129 bits as a
+        // signed value, but its magnitude fits in 128 unsigned bits.
+        Int128 onesLarger = onesComparison > 0 ? ones : m2.ones;
+        Int128 onesSmaller = onesComparison > 0 ? m2.ones : ones;
+        Int128 rt3Larger = rt3Comparison > 0 ? rt3 : m2.rt3;
+        Int128 rt3Smaller = rt3Comparison > 0 ? m2.rt3 : rt3;
+        int comparison = compareSquareToTripleSquare(
+                differenceHi(onesLarger, onesSmaller), onesLarger.lo - onesSmaller.lo,
+                differenceHi(rt3Larger, rt3Smaller), rt3Larger.lo - rt3Smaller.lo);
+        return comparison > 0 ? onesComparison : rt3Comparison;
+    }
+
+    /**
+     * Get the high word of larger - smaller as an unsigned 128-bit integer.
+     */
+    private static long differenceHi(Int128 larger, Int128 smaller) {
+        long borrow = Long.compareUnsigned(larger.lo, smaller.lo) < 0 ? 1 : 0;
+        return larger.hi - smaller.hi - borrow;
+    }
+
+    @Override
+    public int compareToZero() {
+        int onesSign = ones.compareToZero();
+        int rt3Sign = rt3.compareToZero();
+        if (onesSign >= 0 && rt3Sign >= 0)
+            return onesSign == 0 && rt3Sign == 0 ? 0 : 1;
+        if (onesSign <= 0 && rt3Sign <= 0)
+            return -1;
+        // sqrt(3) is irrational, so a^2 and 3 * b^2 are never equal here.
+        int comparison = compareSquareToTripleSquare(ones, rt3);
+        return onesSign > 0 ? comparison : -comparison;
+    }
+
+    /**
+     * Compare a^2 with 3 * b^2 exactly.
+     *
+     * |a| and |b| are at most 2^127.
+     */
+    static int compareSquareToTripleSquare(Int128 a, Int128 b) {
+        return compareSquareToTripleSquare(
+                a.hi < 0 ? Int128.magnitudeHi(a.hi, a.lo) : a.hi, a.hi < 0 ? -a.lo : a.lo,
+                b.hi < 0 ? Int128.magnitudeHi(b.hi, b.lo) : b.hi, b.hi < 0 ? -b.lo : b.lo);
+    }
+
+    /**
+     * Compare a^2 with 3 * b^2 exactly, where a and b are unsigned 128-bit
+     * integers given by their high and low words.
+     *
+     * a^2 fits in 256 unsigned bits and 3 * b^2 in 258, so both are held in
+     * five words.
+     */
+    private static int compareSquareToTripleSquare(long aHi, long aLo, long bHi, long bLo) {
+        long[] aSquared = square(aHi, aLo);
+        long[] bSquared = square(bHi, bLo);
+        long[] bSquaredTripled = bSquared.clone();
+        for (int i = 0; i < bSquared.length; i++) {
+            addWord(bSquaredTripled, i, bSquared[i]);
+            addWord(bSquaredTripled, i, bSquared[i]);
+        }
+        for (int i = aSquared.length - 1; i >= 0; i--) {
+            int comparison = Long.compareUnsigned(aSquared[i], bSquaredTripled[i]);
+            if (comparison != 0)
+                return comparison;
+        }
+        return 0;
+    }
+
+    /**
+     * Get the square of an unsigned 128-bit integer as five unsigned words,
+     * least significant first.
+     */
+    private static long[] square(long hi, long lo) {
+        long[] words = new long[5];
+        addWord(words, 0, lo * lo);
+        addWord(words, 1, Int128.unsignedMultiplyHigh(lo, lo));
+        for (int i = 0; i < 2; i++) {
+            addWord(words, 1, hi * lo);
+            addWord(words, 2, Int128.unsignedMultiplyHigh(hi, lo));
+        }
+        addWord(words, 2, hi * hi);
+        addWord(words, 3, Int128.unsignedMultiplyHigh(hi, hi));
+        return words;
+    }
+
+    /**
+     * Add an unsigned word to the multi-word value at the given word index.
+     */
+    private static void addWord(long[] words, int index, long value) {
+        for (int i = index; i < words.length && value != 0; i++) {
+            long sum = words[i] + value;
+            value = Long.compareUnsigned(sum, words[i]) < 0 ? 1 : 0;
+            words[i] = sum;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Int128AndRt3 value2))
+            return false;
+        // sqrt(3) is irrational, so the representation is unique.
+        return ones.equals(value2.ones) && rt3.equals(value2.rt3);
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(ones.fingerprint(), rt3.fingerprint());
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return Math.max(ones.magnitudeBits(), rt3.magnitudeBits());
+    }
+
+    @Override
+    public double toDouble() {
+        return ones.toDouble() + Math.sqrt(3) * rt3.toDouble();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s + %s * sqrt(3))", ones, rt3);
+    }
+
+    public Int128AndRt3 one() {
+        return ONE;
+    }
+    public Int128AndRt3 two() {
+        return TWO;
+    }
+    public Int128AndRt3 three() {
+        return THREE;
+    }
+    public Int128AndRt3 four() {
+        return FOUR;
+    }
+    public Int128AndRt3 five() {
+        return FIVE;
+    }
+    public Int128AndRt3 six() {
+        return SIX;
+    }
+    public Int128AndRt3 rt3() {
+        return RT3;
+    }
+    public Int128AndRt3 twoRt3() {
+        return TWO_RT3;
+    }
+    public Int128AndRt3 threeRt3() {
+        return THREE_RT3;
+    }
+}
@@ -0,0 +1,237 @@
+package com.numbers;
+
+/**
+ * Class for precisely handling rational numbers
+ *      num / denom
+ * where num and denom are longs.
+ *
+ * This stores the same values as com.numbers.Fraction of
+ * com.numbers.WholeNumber but in a single flat object, without wrapping the
+ * numerator and the denominator. Values are always kept in lowest terms with
+ * a positive denominator, so two values are equal iff their fields are equal.
+ *
+ * As for com.numbers.WholeNumber, multiples of sqrt(3) are represented the
+ * same way as whole numbers.
+ *
+ * Arithmetic is checked and throws an ArithmeticException on overflow.
+ * Comparisons are exact and never throw: cross products that do not fit in
+ * a long are compared as 128-bit values.
+ */
+public class LongRational extends AbstractNumber<LongRational> {
+    public static final LongRational ZERO = new LongRational(0, 1);
+    public static final LongRational ONE = new LongRational(1, 1);
+    private static final LongRational TWO = new LongRational(2, 1);
+    private static final LongRational THREE = new LongRational(3, 1);
+    private static final LongRational FOUR = new LongRational(4, 1);
+    private static final LongRational FIVE = new LongRational(5, 1);
+    private static final LongRational SIX = new LongRational(6, 1);
+
+    final long num;
+    final long denom;
+
+    /**
+     * Make the value num / denom in lowest terms.
+     * @throws ArithmeticException if denom is zero.
+     */
+    public LongRational(long num, long denom) {
+        this(num, denom, CommonMath.gcd(num, denom));
+    }
+
+    public LongRational(long value) {
+        this(value, 1, 1);
+    }
+
+    /**
+     * Make the value num / denom, divided through by commonDivisor.
+     * @param commonDivisor: a common divisor of num and denom such that the
+     *  result is in lowest terms.
+     */
+    private LongRational(long num, long denom, long commonDivisor) {
+        if (denom == 0)
+            throw new ArithmeticException("Zero denominator.");
+        if (denom < 0) {
+            num = Math.negateExact(num);
+            denom = Math.negateExact(denom);
+        }
+        if (commonDivisor > 1) {
+            num /= commonDivisor;
+            denom /= commonDivisor;
+        }
+        this.num = num;
+        this.denom = denom;
+    }
+
+    /**
+     * Make a value that is already known to be in lowest terms, skipping
+     * the gcd.
+     */
+    private static LongRational reduced(long num, long denom) {
+        return new LongRational(num, denom, 1);
+    }
+
+    public long getNum() {
+        return num;
+    }
+
+    public long getDenom() {
+        return denom;
+    }
+
+    public LongRational whole(long wholeValue) {
+        return reduced(wholeValue, 1);
+    }
+
+    @Override
+    public LongRational add(LongRational summand) {
+        if (denom == summand.denom)
+            return new LongRational(Math.addExact(num, summand.num), denom);
+        // Scale by the cofactors of the gcd of the denominators rather than
+        // by the full denominators to keep the intermediate values small.
+        long denomGcd = CommonMath.gcd(denom, summand.denom);
+        long scale = summand.denom / denomGcd;
+        long summandScale = denom / denomGcd;
+        return new LongRational(
+                Math.addExact(Math.multiplyExact(num, scale), Math.multiplyExact(summand.num, summandScale)),
+                Math.multiplyExact(denom, scale));
+    }
+
+    @Override
+    public LongRational subtract(LongRational summand) {
+        if (denom == summand.denom)
+            return new LongRational(Math.subtractExact(num, summand.num), denom);
+        long denomGcd = CommonMath.gcd(denom, summand.denom);
+        long scale = summand.denom / denomGcd;
+        long summandScale = denom / denomGcd;
+        return new LongRational(
+                Math.subtractExact(Math.multiplyExact(num, scale), Math.multiplyExact(summand.num, summandScale)),
+                Math.multiplyExact(denom, scale));
+    }
+
+    @Override
+    public LongRational additiveInverse() {
+        return reduced(Math.negateExact(num), denom);
+    }
+
+    /**
+     * Multiply this com.numbers.LongRational by another.
+     *
+     * Both values are in lowest terms, so cancelling each numerator against
+     * the other denominator first gives a product in lowest terms, with no
+     * further gcd needed and with the smallest possible intermediate values.
+     */
+    @Override
+    public LongRational multiply(LongRational scalar) {
+        if (num == 0 || scalar.num == 0)
+            return ZERO;
+        long gcd1 = CommonMath.gcd(num, scalar.denom);
+        long gcd2 = CommonMath.gcd(scalar.num, denom);
+        return reduced(
+                Math.multiplyExact(num / gcd1, scalar.num / gcd2),
+                Math.multiplyExact(denom / gcd2, scalar.denom / gcd1));
+    }
+
+    @Override
+    public LongRational divide(LongRational divisor) {
+        if (divisor.num == 0)
+            throw new ArithmeticException("Divide by zero.");
+        return multiply(divisor.reciprocal());
+    }
+
+    public LongRational reciprocal() {
+        if (num == 0)
+            throw new ArithmeticException("Divide by zero.");
+        if (num < 0)
+            return reduced(Math.negateExact(denom), Math.negateExact(num));
+        return reduced(denom, num);
+    }
+
+    /**
+     * Get a common divisor of this com.numbers.LongRational and another.
+     *
+     * As with com.numbers.Fraction, every nonzero value divides every other
+     * value, so this returns one. As for com.numbers.WholeNumber, the common
+     * divisor of two zeros is also one.
+     */
+    @Override
+    public LongRational commonDivisor(LongRational m2) {
+        return ONE;
+    }
+
+    @Override
+    public int compareTo(LongRational m2) {
+        if (denom == m2.denom)
+            return Long.compare(num, m2.num);
+        // Both denominators are positive, so cross-multiplying keeps the order.
+        return CommonMath.compareProducts(num, m2.denom, m2.num, denom);
+    }
+
+    @Override
+    public int compareToZero() {
+        return Long.signum(num);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof LongRational value2))
+            return false;
+        return num == value2.num && denom == value2.denom;
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(CommonMath.fingerprint(0, num), denom);
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return Math.max(CommonMath.magnitudeBits(num), CommonMath.magnitudeBits(denom));
+    }
+
+    @Override
+    public double toDouble() {
+        return (double) num / denom;
+    }
+
+    @Override
+    public String toString() {
+        if (denom == 1)
+            return "" + num;
+        return String.format("%d / %d", num, denom);
+    }
+
+    public LongRational one() {
+        return ONE;
+    }
+    public LongRational two() {
+        return TWO;
+    }
+    public LongRational three() {
+        return THREE;
+    }
+    public LongRational four() {
+        return FOUR;
+    }
+    public LongRational five() {
+        return FIVE;
+    }
+    public LongRational six() {
+        return SIX;
+    }
+
+    /**
+     * Return a value representing sqrt(3).
+     *
+     * As for com.numbers.WholeNumber, multiples of sqrt(3) are represented
+     * the same way as whole numbers.
+     * @return a representation of sqrt(3).
+     */
+    public LongRational rt3() {
+        return ONE;
+    }
+    public LongRational twoRt3() {
+        return TWO;
+    }
+    public LongRational threeRt3() {
+        return THREE;
+    }
+}
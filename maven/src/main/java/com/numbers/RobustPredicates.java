@@ -0,0 +1,125 @@
+package com.numbers;
+
+/**
+ * Adaptive exact geometric predicates on doubles.
+ *
+ * Each predicate first evaluates its determinant in plain double
+ * arithmetic together with a rigorous forward error bound, following
+ * Shewchuk's "Adaptive Precision Floating-Point Arithmetic and Fast Robust
+ * Geometric Predicates". Only when the bound cannot certify the sign is the
+ * determinant recomputed exactly, as a nonoverlapping expansion of doubles
+ * built from error-free products and sums.
+ */
+public final class RobustPredicates {
+    // Half an ulp of 1.0: the relative error bound of a rounded operation.
+    private static final double EPSILON = Math.ulp(1.0) / 2;
+    private static final double ORIENT_ERROR_BOUND = (3.0 + 16.0 * EPSILON) * EPSILON;
+    private static final double CROSS_ERROR_BOUND = (2.0 + 8.0 * EPSILON) * EPSILON;
+
+    private RobustPredicates() {
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors a->b and a->c.
+     *
+     * @return 1 if c is to the left of the directed line through a and b,
+     *  -1 if it is to the right and 0 if the three points are collinear.
+     */
+    public static int orient2d(double ax, double ay, double bx, double by, double cx, double cy) {
+        double left = (bx - ax) * (cy - ay);
+        double right = (by - ay) * (cx - ax);
+        double det = left - right;
+        double detSum = Math.abs(left) + Math.abs(right);
+        if (Math.abs(det) > ORIENT_ERROR_BOUND * detSum)
+            return (int) Math.signum(det);
+        return orient2dExact(ax, ay, bx, by, cx, cy);
+    }
+
+    public static int orient2d(DoubleRep ax, DoubleRep ay, DoubleRep bx, DoubleRep by,
+                               DoubleRep cx, DoubleRep cy) {
+        return orient2d(ax.value, ay.value, bx.value, by.value, cx.value, cy.value);
+    }
+
+    /**
+     * Get the sign of the cross product x1 * y2 - y1 * x2.
+     */
+    public static int crossSign(double x1, double y1, double x2, double y2) {
+        double left = x1 * y2;
+        double right = y1 * x2;
+        double det = left - right;
+        if (Math.abs(det) > CROSS_ERROR_BOUND * (Math.abs(left) + Math.abs(right)))
+            return (int) Math.signum(det);
+        double[] expansion = new double[4];
+        int length = 0;
+        length = addProduct(expansion, length, x1, y2);
+        length = addProduct(expansion, length, -y1, x2);
+        return sign(expansion, length);
+    }
+
+    public static int crossSign(DoubleRep x1, DoubleRep y1, DoubleRep x2, DoubleRep y2) {
+        return crossSign(x1.value, y1.value, x2.value, y2.value);
+    }
+
+    /**
+     * Evaluate orient2d exactly.
+     *
+     * The determinant is expanded into six products of input coordinates,
+     * each of which is split exactly into two doubles, so no subtraction of
+     * inputs is ever rounded.
+     */
+    static int orient2dExact(double ax, double ay, double bx, double by, double cx, double cy) {
+        double[] expansion = new double[12];
+        int length = 0;
+        length = addProduct(expansion, length, ax, by);
+        length = addProduct(expansion, length, -ax, cy);
+        length = addProduct(expansion, length, -ay, bx);
+        length = addProduct(expansion, length, ay, cx);
+        length = addProduct(expansion, length, bx, cy);
+        length = addProduct(expansion, length, -by, cx);
+        return sign(expansion, length);
+    }
+
+    /**
+     * Add the exact product a * b to the expansion.
+     */
+    private static int addProduct(double[] expansion, int length, double a, double b) {
+        double product = a * b;
+        double error = Math.fma(a, b, -product);
+        length = grow(expansion, length, error);
+        return grow(expansion, length, product);
+    }
+
+    /**
+     * Add b to the nonoverlapping expansion of the given length.
+     *
+     * This is Shewchuk's GROW-EXPANSION with zero elimination. The
+     * components stay nonoverlapping and sorted by increasing magnitude.
+     * @return the new length of the expansion.
+     */
+    private static int grow(double[] expansion, int length, double b) {
+        double q = b;
+        int newLength = 0;
+        for (int i = 0; i < length; i++) {
+            double sum = q + expansion[i];
+            double bVirtual = sum - q;
+            double aVirtual = sum - bVirtual;
+            double error = (q - aVirtual) + (expansion[i] - bVirtual);
+            q = sum;
+            if (error != 0)
+                expansion[newLength++] = error;
+        }
+        if (q != 0)
+            expansion[newLength++] = q;
+        return newLength;
+    }
+
+    /**
+     * The sign of a nonoverlapping expansion is the sign of its largest
+     * component.
+     */
+    private static int sign(double[] expansion, int length) {
+        if (length == 0)
+            return 0;
+        return (int) Math.signum(expansion[length - 1]);
+    }
+}
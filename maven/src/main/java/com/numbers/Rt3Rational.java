@@ -0,0 +1,245 @@
+package com.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Class for precisely handling arithmetic on com.numbers of the form
+ *      (a + b * sqrt(3)) / c
+ * where a, b and c are longs.
+ *
+ * This stores the same values as com.numbers.Fraction of
+ * com.numbers.WholeAndRt3 but in a single flat object with an integer
+ * denominator. Values are always kept in canonical form: c is positive and
+ * gcd(a, b, c) is 1, so two values are equal iff their fields are equal.
+ *
+ * Arithmetic is checked and throws an ArithmeticException on overflow.
+ * Comparisons are exact and never throw.
+ */
+public class Rt3Rational extends AbstractNumber<Rt3Rational> {
+    public static final Rt3Rational ZERO = new Rt3Rational(0, 0, 1);
+    public static final Rt3Rational ONE = new Rt3Rational(1, 0, 1);
+    private static final Rt3Rational TWO = new Rt3Rational(2, 0, 1);
+    private static final Rt3Rational THREE = new Rt3Rational(3, 0, 1);
+    private static final Rt3Rational FOUR = new Rt3Rational(4, 0, 1);
+    private static final Rt3Rational FIVE = new Rt3Rational(5, 0, 1);
+    private static final Rt3Rational SIX = new Rt3Rational(6, 0, 1);
+    private static final Rt3Rational RT3 = new Rt3Rational(0, 1, 1);
+    private static final Rt3Rational TWO_RT3 = new Rt3Rational(0, 2, 1);
+    private static final Rt3Rational THREE_RT3 = new Rt3Rational(0, 3, 1);
+
+    final long ones;
+    final long rt3;
+    final long denom;
+
+    /**
+     * Make the value (ones + rt3 * sqrt(3)) / denom in canonical form.
+     * @throws ArithmeticException if denom is zero.
+     */
+    public Rt3Rational(long ones, long rt3, long denom) {
+        if (denom == 0)
+            throw new ArithmeticException("Zero denominator.");
+        if (denom < 0) {
+            ones = Math.negateExact(ones);
+            rt3 = Math.negateExact(rt3);
+            denom = Math.negateExact(denom);
+        }
+        long commonDivisor = CommonMath.gcd(CommonMath.gcd(ones, rt3), denom);
+        if (commonDivisor > 1) {
+            ones /= commonDivisor;
+            rt3 /= commonDivisor;
+            denom /= commonDivisor;
+        }
+        this.ones = ones;
+        this.rt3 = rt3;
+        this.denom = denom;
+    }
+
+    public Rt3Rational(long ones, long rt3) {
+        this(ones, rt3, 1);
+    }
+
+    public long getOnes() {
+        return ones;
+    }
+
+    public long getRt3() {
+        return rt3;
+    }
+
+    public long getDenom() {
+        return denom;
+    }
+
+    public Rt3Rational whole(long wholeValue) {
+        return new Rt3Rational(wholeValue, 0, 1);
+    }
+
+    @Override
+    public Rt3Rational add(Rt3Rational summand) {
+        if (denom == summand.denom) {
+            return new Rt3Rational(Math.addExact(ones, summand.ones),
+                    Math.addExact(rt3, summand.rt3), denom);
+        }
+        // Scale by the cofactors of the gcd of the denominators rather than
+        // by the full denominators to keep the intermediate values small.
+        long denomGcd = CommonMath.gcd(denom, summand.denom);
+        long scale = summand.denom / denomGcd;
+        long summandScale = denom / denomGcd;
+        return new Rt3Rational(
+                Math.addExact(Math.multiplyExact(ones, scale), Math.multiplyExact(summand.ones, summandScale)),
+                Math.addExact(Math.multiplyExact(rt3, scale), Math.multiplyExact(summand.rt3, summandScale)),
+                Math.multiplyExact(denom, scale));
+    }
+
+    @Override
+    public Rt3Rational subtract(Rt3Rational summand) {
+        return add(summand.additiveInverse());
+    }
+
+    @Override
+    public Rt3Rational additiveInverse() {
+        return new Rt3Rational(Math.negateExact(ones), Math.negateExact(rt3), denom);
+    }
+
+    @Override
+    public Rt3Rational multiply(Rt3Rational scalar) {
+        return new Rt3Rational(
+                WholeAndRt3Kernel.multiplyOnes(ones, rt3, scalar.ones, scalar.rt3),
+                WholeAndRt3Kernel.multiplyRt3(ones, rt3, scalar.ones, scalar.rt3),
+                Math.multiplyExact(denom, scalar.denom));
+    }
+
+    /**
+     * Divide this com.numbers.Rt3Rational by another.
+     *
+     * The divisor is rationalized by multiplying the numerator and the
+     * denominator by the conjugate of the divisor's numerator.
+     * @param divisor: the value to divide by.
+     * @return the quotient.
+     */
+    @Override
+    public Rt3Rational divide(Rt3Rational divisor) {
+        if (divisor.compareToZero() == 0)
+            throw new ArithmeticException("Divide by zero.");
+        if (divisor.rt3 == 0) {
+            return new Rt3Rational(Math.multiplyExact(ones, divisor.denom),
+                    Math.multiplyExact(rt3, divisor.denom),
+                    Math.multiplyExact(denom, divisor.ones));
+        }
+        // (a + b * sqrt(3)) / c divided by (d + e * sqrt(3)) / f is
+        // (a + b * sqrt(3)) * (d - e * sqrt(3)) * f / (c * (d^2 - 3 * e^2)).
+        long conjugateRt3 = Math.negateExact(divisor.rt3);
+        long norm = WholeAndRt3Kernel.multiplyOnes(divisor.ones, divisor.rt3, divisor.ones, conjugateRt3);
+        return new Rt3Rational(
+                Math.multiplyExact(WholeAndRt3Kernel.multiplyOnes(ones, rt3, divisor.ones, conjugateRt3),
+                        divisor.denom),
+                Math.multiplyExact(WholeAndRt3Kernel.multiplyRt3(ones, rt3, divisor.ones, conjugateRt3),
+                        divisor.denom),
+                Math.multiplyExact(denom, norm));
+    }
+
+    /**
+     * Get a common divisor of this com.numbers.Rt3Rational and another.
+     *
+     * As with com.numbers.Fraction, every nonzero value divides every other
+     * value, so this returns one unless both values are zero.
+     */
+    @Override
+    public Rt3Rational commonDivisor(Rt3Rational m2) {
+        if (this.compareToZero() == 0 && m2.compareToZero() == 0)
+            return this;
+        return ONE;
+    }
+
+    @Override
+    public int compareTo(Rt3Rational m2) {
+        if (denom == m2.denom)
+            return WholeAndRt3Kernel.compare(ones, rt3, m2.ones, m2.rt3);
+        // Both denominators are positive, so cross-multiplying keeps the order.
+        long aOnes = ones * m2.denom;
+        long aRt3 = rt3 * m2.denom;
+        long bOnes = m2.ones * denom;
+        long bRt3 = m2.rt3 * denom;
+        if (Math.multiplyHigh(ones, m2.denom) != (aOnes >> 63)
+                || Math.multiplyHigh(rt3, m2.denom) != (aRt3 >> 63)
+                || Math.multiplyHigh(m2.ones, denom) != (bOnes >> 63)
+                || Math.multiplyHigh(m2.rt3, denom) != (bRt3 >> 63)) {
+            BigInteger thisDenom = BigInteger.valueOf(denom);
+            BigInteger otherDenom = BigInteger.valueOf(m2.denom);
+            return WholeAndRt3Kernel.wideSign(
+                    BigInteger.valueOf(ones).multiply(otherDenom)
+                            .subtract(BigInteger.valueOf(m2.ones).multiply(thisDenom)),
+                    BigInteger.valueOf(rt3).multiply(otherDenom)
+                            .subtract(BigInteger.valueOf(m2.rt3).multiply(thisDenom)));
+        }
+        return WholeAndRt3Kernel.compare(aOnes, aRt3, bOnes, bRt3);
+    }
+
+    @Override
+    public int compareToZero() {
+        return WholeAndRt3Kernel.sign(ones, rt3);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Rt3Rational value2))
+            return false;
+        return ones == value2.ones && rt3 == value2.rt3 && denom == value2.denom;
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(CommonMath.fingerprint(CommonMath.fingerprint(0, ones), rt3), denom);
+    }
+
+    @Override
+    public Rt3Rational conjugate() {
+        return new Rt3Rational(ones, Math.negateExact(rt3), denom);
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return Math.max(Math.max(CommonMath.magnitudeBits(ones), CommonMath.magnitudeBits(rt3)),
+                CommonMath.magnitudeBits(denom));
+    }
+
+    @Override
+    public double toDouble() {
+        return (ones + Math.sqrt(3) * rt3) / denom;
+    }
+
+    @Override
+    public String toString() {
+        if (denom == 1)
+            return String.format("(%d + %d * sqrt(3))", ones, rt3);
+        return String.format("(%d + %d * sqrt(3)) / %d", ones, rt3, denom);
+    }
+
+    public Rt3Rational one() {
+        return ONE;
+    }
+    public Rt3Rational two() {
+        return TWO;
+    }
+    public Rt3Rational three() {
+        return THREE;
+    }
+    public Rt3Rational four() {
+        return FOUR;
+    }
+    public Rt3Rational five() {
+        return FIVE;
+    }
+    public Rt3Rational six() {
+        return SIX;
+    }
+    public Rt3Rational rt3() {
+        return RT3;
+    }
+    public Rt3Rational twoRt3() {
+        return TWO_RT3;
+    }
+    public Rt3Rational threeRt3() {
+        return THREE_RT3;
+    }
+}
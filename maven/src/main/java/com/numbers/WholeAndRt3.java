@@ -6,9 +6,6 @@ package com.numbers;
  * where a and b are integers.
  */
 public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
-    private static final String PRECISION_ERROR =
-            "The rational over and under approximations of sqrt(3) are not " +
-                    "sufficiently precise to compare %s and %s.";
     private static final String DIVISION_ERROR =
             "Non-integer division of %s by %s";
     private static final long RT3_OVER_APPROX_NUMERATOR = 262087;
@@ -18,9 +15,17 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
     private static final long RT = 3;
     public static final WholeAndRt3 ZERO = new WholeAndRt3(0, 0);
     public static final WholeAndRt3 ONE = new WholeAndRt3(1, 0);
+    private static final WholeAndRt3 TWO = new WholeAndRt3(2, 0);
+    private static final WholeAndRt3 THREE = new WholeAndRt3(3, 0);
+    private static final WholeAndRt3 FOUR = new WholeAndRt3(4, 0);
+    private static final WholeAndRt3 FIVE = new WholeAndRt3(5, 0);
+    private static final WholeAndRt3 SIX = new WholeAndRt3(6, 0);
+    private static final WholeAndRt3 RT3 = new WholeAndRt3(0, 1);
+    private static final WholeAndRt3 TWO_RT3 = new WholeAndRt3(0, 2);
+    private static final WholeAndRt3 THREE_RT3 = new WholeAndRt3(0, 3);
 
-    long ones;
-    long rt3;
+    final long ones;
+    final long rt3;
     public WholeAndRt3(long ones, long rt3) {
         this.ones = ones;
         this.rt3 = rt3;
@@ -32,19 +37,14 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
 
     @Override
     public WholeAndRt3 add(WholeAndRt3 summand) {
-        if (CommonMath.additionWillOverflow(ones, summand.ones) ||
-                CommonMath.additionWillOverflow(rt3, summand.rt3))
-            throw new RuntimeException("Addition overflow or underflow.");
-        return new WholeAndRt3(ones + summand.ones, rt3 + summand.rt3);
+        return new WholeAndRt3(WholeAndRt3Kernel.add(ones, summand.ones),
+                WholeAndRt3Kernel.add(rt3, summand.rt3));
     }
 
     @Override
     public WholeAndRt3 subtract(WholeAndRt3 summand) {
-        if (summand.ones == Long.MIN_VALUE || summand.rt3 == Long.MIN_VALUE
-                || CommonMath.additionWillOverflow(ones, -summand.ones)
-                || CommonMath.additionWillOverflow(rt3, -summand.rt3))
-            throw new RuntimeException("Subtraction overflow or underflow.");
-        return new WholeAndRt3(ones - summand.ones, rt3 - summand.rt3);
+        return new WholeAndRt3(WholeAndRt3Kernel.subtract(ones, summand.ones),
+                WholeAndRt3Kernel.subtract(rt3, summand.rt3));
     }
 
     @Override
@@ -56,24 +56,9 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
 
     @Override
     public WholeAndRt3 multiply(WholeAndRt3 scalar) {
-        if (CommonMath.multiplicationWillOverflow(ones, scalar.ones)) {
-            System.out.printf("Overflowing ones: %d * %d\n", ones, scalar.ones);
-        }
-        if (CommonMath.multiplicationWillOverflow(rt3, scalar.rt3)) {
-            System.out.printf("Overflowing rt3: %d * %d\n", rt3, scalar.rt3);
-        }
-        if (CommonMath.multiplicationWillOverflow(ones, scalar.ones)
-                || CommonMath.multiplicationWillOverflow(rt3, scalar.rt3)
-                || CommonMath.multiplicationWillOverflow(rt3 * scalar.rt3, RT)
-                || CommonMath.multiplicationWillOverflow(ones, scalar.rt3)
-                || CommonMath.multiplicationWillOverflow(rt3, scalar.ones)
-                || CommonMath.additionWillOverflow(ones * scalar.ones,
-                    RT * rt3 * scalar.rt3)
-                || CommonMath.additionWillOverflow(ones * scalar.rt3,
-                    rt3 * scalar.ones))
-            throw new RuntimeException("Multiplication overflow or underflow.");
-        return new WholeAndRt3(ones * scalar.ones + RT * rt3 * scalar.rt3,
-                ones * scalar.rt3 + rt3 * scalar.ones);
+        return new WholeAndRt3(
+                WholeAndRt3Kernel.multiplyOnes(ones, rt3, scalar.ones, scalar.rt3),
+                WholeAndRt3Kernel.multiplyRt3(ones, rt3, scalar.ones, scalar.rt3));
     }
 
     /**
@@ -89,8 +74,14 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
     public WholeAndRt3 divide(WholeAndRt3 divisor) {
         WholeAndRt3 result;
         if (divisor.rt3 == 0) {
-            result = new WholeAndRt3(
-                    ones / divisor.ones, rt3 / divisor.ones);
+            // Integer divisors are checked by their remainders, which is
+            // much cheaper than multiplying back.
+            if (divisor.ones == 0 || ones % divisor.ones != 0 || rt3 % divisor.ones != 0)
+                throw new ArithmeticException(
+                        String.format(DIVISION_ERROR, this, divisor));
+            if (divisor.ones == -1)
+                return additiveInverse();
+            return new WholeAndRt3(ones / divisor.ones, rt3 / divisor.ones);
         } else if (this.equals(ZERO)) {
             result = ZERO;
         } else {
@@ -186,80 +177,18 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
     }
 
     /**
-     * Compare two WholeAndRt3s using rational approximations of sqrt(3).
+     * Compare two WholeAndRt3s exactly.
+     *
+     * a + b * sqrt(3) is compared with zero by comparing a^2 with 3 * b^2
+     * in 128-bit arithmetic, so this never throws.
      * @param m2: the magnitude to compare against.
-     * @return -1 if this com.numbers.WholeAndRt3 is definitely smaller than m2, 0 if this
-     *  com.numbers.WholeAndRt3 is definitely equal to m2, 1 if this com.numbers.WholeAndRt3 is definitely
-     *  larger than m2. Throws an ArithmeticException otherwise.
+     * @return -1 if this com.numbers.WholeAndRt3 is smaller than m2, 0 if this
+     *  com.numbers.WholeAndRt3 is equal to m2, 1 if this com.numbers.WholeAndRt3 is
+     *  larger than m2.
      */
     @Override
     public int compareTo(WholeAndRt3 m2) {
-        if (ones == m2.ones && rt3 == m2.rt3)
-            return 0;
-        checkLessThanOverflow(m2);
-        long summedOverApproxNumerator = ones * RT3_OVER_APPROX_DENOMINATOR
-                + rt3 * RT3_OVER_APPROX_NUMERATOR;
-        long summedUnderApproxNumerator2 = m2.ones * RT3_UNDER_APPROX_DENOMINATOR
-                + m2.rt3 * RT3_UNDER_APPROX_NUMERATOR;
-        if (summedOverApproxNumerator * RT3_UNDER_APPROX_DENOMINATOR
-                < summedUnderApproxNumerator2 * RT3_OVER_APPROX_DENOMINATOR)
-            return -1;
-        checkGreaterThanOverflow(m2);
-        long summedUnderApproxNumerator = ones * RT3_UNDER_APPROX_DENOMINATOR
-                + rt3 * RT3_UNDER_APPROX_NUMERATOR;
-        long summedOverApproxNumerator2 = m2.ones * RT3_OVER_APPROX_DENOMINATOR
-                + m2.rt3 * RT3_OVER_APPROX_NUMERATOR;
-        if (summedOverApproxNumerator2 * RT3_UNDER_APPROX_DENOMINATOR
-                < summedUnderApproxNumerator * RT3_OVER_APPROX_DENOMINATOR)
-            return 1;
-        throw new ArithmeticException(
-                String.format(PRECISION_ERROR, this, m2));
-    }
-    private void checkLessThanOverflow(WholeAndRt3 m2) {
-        if (CommonMath.multiplicationWillOverflow(ones, RT3_OVER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(rt3, RT3_OVER_APPROX_NUMERATOR)
-                || CommonMath.additionWillOverflow(
-                ones * RT3_OVER_APPROX_DENOMINATOR,
-                rt3 * RT3_OVER_APPROX_NUMERATOR))
-            throw new RuntimeException("Comparison overflow.");
-        if (CommonMath.multiplicationWillOverflow(m2.ones, RT3_UNDER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(m2.rt3, RT3_UNDER_APPROX_NUMERATOR)
-                || CommonMath.additionWillOverflow(
-                m2.ones * RT3_UNDER_APPROX_DENOMINATOR,
-                m2.rt3 * RT3_UNDER_APPROX_NUMERATOR))
-            throw new RuntimeException("Comparison overflow.");
-        long summedOverApproxNumerator = ones * RT3_OVER_APPROX_DENOMINATOR
-                + rt3 * RT3_OVER_APPROX_NUMERATOR;
-        long summedUnderApproxNumerator2 = m2.ones * RT3_UNDER_APPROX_DENOMINATOR
-                + m2.rt3 * RT3_UNDER_APPROX_NUMERATOR;
-        if (CommonMath.multiplicationWillOverflow(
-                summedOverApproxNumerator, RT3_UNDER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(
-                summedUnderApproxNumerator2, RT3_OVER_APPROX_DENOMINATOR))
-            throw new RuntimeException("Comparison overflow.");
-    }
-    private void checkGreaterThanOverflow(WholeAndRt3 m2) {
-        if (CommonMath.multiplicationWillOverflow(ones, RT3_UNDER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(rt3, RT3_UNDER_APPROX_NUMERATOR)
-                || CommonMath.additionWillOverflow(
-                        ones * RT3_UNDER_APPROX_DENOMINATOR,
-                        rt3 * RT3_UNDER_APPROX_NUMERATOR))
-            throw new RuntimeException("Comparison overflow.");
-        if (CommonMath.multiplicationWillOverflow(m2.ones, RT3_OVER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(m2.rt3, RT3_OVER_APPROX_NUMERATOR)
-                || CommonMath.additionWillOverflow(
-                m2.ones * RT3_OVER_APPROX_DENOMINATOR,
-                m2.rt3 * RT3_OVER_APPROX_NUMERATOR))
-            throw new RuntimeException("Comparison overflow.");
-        long summedUnderApproxNumerator = ones * RT3_UNDER_APPROX_DENOMINATOR
-                + rt3 * RT3_UNDER_APPROX_NUMERATOR;
-        long summedOverApproxNumerator2 = m2.ones * RT3_OVER_APPROX_DENOMINATOR
-                + m2.rt3 * RT3_OVER_APPROX_NUMERATOR;
-        if (CommonMath.multiplicationWillOverflow(
-                summedOverApproxNumerator2, RT3_UNDER_APPROX_DENOMINATOR)
-                || CommonMath.multiplicationWillOverflow(
-                summedUnderApproxNumerator, RT3_OVER_APPROX_DENOMINATOR))
-            throw new RuntimeException("Comparison overflow.");
+        return WholeAndRt3Kernel.compare(ones, rt3, m2.ones, m2.rt3);
     }
 
     @Override
@@ -271,12 +200,30 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
     public boolean equals(Object o) {
         if (!(o instanceof WholeAndRt3 value2))
             return false;
-        return compareTo(value2) == 0;
+        // sqrt(3) is irrational, so the representation is unique.
+        return ones == value2.ones && rt3 == value2.rt3;
+    }
+
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(CommonMath.fingerprint(0, ones), rt3);
+    }
+
+    @Override
+    public WholeAndRt3 conjugate() {
+        if (rt3 == Long.MIN_VALUE)
+            throw new RuntimeException("Conjugate will overflow.");
+        return new WholeAndRt3(ones, -rt3);
     }
 
     @Override
     public int compareToZero() {
-        return this.compareTo(ZERO);
+        return WholeAndRt3Kernel.sign(ones, rt3);
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return Math.max(CommonMath.magnitudeBits(ones), CommonMath.magnitudeBits(rt3));
     }
 
     @Override
@@ -299,31 +246,47 @@ public class WholeAndRt3 extends AbstractNumber<WholeAndRt3> {
         return rt3Part.add(new Fraction<>(new WholeNumber(ones), WholeNumber.ONE));
     }
 
+    /**
+     * Get the same lower bound as lower, as a com.numbers.LongRational.
+     */
+    public LongRational lowerRational() {
+        return new LongRational(Math.multiplyExact(rt3, RT3_UNDER_APPROX_NUMERATOR), RT3_UNDER_APPROX_DENOMINATOR)
+                .add(new LongRational(ones));
+    }
+
+    /**
+     * Get the same upper bound as upper, as a com.numbers.LongRational.
+     */
+    public LongRational upperRational() {
+        return new LongRational(Math.multiplyExact(rt3, RT3_OVER_APPROX_NUMERATOR), RT3_OVER_APPROX_DENOMINATOR)
+                .add(new LongRational(ones));
+    }
+
     public WholeAndRt3 one() {
-        return new WholeAndRt3(1, 0);
+        return ONE;
     }
     public WholeAndRt3 two() {
-        return new WholeAndRt3(2, 0);
+        return TWO;
     }
     public WholeAndRt3 three() {
-        return new WholeAndRt3(3, 0);
+        return THREE;
     }
     public WholeAndRt3 four() {
-        return new WholeAndRt3(4, 0);
+        return FOUR;
     }
     public WholeAndRt3 five() {
-        return new WholeAndRt3(5, 0);
+        return FIVE;
     }
     public WholeAndRt3 six() {
-        return new WholeAndRt3(6, 0);
+        return SIX;
     }
     public WholeAndRt3 rt3() {
-        return new WholeAndRt3(0, 1);
+        return RT3;
     }
     public WholeAndRt3 twoRt3() {
-        return new WholeAndRt3(0, 2);
+        return TWO_RT3;
     }
     public WholeAndRt3 threeRt3() {
-        return new WholeAndRt3(0, 3);
+        return THREE_RT3;
     }
 }
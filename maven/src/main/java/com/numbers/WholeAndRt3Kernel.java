@@ -0,0 +1,226 @@
+package com.numbers;
+
+import java.math.BigInteger;
+
+/**
+ * Allocation-free arithmetic on numbers of the form
+ *      ones + rt3 * sqrt(3)
+ * where ones and rt3 are longs.
+ *
+ * The scalar methods operate directly on (ones, rt3) pairs and return a
+ * single component or a sign, so that hot loops never create intermediate
+ * com.numbers.WholeAndRt3 objects. The buffer methods operate on packed
+ * long[] buffers where element k occupies buffer[2k] (the integer part)
+ * and buffer[2k+1] (the sqrt(3) part).
+ *
+ * Arithmetic operations are checked and throw an ArithmeticException on
+ * overflow. Sign and comparison operations are exact and never throw.
+ */
+public final class WholeAndRt3Kernel {
+    private static final long RT = 3;
+
+    private WholeAndRt3Kernel() {
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Get the integer part of (aOnes + aRt3 * sqrt(3)) * (bOnes + bRt3 * sqrt(3)).
+     */
+    public static long multiplyOnes(long aOnes, long aRt3, long bOnes, long bRt3) {
+        return Math.addExact(Math.multiplyExact(aOnes, bOnes),
+                Math.multiplyExact(RT, Math.multiplyExact(aRt3, bRt3)));
+    }
+
+    /**
+     * Get the sqrt(3) part of (aOnes + aRt3 * sqrt(3)) * (bOnes + bRt3 * sqrt(3)).
+     */
+    public static long multiplyRt3(long aOnes, long aRt3, long bOnes, long bRt3) {
+        return Math.addExact(Math.multiplyExact(aOnes, bRt3),
+                Math.multiplyExact(aRt3, bOnes));
+    }
+
+    /**
+     * Get the integer part of the cross product x1 * y2 - y1 * x2 of the
+     * vectors (x1, y1) and (x2, y2).
+     */
+    public static long crossOnes(long x1Ones, long x1Rt3, long y1Ones, long y1Rt3,
+                                 long x2Ones, long x2Rt3, long y2Ones, long y2Rt3) {
+        return subtract(
+                multiplyOnes(x1Ones, x1Rt3, y2Ones, y2Rt3),
+                multiplyOnes(y1Ones, y1Rt3, x2Ones, x2Rt3));
+    }
+
+    /**
+     * Get the sqrt(3) part of the cross product x1 * y2 - y1 * x2 of the
+     * vectors (x1, y1) and (x2, y2).
+     */
+    public static long crossRt3(long x1Ones, long x1Rt3, long y1Ones, long y1Rt3,
+                                long x2Ones, long x2Rt3, long y2Ones, long y2Rt3) {
+        return subtract(
+                multiplyRt3(x1Ones, x1Rt3, y2Ones, y2Rt3),
+                multiplyRt3(y1Ones, y1Rt3, x2Ones, x2Rt3));
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors (x1, y1) and (x2, y2).
+     */
+    public static int crossSign(long x1Ones, long x1Rt3, long y1Ones, long y1Rt3,
+                                long x2Ones, long x2Rt3, long y2Ones, long y2Rt3) {
+        return sign(
+                crossOnes(x1Ones, x1Rt3, y1Ones, y1Rt3, x2Ones, x2Rt3, y2Ones, y2Rt3),
+                crossRt3(x1Ones, x1Rt3, y1Ones, y1Rt3, x2Ones, x2Rt3, y2Ones, y2Rt3));
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors a->b and a->c.
+     *
+     * @return 1 if c is to the left of the directed line through a and b,
+     *  -1 if it is to the right and 0 if the three points are collinear.
+     */
+    public static int orientation(WholeAndRt3 ax, WholeAndRt3 ay,
+                                  WholeAndRt3 bx, WholeAndRt3 by,
+                                  WholeAndRt3 cx, WholeAndRt3 cy) {
+        return crossSign(
+                subtract(bx.ones, ax.ones), subtract(bx.rt3, ax.rt3),
+                subtract(by.ones, ay.ones), subtract(by.rt3, ay.rt3),
+                subtract(cx.ones, ax.ones), subtract(cx.rt3, ax.rt3),
+                subtract(cy.ones, ay.ones), subtract(cy.rt3, ay.rt3));
+    }
+
+    /**
+     * Get the sign of the cross product of the vectors (x1, y1) and (x2, y2).
+     */
+    public static int crossSign(WholeAndRt3 x1, WholeAndRt3 y1,
+                                WholeAndRt3 x2, WholeAndRt3 y2) {
+        return crossSign(x1.ones, x1.rt3, y1.ones, y1.rt3,
+                x2.ones, x2.rt3, y2.ones, y2.rt3);
+    }
+
+    /**
+     * Get the sign of ones + rt3 * sqrt(3).
+     *
+     * The sign is exact for all long inputs and this never throws.
+     * @return -1, 0 or 1 as the value is negative, zero or positive.
+     */
+    public static int sign(long ones, long rt3) {
+        if (ones >= 0 && rt3 >= 0)
+            return (ones | rt3) == 0 ? 0 : 1;
+        if (ones <= 0 && rt3 <= 0)
+            return -1;
+        // The parts have opposite signs, so the part with the larger
+        // magnitude decides. ones^2 == 3 * rt3^2 only if both are zero.
+        return compareSquareToTripleSquare(ones, rt3) > 0
+                ? Long.signum(ones) : Long.signum(rt3);
+    }
+
+    /**
+     * Compare aOnes + aRt3 * sqrt(3) with bOnes + bRt3 * sqrt(3).
+     *
+     * The comparison is exact for all long inputs and this never throws.
+     * @return -1, 0 or 1 as the first value is less than, equal to or
+     *  greater than the second value.
+     */
+    public static int compare(long aOnes, long aRt3, long bOnes, long bRt3) {
+        long onesDiff = aOnes - bOnes;
+        long rt3Diff = aRt3 - bRt3;
+        if (((aOnes ^ bOnes) & (aOnes ^ onesDiff)) < 0
+                || ((aRt3 ^ bRt3) & (aRt3 ^ rt3Diff)) < 0) {
+            // The difference needs 65 bits. This is rare enough to not
+            // warrant a primitive implementation.
+            return wideSign(BigInteger.valueOf(aOnes).subtract(BigInteger.valueOf(bOnes)),
+                    BigInteger.valueOf(aRt3).subtract(BigInteger.valueOf(bRt3)));
+        }
+        return sign(onesDiff, rt3Diff);
+    }
+
+    /**
+     * Compare a^2 with 3 * b^2 using 128-bit unsigned intermediates.
+     *
+     * a^2 is at most 2^126 and 3 * b^2 is less than 2^128, so neither
+     * value overflows an unsigned 128-bit integer.
+     */
+    static int compareSquareToTripleSquare(long a, long b) {
+        long aSqHi = Math.multiplyHigh(a, a);
+        long aSqLo = a * a;
+        long bSqHi = Math.multiplyHigh(b, b);
+        long bSqLo = b * b;
+        // 3 * b^2 = b^2 + 2 * b^2.
+        long twoBSqLo = bSqLo << 1;
+        long twoBSqHi = (bSqHi << 1) | (bSqLo >>> 63);
+        long threeBSqLo = bSqLo + twoBSqLo;
+        long carry = Long.compareUnsigned(threeBSqLo, bSqLo) < 0 ? 1 : 0;
+        long threeBSqHi = bSqHi + twoBSqHi + carry;
+        int hiComparison = Long.compareUnsigned(aSqHi, threeBSqHi);
+        if (hiComparison != 0)
+            return hiComparison;
+        return Long.compareUnsigned(aSqLo, threeBSqLo);
+    }
+
+    /**
+     * Get the sign of ones + rt3 * sqrt(3) for arbitrarily large parts.
+     */
+    static int wideSign(BigInteger ones, BigInteger rt3) {
+        int onesSign = ones.signum();
+        int rt3Sign = rt3.signum();
+        if (onesSign == rt3Sign || rt3Sign == 0)
+            return onesSign;
+        if (onesSign == 0)
+            return rt3Sign;
+        int comparison = ones.multiply(ones).compareTo(
+                rt3.multiply(rt3).multiply(BigInteger.valueOf(RT)));
+        return comparison > 0 ? onesSign : rt3Sign;
+    }
+
+    public static void add(long[] buffer, int dst, int a, int b) {
+        long ones = add(buffer[2 * a], buffer[2 * b]);
+        long rt3 = add(buffer[2 * a + 1], buffer[2 * b + 1]);
+        buffer[2 * dst] = ones;
+        buffer[2 * dst + 1] = rt3;
+    }
+
+    public static void subtract(long[] buffer, int dst, int a, int b) {
+        long ones = subtract(buffer[2 * a], buffer[2 * b]);
+        long rt3 = subtract(buffer[2 * a + 1], buffer[2 * b + 1]);
+        buffer[2 * dst] = ones;
+        buffer[2 * dst + 1] = rt3;
+    }
+
+    public static void multiply(long[] buffer, int dst, int a, int b) {
+        long aOnes = buffer[2 * a], aRt3 = buffer[2 * a + 1];
+        long bOnes = buffer[2 * b], bRt3 = buffer[2 * b + 1];
+        buffer[2 * dst] = multiplyOnes(aOnes, aRt3, bOnes, bRt3);
+        buffer[2 * dst + 1] = multiplyRt3(aOnes, aRt3, bOnes, bRt3);
+    }
+
+    /**
+     * Store the cross product of the vectors (x1, y1) and (x2, y2) at dst.
+     */
+    public static void cross(long[] buffer, int dst, int x1, int y1, int x2, int y2) {
+        long x1Ones = buffer[2 * x1], x1Rt3 = buffer[2 * x1 + 1];
+        long y1Ones = buffer[2 * y1], y1Rt3 = buffer[2 * y1 + 1];
+        long x2Ones = buffer[2 * x2], x2Rt3 = buffer[2 * x2 + 1];
+        long y2Ones = buffer[2 * y2], y2Rt3 = buffer[2 * y2 + 1];
+        buffer[2 * dst] = crossOnes(x1Ones, x1Rt3, y1Ones, y1Rt3, x2Ones, x2Rt3, y2Ones, y2Rt3);
+        buffer[2 * dst + 1] = crossRt3(x1Ones, x1Rt3, y1Ones, y1Rt3, x2Ones, x2Rt3, y2Ones, y2Rt3);
+    }
+
+    public static int sign(long[] buffer, int index) {
+        return sign(buffer[2 * index], buffer[2 * index + 1]);
+    }
+
+    public static void store(long[] buffer, int index, WholeAndRt3 value) {
+        buffer[2 * index] = value.ones;
+        buffer[2 * index + 1] = value.rt3;
+    }
+
+    public static WholeAndRt3 load(long[] buffer, int index) {
+        return new WholeAndRt3(buffer[2 * index], buffer[2 * index + 1]);
+    }
+}
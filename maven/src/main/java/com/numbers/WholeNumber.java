@@ -20,24 +20,17 @@ public class WholeNumber extends AbstractNumber<WholeNumber> {
 
     @Override
     public WholeNumber add(WholeNumber n2) {
-        if (CommonMath.additionWillOverflow(value, n2.value))
-            throw new RuntimeException("Addition will overflow.");
-        return new WholeNumber(value + n2.value);
+        return new WholeNumber(Math.addExact(value, n2.value));
     }
 
     @Override
     public WholeNumber subtract(WholeNumber n2) {
-        if (n2.value == Long.MIN_VALUE
-                || CommonMath.additionWillOverflow(value, -n2.value))
-            throw new RuntimeException("Subtraction will overflow.");
-        return new WholeNumber(value - n2.value);
+        return new WholeNumber(Math.subtractExact(value, n2.value));
     }
 
     @Override
     public WholeNumber multiply(WholeNumber n2) {
-        if (CommonMath.multiplicationWillOverflow(value, n2.value))
-            throw new RuntimeException("Multiplication will overflow.");
-        return new WholeNumber(value * n2.value);
+        return new WholeNumber(Math.multiplyExact(value, n2.value));
     }
 
     @Override
@@ -85,6 +78,16 @@ public class WholeNumber extends AbstractNumber<WholeNumber> {
         return false;
     }
 
+    @Override
+    public long fingerprint() {
+        return CommonMath.fingerprint(0, value);
+    }
+
+    @Override
+    public int magnitudeBits() {
+        return CommonMath.magnitudeBits(value);
+    }
+
     @Override
     public double toDouble() {
         return (double) value;
@@ -0,0 +1,102 @@
+import com.IntervalDistanceAssertion;
+import com.Point;
+import com.TrapezoidSequence;
+import com.numbers.DoubleInterval;
+import com.numbers.Fraction;
+import com.numbers.IndeterminateComparisonException;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+/**
+ * Tests for the com.numbers.DoubleInterval abstract number class operations
+ * and for com.IntervalDistanceAssertion.
+ */
+public class DoubleIntervalTests {
+
+    private static void assertEncloses(DoubleInterval interval, BigDecimal value) {
+        Assertions.assertTrue(new BigDecimal(interval.getLo()).compareTo(value) <= 0,
+                () -> interval + " does not enclose " + value);
+        Assertions.assertTrue(new BigDecimal(interval.getHi()).compareTo(value) >= 0,
+                () -> interval + " does not enclose " + value);
+    }
+
+    @Test
+    public void testEnclosure() {
+        Random random = new Random(29);
+        MathContext context = new MathContext(60);
+        for (int i = 0; i < 10000; i++) {
+            double a = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(40));
+            double b = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(40));
+            DoubleInterval x = new DoubleInterval(a);
+            DoubleInterval y = new DoubleInterval(b);
+            BigDecimal exactA = new BigDecimal(a);
+            BigDecimal exactB = new BigDecimal(b);
+            assertEncloses(x.add(y), exactA.add(exactB));
+            assertEncloses(x.subtract(y), exactA.subtract(exactB));
+            assertEncloses(x.multiply(y), exactA.multiply(exactB));
+            if (b != 0) {
+                DoubleInterval quotient = x.divide(y);
+                assertEncloses(quotient, exactA.divide(exactB, context));
+                Assertions.assertTrue(quotient.getHi() - quotient.getLo() <= Math.ulp(quotient.getHi()));
+            }
+        }
+        DoubleInterval rt3 = DoubleInterval.ONE.rt3();
+        assertEncloses(rt3, new BigDecimal(3).sqrt(context));
+        Assertions.assertEquals(Math.nextUp(rt3.getLo()), rt3.getHi());
+        assertEncloses(DoubleInterval.valueOf(Long.MAX_VALUE), new BigDecimal(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testExactValuesStayExact() {
+        DoubleInterval sum = DoubleInterval.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            sum = sum.add(sum.six()).subtract(sum.five());
+        }
+        Assertions.assertEquals(new DoubleInterval(1000), sum);
+        Assertions.assertEquals(0, sum.compareTo(sum.whole(1000)));
+        Assertions.assertEquals(new DoubleInterval(0.25), DoubleInterval.ONE.divide(sum.four()));
+    }
+
+    @Test
+    public void testIndeterminateComparisons() {
+        DoubleInterval rt3 = DoubleInterval.ONE.rt3();
+        DoubleInterval difference = rt3.add(rt3).subtract(rt3.twoRt3());
+        Assertions.assertThrows(IndeterminateComparisonException.class, difference::compareToZero);
+        Assertions.assertThrows(IndeterminateComparisonException.class, () -> rt3.divide(difference));
+        Assertions.assertEquals(1, rt3.compareTo(rt3.one()));
+        Assertions.assertEquals(rt3, rt3.min(rt3.two()));
+        Assertions.assertEquals(new DoubleInterval(-1, 2),
+                new DoubleInterval(-1, 3).min(new DoubleInterval(0, 2)));
+        Assertions.assertEquals(new DoubleInterval(0, 3),
+                new DoubleInterval(-1, 3).max(new DoubleInterval(0, 2)));
+    }
+
+    @Test
+    public void testAssertionsMatchExact() {
+        Point<Fraction<WholeAndRt3>> zero = new Point<>(
+                new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE),
+                new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE));
+        TrapezoidSequence<Fraction<WholeAndRt3>> exactSeq = new TrapezoidSequence<>(1, zero);
+        IntervalDistanceAssertion assertion = new IntervalDistanceAssertion(1);
+        for (long bound = 1; bound <= 40; bound+=3) {
+            WholeAndRt3 baseUpperBound = new WholeAndRt3(bound, 0);
+            Fraction<WholeAndRt3> exactBound = new Fraction<>(baseUpperBound, WholeAndRt3.ONE);
+            Assertions.assertEquals(
+                    exactSeq.assertBoundedMaxDistance(2, 8, 0, 60, exactBound),
+                    assertion.assertBoundedMaxDistance(2, 8, 0, 60, baseUpperBound));
+            Assertions.assertEquals(
+                    exactSeq.assertBoundedMinDistance(2, 8, 0, 60, exactBound),
+                    assertion.assertBoundedMinDistance(2, 8, 0, 60, baseUpperBound));
+            Assertions.assertEquals(
+                    exactSeq.assertBoundedRatio(2, 8, 0, 60, exactBound),
+                    assertion.assertBoundedRatio(2, 8, 0, 60, baseUpperBound));
+        }
+        // Almost every pair is decided without exact arithmetic.
+        Assertions.assertTrue(assertion.getEscalations() * 100 < assertion.getEvaluations());
+    }
+}
@@ -0,0 +1,80 @@
+import com.Point;
+import com.TrapezoidSequence;
+import com.numbers.FilteredWholeAndRt3;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the com.numbers.FilteredWholeAndRt3 abstract number class operations.
+ */
+public class FilteredWholeAndRt3Tests {
+
+    @Test
+    public void testComparisonMatchesExact() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            long bound = 1L << random.nextInt(62);
+            WholeAndRt3 a = new WholeAndRt3(random.nextLong() % bound, random.nextLong() % bound);
+            WholeAndRt3 b = new WholeAndRt3(random.nextLong() % bound, random.nextLong() % bound);
+            FilteredWholeAndRt3 filteredA = new FilteredWholeAndRt3(a);
+            FilteredWholeAndRt3 filteredB = new FilteredWholeAndRt3(b);
+            Assertions.assertEquals(a.compareTo(b), filteredA.compareTo(filteredB));
+            Assertions.assertEquals(a.compareToZero(), filteredA.compareToZero());
+        }
+    }
+
+    @Test
+    public void testNearlyEqualComparison() {
+        // 2672280.000000374... compared against 2672280. These differ by far
+        // less than the error bound, so this needs the exact fallback.
+        FilteredWholeAndRt3 almost2672280 = new FilteredWholeAndRt3(1, 1542841);
+        FilteredWholeAndRt3 exactly2672280 = new FilteredWholeAndRt3(2672280, 0);
+        Assertions.assertEquals(1, almost2672280.compareTo(exactly2672280));
+        Assertions.assertEquals(-1, exactly2672280.compareTo(almost2672280));
+        Assertions.assertEquals(0, almost2672280.compareTo(new FilteredWholeAndRt3(1, 1542841)));
+        Assertions.assertEquals(1, almost2672280.subtract(exactly2672280).compareToZero());
+        // 97 * 97 = 9409 and 3 * 56 * 56 = 9408.
+        FilteredWholeAndRt3 tiny = new FilteredWholeAndRt3(-97000000000L, 56000000000L);
+        Assertions.assertEquals(new WholeAndRt3(-97000000000L, 56000000000L).compareToZero(),
+                tiny.compareToZero());
+    }
+
+    @Test
+    public void testArithmetic() {
+        FilteredWholeAndRt3 onePlusRt3 = new FilteredWholeAndRt3(1, 1);
+        Assertions.assertEquals(new FilteredWholeAndRt3(4, 2), onePlusRt3.multiply(onePlusRt3));
+        Assertions.assertEquals(new FilteredWholeAndRt3(1, -1),
+                new FilteredWholeAndRt3(-2, 0).divide(onePlusRt3));
+        Assertions.assertEquals(new FilteredWholeAndRt3(0, 2), onePlusRt3.add(onePlusRt3).subtract(
+                new FilteredWholeAndRt3(2, 0)));
+    }
+
+    @Test
+    public void testOrientation() {
+        FilteredWholeAndRt3 zero = FilteredWholeAndRt3.ZERO;
+        FilteredWholeAndRt3 big = new FilteredWholeAndRt3(1L << 25, 1L << 24);
+        FilteredWholeAndRt3 bigPlusOne = big.add(FilteredWholeAndRt3.ONE);
+        // Collinear points along y = x.
+        Assertions.assertEquals(0, FilteredWholeAndRt3.orientation(zero, zero, big, big, bigPlusOne, bigPlusOne));
+        // Nearly collinear points on either side.
+        Assertions.assertEquals(1, FilteredWholeAndRt3.orientation(zero, zero, big, big, big, bigPlusOne));
+        Assertions.assertEquals(-1, FilteredWholeAndRt3.orientation(zero, zero, big, big, bigPlusOne, big));
+        Assertions.assertEquals(1, FilteredWholeAndRt3.crossSign(big, big, big, bigPlusOne));
+    }
+
+    @Test
+    public void testCountCollinearMatchesExact() {
+        TrapezoidSequence<FilteredWholeAndRt3> filteredSeq = new TrapezoidSequence<>(
+                49, new Point<>(FilteredWholeAndRt3.ZERO, FilteredWholeAndRt3.ZERO));
+        TrapezoidSequence<WholeAndRt3> exactSeq = new TrapezoidSequence<>(
+                49, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        for (int maxIndexDiff = 2; maxIndexDiff <= 13; maxIndexDiff++) {
+            Assertions.assertEquals(
+                    exactSeq.radialSweepCountCollinear(0, 48, maxIndexDiff).numTrapezoidsIntersected,
+                    filteredSeq.radialSweepCountCollinear(0, 48, maxIndexDiff).numTrapezoidsIntersected);
+        }
+    }
+}
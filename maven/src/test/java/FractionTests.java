@@ -1,11 +1,14 @@
+import com.numbers.CommonMath;
 import com.numbers.Fraction;
 import com.numbers.FractionFactory;
+import com.numbers.WholeAndRt3;
 import com.numbers.WholeNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 
 public class FractionTests {
     private static final FractionFactory f = new FractionFactory();
@@ -205,4 +208,98 @@ public class FractionTests {
             Assertions.assertEquals(expectedList.get(index), list.get(index));
         }
     }
+
+    @Test
+    public void testLazyNormalization() {
+        Fraction<WholeNumber> half = f.makeFraction(1, 2);
+        Fraction<WholeNumber> sum = half.add(half).add(half).add(half);
+        Assertions.assertEquals(f.makeFraction(2, 1), sum);
+        Assertions.assertEquals("2", sum.toString());
+        Assertions.assertEquals(f.makeFraction(-1, 3), f.makeFraction(2, -6));
+        Assertions.assertEquals("-1 / 3", f.makeFraction(2, -6).toString());
+
+        // The sum is kept as 32 / 16 until it is normalized.
+        Assertions.assertTrue(sum.normalized().magnitudeBits() < sum.magnitudeBits());
+        Assertions.assertEquals("2", sum.normalized().toString());
+    }
+
+    @Test
+    public void testLargePartsAreNormalized() {
+        // Without reducing, the denominators would overflow a long.
+        Fraction<WholeNumber> value = f.makeFraction(1 << 20, 1 << 20);
+        for (int i = 0; i < 10; i++) {
+            value = value.multiply(f.makeFraction(1 << 20, 1 << 20));
+        }
+        Assertions.assertEquals(one, value);
+    }
+
+    @Test
+    public void testEqualsDoesNotMutate() {
+        Fraction<WholeNumber> unreduced = f.makeFraction(1, 2).add(f.makeFraction(1, 2));
+        String before = unreduced.toString();
+        Assertions.assertEquals(one, unreduced);
+        Assertions.assertEquals(0, one.compareTo(unreduced));
+        Assertions.assertEquals(before, unreduced.toString());
+    }
+
+    @Test
+    public void testCanonicalHashCode() {
+        Fraction<WholeNumber> unreduced = f.makeFraction(6, -4);
+        Fraction<WholeNumber> reduced = f.makeFraction(-3, 2);
+        Assertions.assertEquals(reduced, unreduced);
+        Assertions.assertEquals(reduced.hashCode(), unreduced.hashCode());
+        Assertions.assertEquals(reduced.fingerprint(), unreduced.fingerprint());
+        // (1 + sqrt(3)) / (2 + 2 sqrt(3)) has no integer common divisor, but is 1 / 2.
+        Fraction<WholeAndRt3> half = new Fraction<>(new WholeAndRt3(1, 0), new WholeAndRt3(2, 0));
+        Fraction<WholeAndRt3> rt3Half = new Fraction<>(new WholeAndRt3(1, 1), new WholeAndRt3(2, 2));
+        Assertions.assertEquals(half, rt3Half);
+        Assertions.assertEquals(half.hashCode(), rt3Half.hashCode());
+        Fraction<WholeAndRt3> inverse = new Fraction<>(new WholeAndRt3(1, 0), new WholeAndRt3(2, 1));
+        Assertions.assertEquals(new Fraction<>(new WholeAndRt3(2, -1), new WholeAndRt3(1, 0)), inverse);
+        Assertions.assertNotEquals(half, inverse);
+        HashSet<Fraction<WholeNumber>> fractions = new HashSet<>();
+        for (int i = 1; i <= 12; i++) {
+            fractions.add(f.makeFraction(i, 2 * i));
+            fractions.add(f.makeFraction(-3 * i, i));
+        }
+        Assertions.assertEquals(2, fractions.size());
+    }
+
+    @Test
+    public void testEqualsTooLargeToCanonicalize() {
+        // Rationalizing a denominator of b * sqrt(3) needs 3 * b^2, which overflows a long.
+        long b = (1L << 31) + 1;
+        Fraction<WholeAndRt3> small = new Fraction<>(new WholeAndRt3(1, 0), new WholeAndRt3(0, b));
+        Fraction<WholeAndRt3> scaled = new Fraction<>(new WholeAndRt3(2, 0), new WholeAndRt3(0, 2 * b));
+        Assertions.assertThrows(ArithmeticException.class, small::canonical);
+        Assertions.assertEquals(small, scaled);
+        Assertions.assertEquals(small.hashCode(), scaled.hashCode());
+        Fraction<WholeAndRt3> huge = new Fraction<>(
+                new WholeAndRt3(Long.MAX_VALUE, 1), new WholeAndRt3(0, Long.MAX_VALUE));
+        Assertions.assertEquals(huge, new Fraction<>(
+                new WholeAndRt3(Long.MAX_VALUE, 1), new WholeAndRt3(0, Long.MAX_VALUE)));
+        Assertions.assertNotEquals(huge, small);
+        Assertions.assertDoesNotThrow(huge::hashCode);
+    }
+
+    @Test
+    public void testBinaryGcd() {
+        long[][] cases = {
+                {0, 0, 0},
+                {0, 5, 5},
+                {5, 0, 5},
+                {12, 18, 6},
+                {-12, 18, 6},
+                {12, -18, 6},
+                {17, 13, 1},
+                {1L << 40, 3L << 35, 1L << 35},
+                {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE},
+                {Long.MIN_VALUE, 6, 2},
+                {Long.MIN_VALUE, 0, Long.MIN_VALUE},
+                {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE}
+        };
+        for (long[] gcdCase: cases) {
+            Assertions.assertEquals(gcdCase[2], CommonMath.gcd(gcdCase[0], gcdCase[1]));
+        }
+    }
 }
@@ -0,0 +1,89 @@
+import com.numbers.Fraction;
+import com.numbers.HybridWholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+/**
+ * Tests for the com.numbers.HybridWholeAndRt3 abstract number class operations.
+ */
+public class HybridWholeAndRt3Tests {
+    private static final HybridWholeAndRt3 one = new HybridWholeAndRt3(1, 0);
+    private static final HybridWholeAndRt3 onePlusRt3 = new HybridWholeAndRt3(1, 1);
+    private static final HybridWholeAndRt3 maxValue = new HybridWholeAndRt3(
+            Long.MAX_VALUE, Long.MAX_VALUE);
+    private static final HybridWholeAndRt3 minValue = new HybridWholeAndRt3(
+            Long.MIN_VALUE, Long.MIN_VALUE);
+
+    @Test
+    public void testSmallValuesStayUnpromoted() {
+        HybridWholeAndRt3 product = onePlusRt3.multiply(new HybridWholeAndRt3(2, -3));
+        Assertions.assertEquals(new HybridWholeAndRt3(-7, -1), product);
+        Assertions.assertFalse(product.isPromoted());
+        Assertions.assertEquals(new HybridWholeAndRt3(1, 2), onePlusRt3.add(onePlusRt3).subtract(one));
+    }
+
+    @Test
+    public void testOverflowPromotes() {
+        HybridWholeAndRt3 sum = maxValue.add(one);
+        Assertions.assertTrue(sum.isPromoted());
+        Assertions.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), sum.bigOnes());
+        Assertions.assertEquals(BigInteger.valueOf(Long.MAX_VALUE), sum.bigRt3());
+
+        HybridWholeAndRt3 difference = minValue.subtract(one);
+        Assertions.assertTrue(difference.isPromoted());
+        Assertions.assertTrue(minValue.additiveInverse().isPromoted());
+
+        HybridWholeAndRt3 square = maxValue.multiply(maxValue);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        Assertions.assertEquals(max.multiply(max).multiply(BigInteger.valueOf(4)), square.bigOnes());
+        Assertions.assertEquals(max.multiply(max).multiply(BigInteger.TWO), square.bigRt3());
+    }
+
+    @Test
+    public void testPromotedValuesDemote() {
+        HybridWholeAndRt3 sum = maxValue.add(one);
+        HybridWholeAndRt3 back = sum.subtract(one);
+        Assertions.assertFalse(back.isPromoted());
+        Assertions.assertEquals(maxValue, back);
+
+        HybridWholeAndRt3 square = maxValue.multiply(maxValue);
+        HybridWholeAndRt3 quotient = square.divide(maxValue);
+        Assertions.assertFalse(quotient.isPromoted());
+        Assertions.assertEquals(maxValue, quotient);
+    }
+
+    @Test
+    public void testComparison() {
+        HybridWholeAndRt3 big = maxValue.add(one);
+        Assertions.assertEquals(1, big.compareTo(maxValue));
+        Assertions.assertEquals(-1, maxValue.compareTo(big));
+        Assertions.assertEquals(0, big.compareTo(maxValue.add(one)));
+        Assertions.assertEquals(1, big.compareToZero());
+        Assertions.assertEquals(-1, big.additiveInverse().compareToZero());
+        // 2672280.000000374... compared against 2672280.
+        Assertions.assertEquals(1, new HybridWholeAndRt3(1, 1542841)
+                .compareTo(new HybridWholeAndRt3(2672280, 0)));
+    }
+
+    @Test
+    public void testDivision() {
+        HybridWholeAndRt3 dividend = new HybridWholeAndRt3(126, -9);
+        Assertions.assertEquals(new HybridWholeAndRt3(42, -3), dividend.divide(new HybridWholeAndRt3(3, 0)));
+        Assertions.assertEquals(new HybridWholeAndRt3(6, 5),
+                new HybridWholeAndRt3(42, 35).divide(new HybridWholeAndRt3(7, 0)));
+        Assertions.assertEquals(new HybridWholeAndRt3(1, -1),
+                new HybridWholeAndRt3(-2, 0).divide(onePlusRt3));
+        Assertions.assertThrows(ArithmeticException.class,
+                () -> { one.divide(new HybridWholeAndRt3(2, 0)); });
+    }
+
+    @Test
+    public void testFractionNormalizationPastLongRange() {
+        Fraction<HybridWholeAndRt3> large = new Fraction<>(maxValue, one);
+        Fraction<HybridWholeAndRt3> square = large.multiply(large);
+        Fraction<HybridWholeAndRt3> back = square.divide(large);
+        Assertions.assertEquals(0, back.compareTo(large));
+    }
+}
@@ -0,0 +1,162 @@
+import com.Point;
+import com.TrapezoidSequence;
+import com.numbers.Int128;
+import com.numbers.Int128AndRt3;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Tests for the com.numbers.Int128 and com.numbers.Int128AndRt3 abstract
+ * number class operations.
+ */
+public class Int128Tests {
+    private static final BigInteger MIN = BigInteger.ONE.shiftLeft(127).negate();
+    private static final BigInteger MAX = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+
+    private static BigInteger randomBigInteger(Random random) {
+        BigInteger value = new BigInteger(1 + random.nextInt(127), random);
+        return random.nextBoolean() ? value.negate() : value;
+    }
+
+    private static boolean fits(BigInteger value) {
+        return value.compareTo(MIN) >= 0 && value.compareTo(MAX) <= 0;
+    }
+
+    @Test
+    public void testArithmeticMatchesBigInteger() {
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            BigInteger a = randomBigInteger(random);
+            BigInteger b = randomBigInteger(random);
+            Int128 x = Int128.valueOf(a);
+            Int128 y = Int128.valueOf(b);
+            Assertions.assertEquals(a, x.toBigInteger());
+            Assertions.assertEquals(a.compareTo(b), x.compareTo(y));
+            Assertions.assertEquals(a.signum(), x.compareToZero());
+            if (fits(a.add(b))) {
+                Assertions.assertEquals(a.add(b), x.add(y).toBigInteger());
+            } else {
+                Assertions.assertThrows(ArithmeticException.class, () -> x.add(y));
+            }
+            if (fits(a.subtract(b))) {
+                Assertions.assertEquals(a.subtract(b), x.subtract(y).toBigInteger());
+            } else {
+                Assertions.assertThrows(ArithmeticException.class, () -> x.subtract(y));
+            }
+            BigInteger product = a.multiply(b);
+            if (fits(product)) {
+                Assertions.assertEquals(product, x.multiply(y).toBigInteger());
+                if (b.signum() != 0)
+                    Assertions.assertEquals(a, Int128.valueOf(product).divide(y).toBigInteger());
+            } else {
+                Assertions.assertThrows(ArithmeticException.class, () -> x.multiply(y));
+            }
+            if (a.signum() != 0 || b.signum() != 0)
+                Assertions.assertEquals(a.gcd(b), x.commonDivisor(y).toBigInteger());
+        }
+    }
+
+    @Test
+    public void testOverflow() {
+        Assertions.assertThrows(ArithmeticException.class, () -> Int128.MAX_VALUE.add(Int128.ONE));
+        Assertions.assertThrows(ArithmeticException.class, () -> Int128.MIN_VALUE.subtract(Int128.ONE));
+        Assertions.assertThrows(ArithmeticException.class, () -> Int128.MIN_VALUE.additiveInverse());
+        Assertions.assertThrows(ArithmeticException.class, () -> Int128.MIN_VALUE.divide(Int128.MINUS_ONE));
+        Assertions.assertThrows(ArithmeticException.class, () -> Int128.MIN_VALUE.multiply(Int128.MINUS_ONE));
+        Int128 twoTo64 = new Int128(1, 0);
+        Int128 twoTo63 = new Int128(Long.MIN_VALUE).additiveInverse();
+        Assertions.assertEquals(Int128.MIN_VALUE, twoTo64.multiply(twoTo63.additiveInverse()));
+        Assertions.assertThrows(ArithmeticException.class, () -> twoTo64.multiply(twoTo63));
+        Assertions.assertEquals(Int128.MIN_VALUE, Int128.MIN_VALUE.commonDivisor(Int128.ZERO));
+        Assertions.assertThrows(ArithmeticException.class, () -> twoTo64.divide(new Int128(3)));
+        Assertions.assertEquals(new Int128(Long.MAX_VALUE).add(Int128.ONE), twoTo63);
+    }
+
+    @Test
+    public void testInt128AndRt3Sign() {
+        Random random = new Random(19);
+        BigInteger three = BigInteger.valueOf(3);
+        for (int i = 0; i < 10000; i++) {
+            BigInteger a = randomBigInteger(random);
+            BigInteger b = randomBigInteger(random);
+            Int128AndRt3 value = new Int128AndRt3(Int128.valueOf(a), Int128.valueOf(b));
+            int expected;
+            if (a.signum() >= 0 && b.signum() >= 0) {
+                expected = a.signum() | b.signum();
+            } else if (a.signum() <= 0 && b.signum() <= 0) {
+                expected = -1;
+            } else {
+                expected = a.multiply(a).compareTo(three.multiply(b).multiply(b)) * a.signum();
+            }
+            Assertions.assertEquals(expected, value.compareToZero());
+        }
+        // 97^2 - 3 * 56^2 = 1, scaled by 2^60.
+        Int128 scale = new Int128(1L << 60);
+        Assertions.assertEquals(1, new Int128AndRt3(
+                new Int128(97).multiply(scale), new Int128(-56).multiply(scale)).compareToZero());
+        Assertions.assertEquals(-1, new Int128AndRt3(
+                new Int128(-97).multiply(scale), new Int128(56).multiply(scale)).compareToZero());
+    }
+
+    private static int sign(BigInteger ones, BigInteger rt3) {
+        if (ones.signum() == rt3.signum() || rt3.signum() == 0)
+            return ones.signum();
+        if (ones.signum() == 0)
+            return rt3.signum();
+        int comparison = ones.multiply(ones).compareTo(BigInteger.valueOf(3).multiply(rt3).multiply(rt3));
+        return comparison > 0 ? ones.signum() : rt3.signum();
+    }
+
+    @Test
+    public void testInt128AndRt3CompareNeverThrows() {
+        Random random = new Random(23);
+        BigInteger[] extremes = {MIN, MIN.add(BigInteger.ONE), MAX.negate(), BigInteger.ZERO, MAX.subtract(BigInteger.ONE), MAX};
+        for (int i = 0; i < 20000; i++) {
+            BigInteger[] parts = new BigInteger[4];
+            for (int j = 0; j < 4; j++) {
+                parts[j] = random.nextBoolean()
+                        ? extremes[random.nextInt(extremes.length)] : randomBigInteger(random);
+            }
+            Int128AndRt3 x = new Int128AndRt3(Int128.valueOf(parts[0]), Int128.valueOf(parts[1]));
+            Int128AndRt3 y = new Int128AndRt3(Int128.valueOf(parts[2]), Int128.valueOf(parts[3]));
+            int expected = sign(parts[0].subtract(parts[2]), parts[1].subtract(parts[3]));
+            Assertions.assertEquals(expected, x.compareTo(y));
+            Assertions.assertEquals(-expected, y.compareTo(x));
+        }
+        Int128AndRt3 largest = new Int128AndRt3(Int128.MAX_VALUE, Int128.MAX_VALUE);
+        Int128AndRt3 smallest = new Int128AndRt3(Int128.MIN_VALUE, Int128.MIN_VALUE);
+        Assertions.assertEquals(1, largest.compareTo(smallest));
+        Assertions.assertEquals(-1, new Int128AndRt3(Int128.MAX_VALUE, Int128.MIN_VALUE).compareTo(
+                new Int128AndRt3(Int128.MIN_VALUE, Int128.MAX_VALUE)));
+    }
+
+    @Test
+    public void testInt128AndRt3Arithmetic() {
+        Int128AndRt3 onePlusRt3 = new Int128AndRt3(1, 1);
+        Assertions.assertEquals(new Int128AndRt3(4, 2), onePlusRt3.multiply(onePlusRt3));
+        Assertions.assertEquals(new Int128AndRt3(1, -1), new Int128AndRt3(-2, 0).divide(onePlusRt3));
+        Assertions.assertEquals(onePlusRt3, new Int128AndRt3(6, 6).divide(new Int128AndRt3(6, 0)));
+        Assertions.assertThrows(ArithmeticException.class,
+                () -> new Int128AndRt3(1, 0).divide(onePlusRt3));
+        Assertions.assertEquals(new Int128AndRt3(3, 0),
+                new Int128AndRt3(6, 9).commonDivisor(new Int128AndRt3(-12, 3)));
+    }
+
+    @Test
+    public void testCountCollinearMatchesWholeAndRt3() {
+        TrapezoidSequence<Int128AndRt3> int128Seq = new TrapezoidSequence<>(
+                49, new Point<>(Int128AndRt3.ZERO, Int128AndRt3.ZERO));
+        TrapezoidSequence<WholeAndRt3> exactSeq = new TrapezoidSequence<>(
+                49, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        for (int maxIndexDiff = 2; maxIndexDiff <= 13; maxIndexDiff++) {
+            Assertions.assertEquals(
+                    exactSeq.radialSweepCountCollinear(0, 48, maxIndexDiff).numTrapezoidsIntersected,
+                    int128Seq.radialSweepCountCollinear(0, 48, maxIndexDiff).numTrapezoidsIntersected);
+        }
+        Assertions.assertEquals(exactSeq.countCollinear(0, 48, 6), int128Seq.countCollinear(0, 48, 6));
+    }
+}
@@ -0,0 +1,81 @@
+import com.Interval;
+import com.LatticeCollinearityEngine;
+import com.Point;
+import com.TrapezoidIntersectionPair;
+import com.TrapezoidSequence;
+import com.TrapezoidStore;
+import com.numbers.Fraction;
+import com.numbers.WholeAndRt3;
+import com.numbers.WholeNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.LatticeCollinearityEngine radial sweep.
+ */
+public class LatticeCollinearityEngineTests {
+    private static final int[][] CASES = {{0, 48, 6}, {0, 48, 13}, {37, 160, 9}, {100, 290, 40}, {5, 342, 120}};
+
+    private static void assertSameWitness(
+            TrapezoidIntersectionPair<?> expected, TrapezoidIntersectionPair<?> actual) {
+        Assertions.assertEquals(expected.numTrapezoidsIntersected, actual.numTrapezoidsIntersected);
+        Assertions.assertEquals(expected.trapezoidIndex1, actual.trapezoidIndex1);
+        Assertions.assertEquals(expected.trapezoidIndex2, actual.trapezoidIndex2);
+        Assertions.assertEquals(expected.p1, actual.p1);
+        Assertions.assertEquals(expected.p2, actual.p2);
+    }
+
+    @Test
+    public void testMatchesNumberSystemSweep() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        Point<Fraction<WholeAndRt3>> start = new Point<>(
+                zero.whole(2), new Fraction<>(new WholeAndRt3(0, -3), WholeAndRt3.ONE));
+        LatticeCollinearityEngine engine = new LatticeCollinearityEngine(new TrapezoidStore(343));
+        TrapezoidSequence<Fraction<WholeAndRt3>> generic = new TrapezoidSequence<>(343, start);
+        for (int[] c: CASES) {
+            assertSameWitness(
+                    generic.radialSweepCountCollinear(c[0], c[1], c[2]),
+                    engine.radialSweepCountCollinear(c[0], c[1], c[2], start));
+        }
+    }
+
+    @Test
+    public void testMatchesWithoutRt3() {
+        // The lattice of a number system with rt3() equal to 1 is its own plane.
+        Point<WholeNumber> start = new Point<>(new WholeNumber(0), new WholeNumber(0));
+        LatticeCollinearityEngine engine = new LatticeCollinearityEngine(new TrapezoidStore(343));
+        TrapezoidSequence<WholeNumber> generic = new TrapezoidSequence<>(343, start);
+        for (int[] c: CASES) {
+            assertSameWitness(
+                    generic.radialSweepCountCollinear(c[0], c[1], c[2]),
+                    engine.radialSweepCountCollinear(c[0], c[1], c[2], start));
+        }
+    }
+
+    @Test
+    public void testSearchIntervalsOfShortSequence() {
+        // The search intervals grow the symbol sequence past the trapezoids made so far.
+        TrapezoidSequence<WholeAndRt3> generic = new TrapezoidSequence<>(
+                2, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        Interval[] intervals = generic.getCollinearSearchIntervals(7);
+        LatticeCollinearityEngine engine = new LatticeCollinearityEngine(
+                new TrapezoidStore(intervals[intervals.length - 1].getHi() + 1));
+        for (Interval interval: intervals) {
+            assertSameWitness(
+                    generic.radialSweepCountCollinear(interval.getLo(), interval.getHi(), 7),
+                    engine.radialSweepCountCollinear(interval.getLo(), interval.getHi(), 7));
+        }
+    }
+
+    @Test
+    public void testWitnessInZRt3() {
+        TrapezoidSequence<WholeAndRt3> generic = new TrapezoidSequence<>(
+                400, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        LatticeCollinearityEngine engine = new LatticeCollinearityEngine(new TrapezoidStore(400));
+        TrapezoidIntersectionPair<WholeAndRt3> witness = engine.radialSweepCountCollinear(0, 345, 343);
+        Assertions.assertEquals(62, witness.numTrapezoidsIntersected);
+        assertSameWitness(generic.radialSweepCountCollinear(0, 345, 343), witness);
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> engine.radialSweepCountCollinear(0, 400, 10));
+    }
+}
@@ -0,0 +1,62 @@
+import com.LatticeDistanceEngine;
+import com.Point;
+import com.TrapezoidSequence;
+import com.numbers.Fraction;
+import com.numbers.HybridWholeAndRt3;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.LatticeDistanceEngine distance assertions.
+ */
+public class LatticeDistanceEngineTests {
+
+    private static Fraction<WholeAndRt3> fraction(long numerator, long denominator) {
+        return new Fraction<>(new WholeAndRt3(numerator, 0), new WholeAndRt3(denominator, 0));
+    }
+
+    @Test
+    public void testDistancesByGapMatchSequence() {
+        Fraction<WholeAndRt3> zero = fraction(0, 1);
+        TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = new TrapezoidSequence<>(200, new Point<>(zero, zero));
+        LatticeDistanceEngine engine = new LatticeDistanceEngine(1);
+        long[] maxByGap = engine.maxDistanceSqByGap(3, 30, 10, 120);
+        long[][] minByGap = engine.minDistanceSqByGap(3, 30, 10, 120);
+        for (int gap = 3; gap <= 30; gap++) {
+            Fraction<WholeAndRt3> max = zero, min = null;
+            for (int index = 10; index <= 120; index++) {
+                max = max.max(trapSeq.getMaxDistanceSq(index, index + gap));
+                Fraction<WholeAndRt3> distanceSq = trapSeq.getMinDistanceSq(index, index + gap);
+                min = min == null ? distanceSq : min.min(distanceSq);
+            }
+            Assertions.assertEquals(0, fraction(maxByGap[gap - 3], 1).compareTo(max));
+            Assertions.assertEquals(0, fraction(minByGap[0][gap - 3], minByGap[1][gap - 3]).compareTo(min));
+        }
+    }
+
+    @Test
+    public void testAssertionsMatchSequence() {
+        Fraction<WholeAndRt3> zero = fraction(0, 1);
+        TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = new TrapezoidSequence<>(1, new Point<>(zero, zero));
+        LatticeDistanceEngine engine = new LatticeDistanceEngine(1);
+        int[][] cases = {{2, 8, 0, 60}, {7, 48, 0, 300}, {1, 3, 5, 40}};
+        for (int[] c: cases) {
+            for (long ones = 0; ones <= 40; ones += 3) {
+                for (long rt3 = 0; rt3 <= 2; rt3++) {
+                    Fraction<WholeAndRt3> bound = new Fraction<>(new WholeAndRt3(ones, rt3), WholeAndRt3.ONE);
+                    HybridWholeAndRt3 latticeBound = new HybridWholeAndRt3(ones, rt3);
+                    Assertions.assertEquals(
+                            trapSeq.assertBoundedMaxDistance(c[0], c[1], c[2], c[3], bound),
+                            engine.assertBoundedMaxDistance(c[0], c[1], c[2], c[3], latticeBound));
+                    Assertions.assertEquals(
+                            trapSeq.assertBoundedMinDistance(c[0], c[1], c[2], c[3], bound),
+                            engine.assertBoundedMinDistance(c[0], c[1], c[2], c[3], latticeBound));
+                    Assertions.assertEquals(
+                            trapSeq.assertBoundedRatio(c[0], c[1], c[2], c[3], bound),
+                            engine.assertBoundedRatio(c[0], c[1], c[2], c[3], latticeBound));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import com.Point;
+import com.PointFactory;
+import com.Trapezoid;
+import com.TrapezoidFactory;
+import com.TrapezoidSequence;
+import com.numbers.CommonMath;
+import com.numbers.Fraction;
+import com.numbers.FractionFactory;
+import com.numbers.LongRational;
+import com.numbers.WholeAndRt3;
+import com.numbers.WholeNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the com.numbers.LongRational abstract number class operations.
+ */
+public class LongRationalTests {
+    private static final FractionFactory ff = new FractionFactory();
+
+    private static void assertSameValue(Fraction<WholeNumber> expected, LongRational actual) {
+        Assertions.assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testArithmeticMatchesFraction() {
+        Random random = new Random(23);
+        for (int i = 0; i < 10000; i++) {
+            long n1 = random.nextInt(2001) - 1000;
+            long d1 = random.nextInt(1000) + 1;
+            long n2 = random.nextInt(2001) - 1000;
+            long d2 = -random.nextInt(1000) - 1;
+            Fraction<WholeNumber> f1 = ff.makeFraction(n1, d1);
+            Fraction<WholeNumber> f2 = ff.makeFraction(n2, d2);
+            LongRational r1 = ff.makeLongRational(n1, d1);
+            LongRational r2 = ff.makeLongRational(n2, d2);
+            assertSameValue(f1.add(f2), r1.add(r2));
+            assertSameValue(f1.subtract(f2), r1.subtract(r2));
+            assertSameValue(f1.multiply(f2), r1.multiply(r2));
+            if (n2 != 0)
+                assertSameValue(f1.divide(f2), r1.divide(r2));
+            Assertions.assertEquals(Integer.signum(f1.compareTo(f2)), Integer.signum(r1.compareTo(r2)));
+            Assertions.assertEquals(f1.compareToZero(), r1.compareToZero());
+        }
+    }
+
+    @Test
+    public void testCanonicalForm() {
+        LongRational value = new LongRational(6, -4);
+        Assertions.assertEquals(-3, value.getNum());
+        Assertions.assertEquals(2, value.getDenom());
+        Assertions.assertEquals(new LongRational(-3, 2), value);
+        Assertions.assertEquals(new LongRational(-3, 2).hashCode(), value.hashCode());
+        Assertions.assertEquals(LongRational.ZERO, new LongRational(0, -7).multiply(value));
+        Assertions.assertEquals("-3 / 2", value.toString());
+        Assertions.assertEquals("0", LongRational.ZERO.toString());
+        Assertions.assertThrows(ArithmeticException.class, () -> new LongRational(1, 0));
+        Assertions.assertThrows(ArithmeticException.class, () -> LongRational.ZERO.reciprocal());
+        Assertions.assertThrows(ArithmeticException.class,
+                () -> new LongRational(Long.MAX_VALUE).add(LongRational.ONE));
+        Assertions.assertEquals(LongRational.ONE, LongRational.ZERO.commonDivisor(LongRational.ZERO));
+        Assertions.assertEquals(LongRational.ONE, value.commonDivisor(LongRational.ZERO));
+        Assertions.assertEquals(new LongRational(2, 3), value.reciprocal().additiveInverse());
+    }
+
+    @Test
+    public void testWideComparison() {
+        LongRational a = new LongRational(Long.MAX_VALUE, Long.MAX_VALUE - 2);
+        LongRational b = new LongRational(Long.MAX_VALUE - 1, Long.MAX_VALUE - 3);
+        // (m + 0) / (m - 2) < (m - 1) / (m - 3) for large m.
+        Assertions.assertEquals(-1, a.compareTo(b));
+        Assertions.assertEquals(1, b.compareTo(a));
+        Assertions.assertEquals(-1, a.additiveInverse().compareTo(a));
+        Assertions.assertEquals(1, new LongRational(1, Long.MAX_VALUE)
+                .compareTo(new LongRational(-1, Long.MAX_VALUE - 1)));
+        // 2^62 * 4 = 2^64 and 2^63 - 1 times 3 is just under 2^65.
+        Assertions.assertEquals(-1, CommonMath.compareProducts(1L << 62, 4, Long.MAX_VALUE, 3));
+        Assertions.assertEquals(0, CommonMath.compareProducts(Long.MIN_VALUE, 2, Long.MIN_VALUE / 2, 4));
+    }
+
+    @Test
+    public void testHullOfExactNumbers() {
+        // Exact number systems enclose two values by the larger one.
+        LongRational a = new LongRational(7, 3);
+        LongRational b = new LongRational(5, 2);
+        Assertions.assertEquals(0, b.compareTo(a.hull(b)));
+        Assertions.assertEquals(0, b.compareTo(b.hull(a)));
+    }
+
+    @Test
+    public void testRt3Approximations() {
+        for (int i = 0; i < 12; i++) {
+            assertSameValue(CommonMath.approximateRt3(i), CommonMath.approximateRt3Rational(i));
+        }
+        for (WholeAndRt3 value: new WholeAndRt3[]{new WholeAndRt3(5, -3), new WholeAndRt3(-2, 7)}) {
+            assertSameValue(value.lower(), value.lowerRational());
+            assertSameValue(value.upper(), value.upperRational());
+        }
+    }
+
+    @Test
+    public void testGeometryMatchesFraction() {
+        TrapezoidFactory<LongRational> tf = new TrapezoidFactory<>();
+        PointFactory pf = new PointFactory();
+        Trapezoid<Fraction<WholeNumber>> fractionTrap1 = tf.makeFractionTrapezoid(
+                0, 0, 10, 0, 7, 5, 3, 5);
+        Trapezoid<Fraction<WholeNumber>> fractionTrap2 = tf.makeFractionTrapezoid(
+                20, 9, 30, 9, 27, 14, 23, 14);
+        Trapezoid<LongRational> trap1 = tf.makeLongRationalTrapezoid(
+                0, 0, 10, 0, 7, 5, 3, 5);
+        Trapezoid<LongRational> trap2 = tf.makeLongRationalTrapezoid(
+                20, 9, 30, 9, 27, 14, 23, 14);
+        assertSameValue(fractionTrap1.minDistanceSq(fractionTrap2), trap1.minDistanceSq(trap2));
+        assertSameValue(fractionTrap1.maxDistanceSq(fractionTrap2), trap1.maxDistanceSq(trap2));
+        assertSameValue(fractionTrap1.distanceSq(pf.makeFractionPoint(4, 11)),
+                trap1.distanceSq(pf.makeLongRationalPoint(4, 11)));
+
+        TrapezoidSequence<LongRational> rationalSeq = new TrapezoidSequence<>(
+                49, new Point<>(LongRational.ZERO, LongRational.ZERO));
+        TrapezoidSequence<WholeNumber> wholeSeq = new TrapezoidSequence<>(
+                49, new Point<>(WholeNumber.ZERO, WholeNumber.ZERO));
+        Assertions.assertEquals(
+                wholeSeq.radialSweepCountCollinear(0, 48, 8).numTrapezoidsIntersected,
+                rationalSeq.radialSweepCountCollinear(0, 48, 8).numTrapezoidsIntersected);
+    }
+}
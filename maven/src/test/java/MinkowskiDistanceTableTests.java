@@ -0,0 +1,45 @@
+import com.Point;
+import com.Trapezoid;
+import com.TrapezoidSequence;
+import com.numbers.AbstractNumber;
+import com.numbers.Fraction;
+import com.numbers.WholeAndRt3;
+import com.numbers.WholeNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.MinkowskiDistanceTable trapezoid distance lookups.
+ */
+public class MinkowskiDistanceTableTests {
+
+    private static <T extends AbstractNumber<T>> void assertMatchesVertices(TrapezoidSequence<T> trapSeq) {
+        for (int index = 0; index < 400; index++) {
+            for (int gap = 1; gap <= 30; gap++) {
+                Trapezoid<T> trap1 = trapSeq.getTrapezoid(index);
+                Trapezoid<T> trap2 = trapSeq.getTrapezoid(index + gap);
+                Assertions.assertEquals(0, trap1.minDistanceSq(trap2).compareTo(
+                        trapSeq.getMinDistanceSq(index, index + gap)));
+                Assertions.assertEquals(0, trap2.minDistanceSq(trap1).compareTo(
+                        trapSeq.getMinDistanceSq(index + gap, index)));
+                Assertions.assertEquals(0, trap1.maxDistanceSq(trap2).compareTo(
+                        trapSeq.getMaxDistanceSq(index, index + gap)));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesVertexDistances() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        Point<Fraction<WholeAndRt3>> start = new Point<>(
+                zero.whole(2), new Fraction<>(new WholeAndRt3(0, -3), WholeAndRt3.ONE));
+        assertMatchesVertices(new TrapezoidSequence<>(431, start));
+    }
+
+    @Test
+    public void testMatchesVertexDistancesWithoutRt3() {
+        // com.numbers.WholeNumber replaces sqrt(3) by 1.
+        Fraction<WholeNumber> zero = new Fraction<>(new WholeNumber(0), new WholeNumber(1));
+        assertMatchesVertices(new TrapezoidSequence<>(431, new Point<>(zero, zero)));
+    }
+}
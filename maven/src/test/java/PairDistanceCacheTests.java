@@ -0,0 +1,64 @@
+import com.PairDistanceCache;
+import com.Point;
+import com.TrapezoidSequence;
+import com.TrapezoidStore;
+import com.numbers.DoubleInterval;
+import com.numbers.Fraction;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.PairDistanceCache configuration cache.
+ */
+public class PairDistanceCacheTests {
+
+    @Test
+    public void testEvictionPolicies() {
+        // Trapezoids 0 and 1 and trapezoids 0 and 2 have different configurations.
+        TrapezoidStore store = new TrapezoidStore(3);
+        PairDistanceCache<WholeAndRt3> lru = new PairDistanceCache<>(2, PairDistanceCache.EvictionPolicy.LRU);
+        PairDistanceCache<WholeAndRt3> fifo = new PairDistanceCache<>(2, PairDistanceCache.EvictionPolicy.FIFO);
+        for (PairDistanceCache<WholeAndRt3> cache: new PairDistanceCache[] {lru, fifo}) {
+            cache.get(store, 0, 1, false, () -> WholeAndRt3.ONE);
+            cache.get(store, 0, 2, false, () -> WholeAndRt3.ONE);
+            cache.get(store, 0, 1, false, () -> WholeAndRt3.ONE);
+            cache.get(store, 0, 1, true, () -> WholeAndRt3.ONE);
+            Assertions.assertEquals(2, cache.size());
+            Assertions.assertEquals(1, cache.getEvictions());
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertEquals(3, cache.getMisses());
+        }
+        // LRU evicted the pair 0 and 2 and FIFO evicted the pair 0 and 1.
+        Assertions.assertEquals(WholeAndRt3.ONE, lru.get(store, 0, 1, false, () -> WholeAndRt3.ZERO));
+        Assertions.assertEquals(WholeAndRt3.ZERO, fifo.get(store, 0, 1, false, () -> WholeAndRt3.ZERO));
+    }
+
+    @Test
+    public void testCachedDistancesMatch() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        TrapezoidSequence<Fraction<WholeAndRt3>> cached = new TrapezoidSequence<>(2500, new Point<>(zero, zero));
+        TrapezoidSequence<Fraction<WholeAndRt3>> uncached = new TrapezoidSequence<>(2500, new Point<>(zero, zero));
+        // A lattice number system does not cache by default.
+        Assertions.assertNull(uncached.getDistanceCache());
+        cached.setDistanceCache(new PairDistanceCache<>(1 << 16, PairDistanceCache.EvictionPolicy.LRU));
+        TrapezoidSequence<DoubleInterval> intervals = new TrapezoidSequence<>(
+                2500, new Point<>(DoubleInterval.ZERO, DoubleInterval.ZERO));
+        Assertions.assertNotNull(intervals.getDistanceCache());
+        intervals.setDistanceCache(new PairDistanceCache<>(64, PairDistanceCache.EvictionPolicy.FIFO));
+        for (int gap = 1; gap <= 20; gap++) {
+            for (int index = 0; index + gap < 2500; index++) {
+                Fraction<WholeAndRt3> minDistanceSq = uncached.getMinDistanceSq(index, index + gap);
+                Fraction<WholeAndRt3> maxDistanceSq = uncached.getMaxDistanceSq(index, index + gap);
+                Assertions.assertEquals(0, minDistanceSq.compareTo(cached.getMinDistanceSq(index, index + gap)));
+                Assertions.assertEquals(0, maxDistanceSq.compareTo(cached.getMaxDistanceSq(index, index + gap)));
+                DoubleInterval maxInterval = intervals.getMaxDistanceSq(index, index + gap);
+                Assertions.assertTrue(maxInterval.getLo() <= maxDistanceSq.toDouble()
+                        && maxDistanceSq.toDouble() <= maxInterval.getHi());
+            }
+        }
+        PairDistanceCache<Fraction<WholeAndRt3>> cache = cached.getDistanceCache();
+        Assertions.assertTrue(cache.getHits() > 10 * cache.getMisses(), cache.toString());
+        Assertions.assertTrue(intervals.getDistanceCache().getEvictions() > 0);
+    }
+}
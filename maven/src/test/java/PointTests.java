@@ -1,9 +1,13 @@
 import com.Point;
 import com.PointFactory;
+import com.numbers.DoubleRep;
+import com.numbers.WholeAndRt3;
 import com.numbers.WholeNumber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+
 public class PointTests {
     private static final PointFactory pf = new PointFactory();
 
@@ -26,4 +30,24 @@ public class PointTests {
             Assertions.assertEquals(expectedDistanceSq, p2.distanceSq(p1));
         }
     }
+
+    @Test
+    public void testHashing() {
+        HashSet<Point<WholeAndRt3>> points = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            points.add(new Point<>(new WholeAndRt3(1, 2), new WholeAndRt3(-3, 0)));
+            points.add(new Point<>(new WholeAndRt3(-3, 0), new WholeAndRt3(1, 2)));
+            points.add(new Point<>(new WholeAndRt3(1, 2), new WholeAndRt3(-3, 1)));
+        }
+        Assertions.assertEquals(3, points.size());
+        Assertions.assertEquals(
+                new Point<>(new WholeAndRt3(1, 2), new WholeAndRt3(-3, 0)).fingerprint(),
+                new Point<>(new WholeAndRt3(1, 2), new WholeAndRt3(-3, 0)).fingerprint());
+        Assertions.assertEquals(
+                new Point<>(DoubleRep.robust(-0.0), DoubleRep.robust(1)).hashCode(),
+                new Point<>(DoubleRep.robust(0.0), DoubleRep.robust(1)).hashCode());
+        Assertions.assertEquals(
+                new Point<>(new WholeNumber(1), new WholeNumber(2)).hashCode(),
+                pf.makePoint(1, 2).hashCode());
+    }
 }
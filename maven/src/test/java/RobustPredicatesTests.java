@@ -0,0 +1,83 @@
+import com.numbers.DoubleRep;
+import com.numbers.RobustPredicates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Tests for the com.numbers.RobustPredicates adaptive predicates and
+ * robust com.numbers.DoubleRep values.
+ */
+public class RobustPredicatesTests {
+
+    private static int exactOrientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        BigDecimal x1 = new BigDecimal(bx).subtract(new BigDecimal(ax));
+        BigDecimal y1 = new BigDecimal(by).subtract(new BigDecimal(ay));
+        BigDecimal x2 = new BigDecimal(cx).subtract(new BigDecimal(ax));
+        BigDecimal y2 = new BigDecimal(cy).subtract(new BigDecimal(ay));
+        return x1.multiply(y2).subtract(y1.multiply(x2)).signum();
+    }
+
+    @Test
+    public void testNearCollinearGrid() {
+        // The classic failure case for naive orientation: points on a tiny
+        // grid near the line through (12, 12) and (24, 24).
+        double step = Math.ulp(0.5);
+        for (int i = 0; i < 64; i++) {
+            for (int j = 0; j < 64; j++) {
+                double px = 0.5 + i * step;
+                double py = 0.5 + j * step;
+                Assertions.assertEquals(
+                        exactOrientation(px, py, 12, 12, 24, 24),
+                        RobustPredicates.orient2d(px, py, 12, 12, 24, 24));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomOrientation() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            double ax = random.nextDouble() * 1e6;
+            double ay = random.nextDouble() * 1e6;
+            double bx = random.nextDouble() * 1e6;
+            double by = random.nextDouble() * 1e6;
+            // Put c nearly on the line through a and b.
+            double t = random.nextDouble();
+            double cx = ax + t * (bx - ax);
+            double cy = ay + t * (by - ay);
+            Assertions.assertEquals(
+                    exactOrientation(ax, ay, bx, by, cx, cy),
+                    RobustPredicates.orient2d(ax, ay, bx, by, cx, cy));
+        }
+    }
+
+    @Test
+    public void testCrossSign() {
+        double a = 1 + Math.ulp(1.0);
+        double b = 1 - Math.ulp(1.0) / 2;
+        // a * b = 1 + ulp/2 - ulp^2/2 rounds to 1, but is not exactly 1.
+        Assertions.assertEquals(1, RobustPredicates.crossSign(a, 1, 1, b));
+        Assertions.assertEquals(-1, RobustPredicates.crossSign(1, a, b, 1));
+        Assertions.assertEquals(0, RobustPredicates.crossSign(3, 6, 1, 2));
+        Assertions.assertEquals(0, RobustPredicates.crossSign(0, 0, 1, 2));
+    }
+
+    @Test
+    public void testRobustDoubleRep() {
+        DoubleRep tolerant = new DoubleRep(1);
+        DoubleRep robust = DoubleRep.robust(1);
+        DoubleRep nearlyOne = new DoubleRep(1 + 1e-13);
+        Assertions.assertEquals(0, tolerant.compareTo(nearlyOne));
+        Assertions.assertEquals(-1, robust.compareTo(nearlyOne));
+        Assertions.assertNotEquals(robust, nearlyOne);
+        Assertions.assertTrue(robust.add(tolerant).isRobust());
+        Assertions.assertTrue(tolerant.multiply(robust).isRobust());
+        Assertions.assertFalse(tolerant.add(tolerant).isRobust());
+        Assertions.assertTrue(robust.whole(5).isRobust());
+        Assertions.assertEquals(1, DoubleRep.robust(1e-300).compareToZero());
+        Assertions.assertEquals(0, DoubleRep.robust(-0.0).compareTo(DoubleRep.robust(0.0)));
+    }
+}
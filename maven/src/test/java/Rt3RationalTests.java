@@ -0,0 +1,86 @@
+import com.Point;
+import com.TrapezoidSequence;
+import com.numbers.Fraction;
+import com.numbers.Rt3Rational;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.numbers.Rt3Rational abstract number class operations.
+ */
+public class Rt3RationalTests {
+    private static final Rt3Rational zero = Rt3Rational.ZERO;
+    private static final Rt3Rational one = Rt3Rational.ONE;
+    private static final Rt3Rational half = new Rt3Rational(1, 0, 2);
+    private static final Rt3Rational rt3 = new Rt3Rational(0, 1);
+    private static final Rt3Rational onePlusRt3 = new Rt3Rational(1, 1);
+
+    @Test
+    public void testCanonicalForm() {
+        Rt3Rational value = new Rt3Rational(4, -6, -8);
+        Assertions.assertEquals(-2, value.getOnes());
+        Assertions.assertEquals(3, value.getRt3());
+        Assertions.assertEquals(4, value.getDenom());
+        Assertions.assertEquals(new Rt3Rational(-2, 3, 4), value);
+        Assertions.assertEquals(zero, new Rt3Rational(0, 0, -7));
+        Assertions.assertThrows(ArithmeticException.class, () -> { new Rt3Rational(1, 1, 0); });
+    }
+
+    @Test
+    public void testArithmetic() {
+        Assertions.assertEquals(one, half.add(half));
+        Assertions.assertEquals(new Rt3Rational(5, 0, 6), half.add(new Rt3Rational(1, 0, 3)));
+        Assertions.assertEquals(new Rt3Rational(1, -2, 6), half.subtract(new Rt3Rational(2, 2, 6)));
+        Assertions.assertEquals(new Rt3Rational(4, 2), onePlusRt3.multiply(onePlusRt3));
+        Assertions.assertEquals(new Rt3Rational(3, 0), rt3.multiply(rt3));
+        Assertions.assertEquals(new Rt3Rational(-1, -1, 2), onePlusRt3.additiveInverse().multiply(half));
+    }
+
+    @Test
+    public void testDivide() {
+        Assertions.assertEquals(new Rt3Rational(1, 1, 2), onePlusRt3.divide(new Rt3Rational(2, 0)));
+        Assertions.assertEquals(one, onePlusRt3.divide(onePlusRt3));
+        // 1 / (1 + sqrt(3)) = (sqrt(3) - 1) / 2.
+        Assertions.assertEquals(new Rt3Rational(-1, 1, 2), one.divide(onePlusRt3));
+        Assertions.assertEquals(onePlusRt3, one.divide(onePlusRt3).divide(new Rt3Rational(1, 0, 4)).multiply(
+                onePlusRt3).multiply(onePlusRt3).divide(new Rt3Rational(4, 0)));
+        Assertions.assertThrows(ArithmeticException.class, () -> { one.divide(zero); });
+    }
+
+    @Test
+    public void testCompare() {
+        Assertions.assertEquals(1, rt3.compareTo(new Rt3Rational(17, 0, 10)));
+        Assertions.assertEquals(-1, rt3.compareTo(new Rt3Rational(7, 0, 4)));
+        Assertions.assertEquals(0, half.compareTo(new Rt3Rational(3, 0, 6)));
+        Assertions.assertEquals(-1, new Rt3Rational(1, -1, 3).compareToZero());
+        // 2672280.000000374... compared against 2672280.
+        Assertions.assertEquals(1, new Rt3Rational(1, 1542841).compareTo(new Rt3Rational(2672280, 0)));
+        // Cross-multiplying these overflows a long, so this uses the wide comparison.
+        Rt3Rational large = new Rt3Rational(Long.MAX_VALUE, 0, 3);
+        Rt3Rational larger = new Rt3Rational(Long.MAX_VALUE - 1, 0, 2);
+        Assertions.assertEquals(-1, large.compareTo(larger));
+        Assertions.assertEquals(1, larger.compareTo(large));
+    }
+
+    @Test
+    public void testMatchesFractionOfWholeAndRt3() {
+        Point<Rt3Rational> rationalZero = new Point<>(Rt3Rational.ZERO, Rt3Rational.ZERO);
+        Point<Fraction<WholeAndRt3>> fractionZero = new Point<>(
+                new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE),
+                new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE));
+        long[] bounds = {2, 3, 4, 5};
+        for (long bound: bounds) {
+            TrapezoidSequence<Rt3Rational> rationalSeq = new TrapezoidSequence<>(1, rationalZero);
+            TrapezoidSequence<Fraction<WholeAndRt3>> fractionSeq = new TrapezoidSequence<>(1, fractionZero);
+            Assertions.assertEquals(
+                    fractionSeq.assertBoundedMaxDistance(2, 6, 0, 40,
+                            new Fraction<>(new WholeAndRt3(bound, 0), WholeAndRt3.ONE)),
+                    rationalSeq.assertBoundedMaxDistance(2, 6, 0, 40, new Rt3Rational(bound, 0)));
+            Assertions.assertEquals(
+                    fractionSeq.assertBoundedMinDistance(2, 6, 0, 40,
+                            new Fraction<>(new WholeAndRt3(bound, 0), WholeAndRt3.ONE)),
+                    rationalSeq.assertBoundedMinDistance(2, 6, 0, 40, new Rt3Rational(bound, 0)));
+        }
+    }
+}
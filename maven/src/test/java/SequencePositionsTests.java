@@ -0,0 +1,74 @@
+import com.Point;
+import com.SequencePositions;
+import com.Trapezoid;
+import com.TrapezoidSequence;
+import com.TrapezoidStore;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for com.SequencePositions random access.
+ */
+public class SequencePositionsTests {
+
+    @Test
+    public void testMatchesStore() {
+        TrapezoidStore store = new TrapezoidStore(400000);
+        Random random = new Random(5);
+        for (int query = 0; query < 20000; query++) {
+            int index = query < 3000 ? query : random.nextInt(store.size());
+            Assertions.assertEquals(store.symbol(index), SequencePositions.symbol(index));
+            Assertions.assertEquals(store.type(index), SequencePositions.type(index));
+            long[] anchor = SequencePositions.anchor(index);
+            Assertions.assertEquals(store.vertexX(index, 0), anchor[0]);
+            Assertions.assertEquals(store.vertexY(index, 0), anchor[1]);
+        }
+        // A window far into the sequence continues from the previous trapezoid.
+        long index = 3_000_000_000_000L;
+        Point<WholeAndRt3> zero = new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO);
+        List<Trapezoid<WholeAndRt3>> window = SequencePositions.window(index, 2, zero);
+        Assertions.assertEquals(window.get(1).toString(), SequencePositions.window(index + 1, 1, zero).get(0).toString());
+    }
+
+    @Test
+    public void testWindowMatchesSequence() {
+        Point<WholeAndRt3> start = new Point<>(new WholeAndRt3(3, 1), new WholeAndRt3(-2, 5));
+        TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(5000, start);
+        List<Trapezoid<WholeAndRt3>> window = SequencePositions.window(4321, 600, start);
+        Assertions.assertEquals(600, window.size());
+        for (int i = 0; i < window.size(); i++) {
+            Assertions.assertEquals(trapSeq.getTrapezoid(4321 + i).toString(), window.get(i).toString());
+        }
+    }
+
+    @Test
+    public void testOffsetStoreMatchesStore() {
+        TrapezoidStore store = new TrapezoidStore(100000);
+        int offset = 54321;
+        TrapezoidStore window = new TrapezoidStore(offset, 2000);
+        window.extendToLength(4000);
+        Assertions.assertEquals(offset, window.getOffset());
+        Assertions.assertEquals(4000, window.size());
+        for (int i = 0; i < window.size(); i++) {
+            Assertions.assertEquals(store.symbol(offset + i), window.symbol(i));
+            for (int v = 0; v < 4; v++) {
+                Assertions.assertEquals(store.vertexX(offset + i, v) - store.vertexX(offset, 0), window.vertexX(i, v));
+                Assertions.assertEquals(store.vertexY(offset + i, v) - store.vertexY(offset, 0), window.vertexY(i, v));
+            }
+        }
+        // A shard far into the sequence agrees with the random access positions.
+        long farOffset = 3_000_000_000_000L;
+        TrapezoidStore far = new TrapezoidStore(farOffset, 50);
+        long[] farAnchor = SequencePositions.anchor(farOffset);
+        for (int i = 0; i < far.size(); i++) {
+            long[] anchor = SequencePositions.anchor(farOffset + i);
+            Assertions.assertEquals(SequencePositions.symbol(farOffset + i), far.symbol(i));
+            Assertions.assertEquals(anchor[0] - farAnchor[0], far.vertexX(i, 0));
+            Assertions.assertEquals(anchor[1] - farAnchor[1], far.vertexY(i, 0));
+        }
+    }
+}
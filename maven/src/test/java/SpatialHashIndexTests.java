@@ -0,0 +1,97 @@
+import com.Point;
+import com.SpatialHashIndex;
+import com.TrapezoidSequence;
+import com.numbers.Fraction;
+import com.numbers.LongRational;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests for the com.SpatialHashIndex close approach queries.
+ */
+public class SpatialHashIndexTests {
+    private static final int N_TRAPEZOIDS = 1500;
+
+    private static TrapezoidSequence<Fraction<WholeAndRt3>> makeSequence() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        return new TrapezoidSequence<>(N_TRAPEZOIDS, new Point<>(zero, zero));
+    }
+
+    @Test
+    public void testWithinMatchesAllPairs() {
+        TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = makeSequence();
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        int nPairs = 0;
+        for (int cellSize: new int[] {1, 7, 50}) {
+            SpatialHashIndex index = trapSeq.buildSpatialIndex(cellSize);
+            for (int i = 0; i < N_TRAPEZOIDS; i += 7) {
+                HashSet<Integer> expected = new HashSet<>();
+                for (int j = 0; j < N_TRAPEZOIDS; j++) {
+                    if (Math.abs(i - j) >= 4 && trapSeq.getMinDistanceSq(i, j).compareTo(zero.whole(144)) <= 0)
+                        expected.add(j);
+                }
+                List<Integer> actual = index.within(i, 12, 4);
+                nPairs += actual.size();
+                Assertions.assertEquals(expected.size(), actual.size());
+                Assertions.assertEquals(expected, new HashSet<>(actual));
+            }
+        }
+        Assertions.assertTrue(nPairs > 0);
+    }
+
+    @Test
+    public void testWithinWithoutRt3() {
+        // The lattice of a number system with rt3() equal to 1 is its own plane.
+        TrapezoidSequence<LongRational> trapSeq = new TrapezoidSequence<>(
+                N_TRAPEZOIDS, new Point<>(LongRational.ZERO, LongRational.ZERO));
+        for (int cellSize: new int[] {1, 7}) {
+            SpatialHashIndex index = trapSeq.buildSpatialIndex(cellSize);
+            for (int i = 0; i < N_TRAPEZOIDS; i += 13) {
+                HashSet<Integer> expected = new HashSet<>();
+                for (int j = 0; j < N_TRAPEZOIDS; j++) {
+                    if (Math.abs(i - j) >= 4 && trapSeq.getMinDistanceSq(i, j).compareTo(new LongRational(64)) <= 0)
+                        expected.add(j);
+                }
+                Assertions.assertEquals(expected, new HashSet<>(index.within(i, 8, 4)));
+                for (int j: expected)
+                    Assertions.assertEquals(0, trapSeq.getMinDistanceSq(i, j).compareTo(index.minDistanceSq(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void testClosestApproachesByGap() {
+        TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = makeSequence();
+        SpatialHashIndex index = trapSeq.buildSpatialIndex(8);
+        List<SpatialHashIndex.CloseApproach> closest = index.closestApproachesByGap(12, 2);
+        List<Fraction<WholeAndRt3>> expected = new ArrayList<>();
+        for (int i = 0; i < N_TRAPEZOIDS; i++) {
+            for (int j = i + 2; j < N_TRAPEZOIDS; j++) {
+                Fraction<WholeAndRt3> distanceSq = trapSeq.getMinDistanceSq(i, j);
+                if (distanceSq.compareTo(distanceSq.whole(144)) > 0)
+                    continue;
+                int bucket = 31 - Integer.numberOfLeadingZeros((j - i) / 2);
+                while (expected.size() <= bucket)
+                    expected.add(null);
+                if (expected.get(bucket) == null || distanceSq.compareTo(expected.get(bucket)) < 0)
+                    expected.set(bucket, distanceSq);
+            }
+        }
+        Assertions.assertTrue(expected.size() > 1);
+        Assertions.assertEquals(expected.size(), closest.size());
+        for (int bucket = 0; bucket < expected.size(); bucket++) {
+            if (expected.get(bucket) == null) {
+                Assertions.assertNull(closest.get(bucket));
+                continue;
+            }
+            SpatialHashIndex.CloseApproach approach = closest.get(bucket);
+            Assertions.assertEquals(expected.get(bucket).toDouble(), approach.distanceSq.toDouble(), 1e-9);
+            Assertions.assertTrue(approach.gap() >= 2 << bucket && approach.gap() < 4 << bucket);
+        }
+    }
+}
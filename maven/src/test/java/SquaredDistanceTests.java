@@ -0,0 +1,76 @@
+import com.Point;
+import com.SquaredDistance;
+import com.Trapezoid;
+import com.TrapezoidSequence;
+import com.numbers.Fraction;
+import com.numbers.HybridWholeAndRt3;
+import com.numbers.WholeAndRt3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.SquaredDistance unnormalized quotients.
+ */
+public class SquaredDistanceTests {
+
+    @Test
+    public void testCompareByCrossMultiplying() {
+        // 7 / 4 < 2 < 9 / 4 and 6 / 4 = 3 / 2.
+        SquaredDistance<WholeAndRt3> sevenQuarters = SquaredDistance.of(new WholeAndRt3(7, 0), new WholeAndRt3(4, 0));
+        SquaredDistance<WholeAndRt3> two = SquaredDistance.of(new WholeAndRt3(2, 0));
+        SquaredDistance<WholeAndRt3> nineQuarters = SquaredDistance.of(new WholeAndRt3(9, 0), new WholeAndRt3(4, 0));
+        SquaredDistance<WholeAndRt3> sixQuarters = SquaredDistance.of(new WholeAndRt3(6, 0), new WholeAndRt3(4, 0));
+        SquaredDistance<WholeAndRt3> threeHalves = SquaredDistance.of(new WholeAndRt3(3, 0), new WholeAndRt3(2, 0));
+        Assertions.assertTrue(sevenQuarters.compareTo(two) < 0);
+        Assertions.assertTrue(two.compareTo(nineQuarters) < 0);
+        Assertions.assertTrue(nineQuarters.compareTo(sevenQuarters) > 0);
+        Assertions.assertEquals(0, sixQuarters.compareTo(threeHalves));
+        Assertions.assertSame(sevenQuarters, nineQuarters.min(sevenQuarters));
+        Assertions.assertTrue(sevenQuarters.compareToValue(new WholeAndRt3(2, 0)) < 0);
+        // 7 / 4 * 8 = 14 > 9 / 4 * 4 = 9.
+        Assertions.assertTrue(sevenQuarters.compareScaled(
+                new WholeAndRt3(8, 0), nineQuarters, new WholeAndRt3(4, 0)) > 0);
+        Assertions.assertEquals(new WholeAndRt3(2, 0), two.value());
+        Assertions.assertThrows(ArithmeticException.class, sevenQuarters::value);
+    }
+
+    @Test
+    public void testTrapezoidDistancesMatchFractions() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        TrapezoidSequence<Fraction<WholeAndRt3>> fractionSeq = new TrapezoidSequence<>(200, new Point<>(zero, zero));
+        TrapezoidSequence<WholeAndRt3> wholeSeq = new TrapezoidSequence<>(
+                200, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        for (int index = 0; index < 150; index++) {
+            for (int gap = 1; gap <= 40; gap++) {
+                Trapezoid<WholeAndRt3> trap1 = wholeSeq.getTrapezoid(index);
+                Trapezoid<WholeAndRt3> trap2 = wholeSeq.getTrapezoid(index + gap);
+                SquaredDistance<WholeAndRt3> distanceSq = trap1.minSquaredDistance(trap2);
+                Fraction<WholeAndRt3> expected = fractionSeq.getTrapezoid(index).minDistanceSq(
+                        fractionSeq.getTrapezoid(index + gap));
+                Assertions.assertEquals(0, new Fraction<>(distanceSq.getNumerator(), distanceSq.getDenominator())
+                        .compareTo(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testAssertionsWithoutFractions() {
+        Fraction<WholeAndRt3> zero = new Fraction<>(WholeAndRt3.ZERO, WholeAndRt3.ONE);
+        TrapezoidSequence<Fraction<WholeAndRt3>> fractionSeq = new TrapezoidSequence<>(1, new Point<>(zero, zero));
+        TrapezoidSequence<WholeAndRt3> wholeSeq = new TrapezoidSequence<>(
+                1, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        TrapezoidSequence<HybridWholeAndRt3> hybridSeq = new TrapezoidSequence<>(
+                1, new Point<>(HybridWholeAndRt3.ZERO, HybridWholeAndRt3.ZERO));
+        for (long bound = 1; bound <= 40; bound += 3) {
+            Fraction<WholeAndRt3> fractionBound = new Fraction<>(new WholeAndRt3(bound, 0), WholeAndRt3.ONE);
+            WholeAndRt3 wholeBound = new WholeAndRt3(bound, 0);
+            HybridWholeAndRt3 hybridBound = new HybridWholeAndRt3(bound, 0);
+            boolean expectedMin = fractionSeq.assertBoundedMinDistance(2, 8, 0, 60, fractionBound);
+            boolean expectedRatio = fractionSeq.assertBoundedRatio(2, 8, 0, 60, fractionBound);
+            Assertions.assertEquals(expectedMin, wholeSeq.assertBoundedMinDistance(2, 8, 0, 60, wholeBound));
+            Assertions.assertEquals(expectedRatio, wholeSeq.assertBoundedRatio(2, 8, 0, 60, wholeBound));
+            Assertions.assertEquals(expectedMin, hybridSeq.assertBoundedMinDistance(2, 8, 0, 60, hybridBound));
+            Assertions.assertEquals(expectedRatio, hybridSeq.assertBoundedRatio(2, 8, 0, 60, hybridBound));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+import com.TrapezoidBvh;
+import com.TrapezoidStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for the com.TrapezoidBvh line stabbing queries.
+ */
+public class TrapezoidBvhTests {
+
+    @Test
+    public void testMatchesLinearScan() {
+        // 7^4 + 5 trapezoids, so that the last block at each level is partial.
+        TrapezoidStore store = new TrapezoidStore(2406);
+        TrapezoidBvh bvh = new TrapezoidBvh(store);
+        Assertions.assertEquals(5, bvh.getLevels());
+        Random random = new Random(7);
+        for (int query = 0; query < 2000; query++) {
+            int index1 = random.nextInt(store.size());
+            int index2 = random.nextInt(store.size());
+            int v1 = random.nextInt(4), v2 = random.nextInt(4);
+            long x1 = store.vertexX(index1, v1), y1 = store.vertexY(index1, v1);
+            long x2 = store.vertexX(index2, v2), y2 = store.vertexY(index2, v2);
+            if (x1 == x2 && y1 == y2)
+                continue;
+            int minIndex = random.nextInt(store.size());
+            int maxIndex = minIndex + random.nextInt(query % 2 == 0 ? 50 : store.size());
+            int[] expected = IntStream.rangeClosed(minIndex, Math.min(maxIndex, store.size() - 1))
+                    .filter(i -> bvh.intersectsLine(i, x1, y1, x2, y2)).toArray();
+            Assertions.assertArrayEquals(expected, bvh.intersectingLine(minIndex, maxIndex, x1, y1, x2, y2));
+        }
+    }
+}
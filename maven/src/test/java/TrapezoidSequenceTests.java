@@ -2,6 +2,7 @@ import com.Interval;
 import com.Point;
 import com.PointFactory;
 import com.TrapezoidSequence;
+import com.TrapezoidStore;
 import com.numbers.DoubleRep;
 import com.numbers.Fraction;
 import com.numbers.WholeAndRt3;
@@ -110,6 +111,75 @@ public class TrapezoidSequenceTests {
     }
      */
 
+    @Test
+    public void testRadialSweepMatchesCountCollinear() {
+        // Vertices shared by several trapezoids are pivoted once.
+        TrapezoidSequence<WholeNumber> trapSeq = new TrapezoidSequence<>(
+                343, new Point<>(new WholeNumber(0), new WholeNumber(0)));
+        int[][] cases = {{0, 120, 17}, {37, 160, 9}, {100, 290, 40}, {5, 342, 120}};
+        for (int[] c: cases) {
+            Assertions.assertEquals(
+                    trapSeq.countCollinear(c[0], c[1], c[2]),
+                    trapSeq.radialSweepCountCollinear(c[0], c[1], c[2]).numTrapezoidsIntersected);
+        }
+    }
+
+    @Test
+    public void testVertexSignTableMatchesLatticeCount() {
+        // Robust doubles have no lattice, so their vertices go through a sign table.
+        TrapezoidSequence<DoubleRep> robustSeq = new TrapezoidSequence<>(
+                343, new Point<>(DoubleRep.robust(0), DoubleRep.robust(0)));
+        TrapezoidSequence<WholeAndRt3> latticeSeq = new TrapezoidSequence<>(
+                343, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        int[][] cases = {{0, 48, 1}, {0, 120, 17}, {37, 160, 9}, {100, 290, 40}};
+        for (int[] c: cases) {
+            Assertions.assertEquals(
+                    latticeSeq.countCollinear(c[0], c[1], c[2]),
+                    robustSeq.countCollinear(c[0], c[1], c[2]));
+        }
+    }
+
+    @Test
+    public void testApproximateVerticesArePooledByLattice() {
+        // Plain doubles compare with a tolerance, so their vertices are told apart by the lattice.
+        TrapezoidSequence<DoubleRep> doubleSeq = new TrapezoidSequence<>(
+                343, new Point<>(new DoubleRep(0), new DoubleRep(0)));
+        TrapezoidSequence<WholeAndRt3> latticeSeq = new TrapezoidSequence<>(
+                343, new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO));
+        int[][] cases = {{0, 60, 9}, {37, 160, 17}};
+        for (int[] c: cases) {
+            Assertions.assertEquals(
+                    latticeSeq.countCollinear(c[0], c[1], c[2]),
+                    doubleSeq.countCollinear(c[0], c[1], c[2]));
+            Assertions.assertEquals(
+                    latticeSeq.radialSweepCountCollinear(c[0], c[1], c[2]).numTrapezoidsIntersected,
+                    doubleSeq.radialSweepCountCollinear(c[0], c[1], c[2]).numTrapezoidsIntersected);
+        }
+    }
+
+    @Test
+    public void testBoundsMatchVertices() {
+        // Longer than the trapezoid cache, so the trapezoids are made again when evicted.
+        Point<WholeAndRt3> start = new Point<>(new WholeAndRt3(3, 1), new WholeAndRt3(-2, 5));
+        TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(5000, start);
+        TrapezoidStore store = new TrapezoidStore(5000);
+        int xMin = 0, xMax = 0, yMin = 0, yMax = 0;
+        for (int i = 0; i < store.size(); i++) {
+            Assertions.assertEquals(store.trapezoid(i, start).toString(), trapSeq.getTrapezoid(i).toString());
+            for (int v = 0; v < 4; v++) {
+                xMin = Math.min(xMin, store.vertexX(i, v));
+                xMax = Math.max(xMax, store.vertexX(i, v));
+                yMin = Math.min(yMin, store.vertexY(i, v));
+                yMax = Math.max(yMax, store.vertexY(i, v));
+            }
+        }
+        Assertions.assertEquals(
+                Arrays.asList(new WholeAndRt3(3 + xMin, 1), new WholeAndRt3(-2, 5 + yMin),
+                        new WholeAndRt3(3 + xMax, 1), new WholeAndRt3(-2, 5 + yMax)),
+                trapSeq.getBounds());
+        Assertions.assertEquals(store.trapezoid(7, start).toString(), trapSeq.getTrapezoid(7).toString());
+    }
+
     @Test
     public void testRadialSweep() {
         TrapezoidSequence<Fraction<WholeAndRt3>> trapSeq = new TrapezoidSequence<>(6002, zeroPt);
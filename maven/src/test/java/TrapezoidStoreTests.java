@@ -0,0 +1,67 @@
+import com.Point;
+import com.SymbolSequence;
+import com.TrapezoidSequence;
+import com.TrapezoidStore;
+import com.numbers.WholeAndRt3;
+import com.numbers.WholeNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the com.TrapezoidStore compact trapezoid store.
+ */
+public class TrapezoidStoreTests {
+
+    @Test
+    public void testMatchesTrapezoidSequence() {
+        Point<WholeAndRt3> zero = new Point<>(WholeAndRt3.ZERO, WholeAndRt3.ZERO);
+        TrapezoidSequence<WholeAndRt3> trapSeq = new TrapezoidSequence<>(2401, zero);
+        TrapezoidStore store = new TrapezoidStore(2401);
+        SymbolSequence symbolSequence = new SymbolSequence(2401);
+        Assertions.assertEquals(2401, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            Assertions.assertEquals((int) symbolSequence.sequence.get(i), store.symbol(i));
+            Assertions.assertEquals(TrapezoidSequence.trapezoidTypeMap[store.symbol(i)], store.type(i));
+            Assertions.assertEquals(trapSeq.getTrapezoid(i).toString(), store.trapezoid(i, zero).toString());
+        }
+        Point<WholeAndRt3> start = new Point<>(new WholeAndRt3(3, 1), new WholeAndRt3(-2, 5));
+        TrapezoidSequence<WholeAndRt3> shiftedSeq = new TrapezoidSequence<>(49, start);
+        for (int i = 0; i < 49; i++) {
+            Assertions.assertEquals(shiftedSeq.getTrapezoid(i).toString(), store.trapezoid(i, start).toString());
+        }
+    }
+
+    @Test
+    public void testExtension() {
+        TrapezoidStore store = new TrapezoidStore(10);
+        store.extendToLength(5);
+        Assertions.assertEquals(10, store.size());
+        store.extendToLength(16807);
+        TrapezoidStore fullStore = new TrapezoidStore(16807);
+        for (int i = 0; i < 16807; i++) {
+            Assertions.assertEquals(fullStore.symbol(i), store.symbol(i));
+            for (int vertex = 0; vertex < 4; vertex++) {
+                Assertions.assertEquals(fullStore.vertexX(i, vertex), store.vertexX(i, vertex));
+                Assertions.assertEquals(fullStore.vertexY(i, vertex), store.vertexY(i, vertex));
+            }
+        }
+        // Consecutive trapezoids share a vertex.
+        for (int i = 1; i < 16807; i++) {
+            Assertions.assertEquals(store.vertexX(i - 1, 3), store.vertexX(i, 0));
+            Assertions.assertEquals(store.vertexY(i - 1, 3), store.vertexY(i, 0));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> store.vertexX(16807, 0));
+    }
+
+    @Test
+    public void testLargeStore() {
+        TrapezoidStore store = new TrapezoidStore(10000000);
+        Point<WholeNumber> zero = new Point<>(WholeNumber.ZERO, WholeNumber.ZERO);
+        TrapezoidSequence<WholeNumber> trapSeq = new TrapezoidSequence<>(343, zero);
+        // Ten million trapezoids take about 90MB in the store.
+        for (int i = 0; i < 343; i++) {
+            Assertions.assertEquals(trapSeq.getTrapezoid(i).toString(), store.trapezoid(i, zero).toString());
+        }
+        Assertions.assertEquals(10000000, store.size());
+    }
+}
@@ -1,3 +1,4 @@
+import com.LineSegment;
 import com.Point;
 import com.PointFactory;
 import com.Trapezoid;
@@ -214,4 +215,41 @@ public class TrapezoidTests {
         Assertions.assertTrue(trap.contains(p74));
         Assertions.assertTrue(trap.contains(p34));
     }
+
+    @Test
+    public void testCachedGeometryMatchesSides() {
+        Trapezoid<Fraction<WholeNumber>> counterClockwise = tf.makeFractionTrapezoid(
+                1, 1, 9, 1, 7, 4, 3, 4);
+        Trapezoid<Fraction<WholeNumber>> clockwise = tf.makeFractionTrapezoid(
+                1, 1, 3, 4, 7, 4, 9, 1);
+        Point<Fraction<WholeNumber>> v0 = pf.makeFractionPoint(1, 1);
+        Point<Fraction<WholeNumber>> v1 = pf.makeFractionPoint(9, 1);
+        Point<Fraction<WholeNumber>> v2 = pf.makeFractionPoint(7, 4);
+        Point<Fraction<WholeNumber>> v3 = pf.makeFractionPoint(3, 4);
+        LineSegment<Fraction<WholeNumber>>[] sides = new LineSegment[] {
+                new LineSegment<>(v0, v1), new LineSegment<>(v1, v2),
+                new LineSegment<>(v2, v3), new LineSegment<>(v3, v0)};
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {2, 1}, {-1, -3}};
+        for (int x = -1; x <= 11; x++) {
+            for (int y = -1; y <= 6; y++) {
+                Point<Fraction<WholeNumber>> p = pf.makeFractionPoint(x, y);
+                boolean inside = 1 <= y && y <= 4 && 2 * (y - 1) <= 3 * (x - 1) && 2 * (y - 1) <= 3 * (9 - x);
+                Assertions.assertEquals(inside, counterClockwise.contains(p), p.toString());
+                Assertions.assertEquals(inside, clockwise.contains(p), p.toString());
+                for (int[] direction: directions) {
+                    Point<Fraction<WholeNumber>> q = pf.makeFractionPoint(x + direction[0], y + direction[1]);
+                    boolean lineIntersects = false;
+                    boolean rayIntersects = false;
+                    for (LineSegment<Fraction<WholeNumber>> side: sides) {
+                        lineIntersects |= side.intersectsInfiniteLine(p, q);
+                        rayIntersects |= side.intersectsSemiInfiniteLine(p, q);
+                    }
+                    Assertions.assertEquals(lineIntersects, counterClockwise.intersectsInfiniteLine(p, q));
+                    Assertions.assertEquals(lineIntersects, clockwise.intersectsInfiniteLine(p, q));
+                    Assertions.assertEquals(rayIntersects, counterClockwise.intersectsSemiInfiniteLine(p, q));
+                    Assertions.assertEquals(rayIntersects, clockwise.intersectsSemiInfiniteLine(p, q));
+                }
+            }
+        }
+    }
 }
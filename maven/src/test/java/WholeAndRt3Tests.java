@@ -1,4 +1,5 @@
 import com.numbers.WholeAndRt3;
+import com.numbers.WholeAndRt3Kernel;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import java.util.Arrays;
@@ -109,6 +110,9 @@ public class WholeAndRt3Tests {
                         new WholeAndRt3(Long.MIN_VALUE + 2, Long.MIN_VALUE + 2),
                         maxValue},
                 {zero, maxValue, largeNegative},
+                // Subtracting Long.MIN_VALUE works when the difference fits.
+                {new WholeAndRt3(-1, -1), minValue, maxValue},
+                {minusOne, new WholeAndRt3(Long.MIN_VALUE, 0), new WholeAndRt3(Long.MAX_VALUE, 0)},
         };
         for (WholeAndRt3[] subtractionCase : cases) {
             System.out.println(Arrays.toString(subtractionCase));
@@ -126,10 +130,6 @@ public class WholeAndRt3Tests {
                 {minusTwo, maxValue},
                 {largePositive, minusTwoRt3},
                 {zero, minValue},
-                // This case technically should work, but we disallow
-                // subtracting Long.MIN_VALUE since
-                // -Long.MIN_VALUE != Long.MAX_VALUE.
-                {new WholeAndRt3(-1, -1), minValue},
                 {new WholeAndRt3(-2, -2), maxValue},
                 {rt3, largeNegative},
                 {largePositive, minusTwo},
@@ -247,10 +247,21 @@ public class WholeAndRt3Tests {
         // 2672280.000000374...
         WholeAndRt3 almost2672280 = new WholeAndRt3(1, 1542841);
         WholeAndRt3 exactly2672280 = new WholeAndRt3(2672280, 0);
-        Assertions.assertThrows(ArithmeticException.class,
-                () -> { almost2672280.compareTo(exactly2672280); });
-        Assertions.assertThrows(ArithmeticException.class,
-                () -> { exactly2672280.compareTo(almost2672280); });
+        Assertions.assertEquals(1, almost2672280.compareTo(exactly2672280));
+        Assertions.assertEquals(-1, exactly2672280.compareTo(almost2672280));
+        Assertions.assertEquals(1, almost2672280.subtract(exactly2672280).compareToZero());
+    }
+
+    @Test
+    public void testExtremeComparison() {
+        long max = Long.MAX_VALUE;
+        long min = Long.MIN_VALUE;
+        Assertions.assertEquals(-1, new WholeAndRt3(max, min).compareTo(new WholeAndRt3(min, max)));
+        Assertions.assertEquals(-1, new WholeAndRt3(max, min).compareToZero());
+        Assertions.assertEquals(1, new WholeAndRt3(min, max).compareToZero());
+        Assertions.assertEquals(-1, new WholeAndRt3(min, 0).compareTo(new WholeAndRt3(max, min)));
+        Assertions.assertEquals(0, new WholeAndRt3(min, min).compareTo(new WholeAndRt3(min, min)));
+        Assertions.assertEquals(1, new WholeAndRt3(max, 0).compareTo(new WholeAndRt3(0, -max)));
     }
 
     @Test
@@ -366,4 +377,33 @@ public class WholeAndRt3Tests {
         WholeAndRt3 base = new WholeAndRt3(1,2);
         Assertions.assertEquals(base.whole(7), new WholeAndRt3(7,0));
     }
+
+    @Test
+    public void testKernelMatchesObjectArithmetic() {
+        WholeAndRt3[] values = {
+                zero, one, minusOne, rt3, minusRt3, onePlusRt3, oneMinusRt3,
+                new WholeAndRt3(94, -41), new WholeAndRt3(-3, 15),
+                new WholeAndRt3(5, -4), new WholeAndRt3(-7, 4)
+        };
+        long[] buffer = new long[6];
+        for (WholeAndRt3 a: values) {
+            for (WholeAndRt3 b: values) {
+                WholeAndRt3Kernel.store(buffer, 0, a);
+                WholeAndRt3Kernel.store(buffer, 1, b);
+                WholeAndRt3Kernel.add(buffer, 2, 0, 1);
+                Assertions.assertEquals(a.add(b), WholeAndRt3Kernel.load(buffer, 2));
+                WholeAndRt3Kernel.subtract(buffer, 2, 0, 1);
+                Assertions.assertEquals(a.subtract(b), WholeAndRt3Kernel.load(buffer, 2));
+                WholeAndRt3Kernel.multiply(buffer, 2, 0, 1);
+                Assertions.assertEquals(a.multiply(b), WholeAndRt3Kernel.load(buffer, 2));
+                for (WholeAndRt3 c: values) {
+                    WholeAndRt3 cross = a.multiply(c).subtract(b.multiply(one));
+                    Assertions.assertEquals(cross.compareToZero(),
+                            WholeAndRt3Kernel.crossSign(a, b, one, c));
+                }
+            }
+            WholeAndRt3Kernel.store(buffer, 0, a);
+            Assertions.assertEquals(a.compareToZero(), WholeAndRt3Kernel.sign(buffer, 0));
+        }
+    }
 }